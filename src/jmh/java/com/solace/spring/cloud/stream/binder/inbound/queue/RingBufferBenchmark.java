@@ -0,0 +1,117 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import com.solace.spring.cloud.stream.binder.util.IdleThreads;
+import com.solace.spring.cloud.stream.binder.util.WaitStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the hand-off of messages from the flow's dispatcher thread to the receiver threads through the
+ * {@link RingBuffer}, with parked receiver threads woken up by the dispatcher thread, with the
+ * {@link LinkedBlockingDeque} it replaced, which the receiver threads polled with a timeout.
+ * <p>Every invocation hands a batch of messages to the receiver threads and waits until they took all of them. The
+ * batch is smaller than the capacity of the ring buffer, so that its overflow is not measured.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RingBufferBenchmark {
+    private static final int BATCH = 256;
+    private static final Object MESSAGE = new Object();
+
+    @Param({"1", "4", "16"})
+    private int concurrency;
+
+    @Param({"RING_BUFFER", "LINKED_BLOCKING_DEQUE"})
+    private QueueType queueType;
+
+    private final AtomicLong taken = new AtomicLong();
+    private final List<Thread> receiverThreads = new ArrayList<>();
+    private volatile boolean running;
+    private RingBuffer<Object> ringBuffer;
+    private IdleThreads idleThreads;
+    private BlockingDeque<Object> blockingDeque;
+    private long handedOff;
+
+    public enum QueueType {
+        RING_BUFFER, LINKED_BLOCKING_DEQUE
+    }
+
+    @Setup
+    public void setup() {
+        running = true;
+        ringBuffer = new RingBuffer<>(FlowXMLMessageListener.DEFAULT_QUEUE_CAPACITY);
+        idleThreads = new IdleThreads();
+        blockingDeque = new LinkedBlockingDeque<>();
+        for (int i = 0; i < concurrency; i++) {
+            Thread thread = new Thread(queueType == QueueType.RING_BUFFER ? this::takeFromRingBuffer : this::takeFromBlockingDeque);
+            thread.setDaemon(true);
+            thread.start();
+            receiverThreads.add(thread);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running = false;
+        idleThreads.wakeUpAll();
+        for (Thread thread : receiverThreads) {
+            thread.join();
+        }
+        receiverThreads.clear();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long handOff() {
+        for (int i = 0; i < BATCH; i++) {
+            if (queueType == QueueType.RING_BUFFER) {
+                while (!ringBuffer.offer(MESSAGE)) {
+                    Thread.yield();
+                }
+                idleThreads.wakeUpOne();
+            } else {
+                blockingDeque.offer(MESSAGE);
+            }
+        }
+        handedOff += BATCH;
+        while (taken.get() < handedOff) {
+            Thread.yield();
+        }
+        return handedOff;
+    }
+
+    private void takeFromRingBuffer() {
+        int attempt = 0;
+        while (running) {
+            if (ringBuffer.poll() != null) {
+                taken.incrementAndGet();
+                attempt = 0;
+            } else {
+                WaitStrategy.PARK.idle(attempt, idleThreads, () -> !running || ringBuffer.size() > 0);
+                attempt = Math.min(attempt + 1, Integer.MAX_VALUE - 1);
+            }
+        }
+    }
+
+    private void takeFromBlockingDeque() {
+        try {
+            while (running) {
+                if (blockingDeque.poll(1, TimeUnit.SECONDS) != null) {
+                    taken.incrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaderMeta;
+import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
+import com.solace.spring.cloud.stream.binder.messaging.SolaceHeaderMeta;
+import com.solace.spring.cloud.stream.binder.messaging.SolaceHeaders;
+import com.solacesystems.jcsmp.DeliveryMode;
+import com.solacesystems.jcsmp.XMLMessage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cloud.stream.binder.BinderHeaders;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the outbound header filter of the compiled {@link HeaderMappingPlan} with the per-message checks it
+ * replaced, and measures the whole outbound mapping with the plan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HeaderMappingPlanBenchmark {
+    @Param({"5", "20", "50"})
+    private int userHeaders;
+
+    private final Collection<String> excludedHeaders = List.of("excluded-0", "excluded-1", "excluded-2");
+    private final XMLMessageMapper xmlMessageMapper = new XMLMessageMapper();
+    private HeaderMappingPlan plan;
+    private Message<String> message;
+
+    @Setup
+    public void setup() {
+        plan = HeaderMappingPlan.compile(excludedHeaders);
+        MessageBuilder<String> builder = MessageBuilder.withPayload("payload")
+                .setHeader(SolaceHeaders.APPLICATION_MESSAGE_ID, "id")
+                .setHeader(SolaceHeaders.CORRELATION_ID, "correlation")
+                .setHeader(BinderHeaders.TARGET_DESTINATION, "some/topic")
+                .setHeader("excluded-0", "excluded");
+        for (int i = 0; i < userHeaders; i++) {
+            builder.setHeader("header-" + i, "value-" + i);
+        }
+        message = builder.build();
+    }
+
+    @Benchmark
+    public void outboundFilterPerMessage(Blackhole blackhole) {
+        for (Map.Entry<String, Object> header : message.getHeaders().entrySet()) {
+            blackhole.consume(isSkippedOutboundPerMessage(header.getKey(), excludedHeaders));
+        }
+    }
+
+    @Benchmark
+    public void outboundFilterPlan(Blackhole blackhole) {
+        for (Map.Entry<String, Object> header : message.getHeaders().entrySet()) {
+            blackhole.consume(plan.isSkippedOutbound(header.getKey()));
+        }
+    }
+
+    @Benchmark
+    public XMLMessage mapOutbound() {
+        return xmlMessageMapper.map(message, excludedHeaders, false, DeliveryMode.PERSISTENT);
+    }
+
+    /**
+     * The checks of every header before the mapping plan was compiled per binding.
+     */
+    private static boolean isSkippedOutboundPerMessage(String header, Collection<String> excludedHeaders) {
+        return header.equalsIgnoreCase(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK) ||
+                header.equalsIgnoreCase(BinderHeaders.TARGET_DESTINATION) ||
+                header.equalsIgnoreCase(SolaceBinderHeaders.CONFIRM_CORRELATION) ||
+                SolaceHeaderMeta.META.containsKey(header) ||
+                SolaceBinderHeaderMeta.META.containsKey(header) ||
+                (excludedHeaders != null && excludedHeaders.contains(header)) ||
+                IntegrationMessageHeaderAccessor.SOURCE_DATA.equals(header);
+    }
+}
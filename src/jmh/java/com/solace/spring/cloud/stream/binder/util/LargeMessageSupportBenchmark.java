@@ -0,0 +1,79 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import com.solacesystems.jcsmp.BytesMessage;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.XMLMessage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures splitting a large message into chunks and creating every chunk the way a publisher does, for each payload
+ * type of {@link LargeMessageSupport}. Run it with {@code -prof gc}, so that the bytes allocated per published message
+ * ({@code gc.alloc.rate.norm}) are reported next to the time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LargeMessageSupportBenchmark {
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    @Param({"4194304", "33554432"})
+    private int messageSize;
+
+    @Param({"BYTE_ARRAY", "BYTE_BUFFER", "PATH"})
+    private PayloadType payloadType;
+
+    private final LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
+    private byte[] data;
+    private Path path;
+
+    public enum PayloadType {
+        BYTE_ARRAY, BYTE_BUFFER, PATH
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        largeMessageSupport.setChunkSize(CHUNK_SIZE);
+        data = new byte[messageSize];
+        ThreadLocalRandom.current().nextBytes(data);
+        path = Files.createTempFile("large-message-benchmark", ".bin");
+        Files.write(path, data);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public void publish(Blackhole blackhole) throws IOException {
+        BytesMessage message = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        List<XMLMessage> chunks = switch (payloadType) {
+            case BYTE_ARRAY -> {
+                message.setData(data);
+                yield largeMessageSupport.split(message);
+            }
+            case BYTE_BUFFER -> largeMessageSupport.split(message, ByteBuffer.wrap(data));
+            case PATH -> largeMessageSupport.split(message, path);
+        };
+        try {
+            // like the publisher, every chunk is created once and dropped once it is sent
+            for (int i = 0; i < chunks.size(); i++) {
+                blackhole.consume(chunks.get(i));
+            }
+        } finally {
+            LargeMessageSupport.release(chunks);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.solace.spring.cloud.stream.binder;
 
+import com.solace.spring.cloud.stream.binder.codec.SolacePayloadCodecRegistry;
 import com.solace.spring.cloud.stream.binder.health.SolaceBinderHealthAccessor;
 import com.solace.spring.cloud.stream.binder.inbound.queue.JCSMPInboundQueueMessageProducer;
 import com.solace.spring.cloud.stream.binder.inbound.topic.JCSMPInboundTopicMessageMultiplexer;
@@ -18,6 +19,8 @@ import com.solacesystems.jcsmp.*;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.stream.annotation.StreamRetryTemplate;
 import org.springframework.cloud.stream.binder.*;
 import org.springframework.cloud.stream.provisioning.ConsumerDestination;
 import org.springframework.cloud.stream.provisioning.ProducerDestination;
@@ -27,7 +30,9 @@ import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.retry.RecoveryCallback;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.CollectionUtils;
 
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -44,6 +49,7 @@ public class SolaceMessageChannelBinder
     private final JCSMPInboundTopicMessageMultiplexer jcsmpInboundTopicMessageMultiplexer;
     private final Context jcsmpContext;
     private final JCSMPSessionProducerManager sessionProducerManager;
+    private final LargeMessageExpiryService largeMessageExpiryService = new LargeMessageExpiryService();
     private final String errorHandlerProducerKey = UUID.randomUUID().toString();
     private final Optional<SolaceMeterAccessor> solaceMeterAccessor;
     private final Optional<TracingProxy> tracingProxy;
@@ -51,7 +57,16 @@ public class SolaceMessageChannelBinder
 
     @Setter
     private SolaceExtendedBindingProperties extendedBindingProperties = new SolaceExtendedBindingProperties();
+    @Setter
+    private SolacePayloadCodecRegistry payloadCodecRegistry = SolacePayloadCodecRegistry.getDefault();
     private static final SolaceMessageHeaderErrorMessageStrategy errorMessageStrategy = new SolaceMessageHeaderErrorMessageStrategy();
+    /**
+     * The custom retry templates, which {@link #buildRetryTemplate} uses instead of the retry consumer properties,
+     * injected like in {@link AbstractBinder} as it does not expose them.
+     */
+    @Autowired(required = false)
+    @StreamRetryTemplate
+    private Map<String, RetryTemplate> streamRetryTemplates;
 
     public SolaceMessageChannelBinder(JCSMPSession jcsmpSession,
                                       Context jcsmpContext,
@@ -66,7 +81,7 @@ public class SolaceMessageChannelBinder
         this.tracingProxy = tracingProxy;
         this.solaceBinderHealthAccessor = solaceBinderHealthAccessor;
         this.sessionProducerManager = new JCSMPSessionProducerManager(jcsmpSession);
-        this.jcsmpInboundTopicMessageMultiplexer = new JCSMPInboundTopicMessageMultiplexer(jcsmpSession, this.solaceMeterAccessor, this.tracingProxy);
+        this.jcsmpInboundTopicMessageMultiplexer = new JCSMPInboundTopicMessageMultiplexer(jcsmpSession, this.solaceMeterAccessor, this.tracingProxy, this.largeMessageExpiryService);
     }
 
     @Override
@@ -82,6 +97,7 @@ public class SolaceMessageChannelBinder
         if (sessionProducerManager != null) {
             sessionProducerManager.release(errorHandlerProducerKey);
         }
+        largeMessageExpiryService.close();
         if (jcsmpSession != null) {
             jcsmpSession.closeSession();
         }
@@ -102,6 +118,7 @@ public class SolaceMessageChannelBinder
                 producerProperties,
                 solaceMeterAccessor,
                 tracingProxy);
+        handler.setPayloadCodecRegistry(payloadCodecRegistry);
 
         if (errorChannel != null) {
             handler.setErrorMessageStrategy(errorMessageStrategy);
@@ -143,6 +160,12 @@ public class SolaceMessageChannelBinder
 
         ErrorInfrastructure errorInfra = registerErrorInfrastructure(destination, group, consumerProperties);
         if (consumerProperties.getMaxAttempts() > 1) {
+            // the retry policy and back off of a custom retry template are not accessible to the non-blocking retries
+            if (consumerProperties.getExtension().isNonBlockingRetry() && !CollectionUtils.isEmpty(streamRetryTemplates)) {
+                throw new IllegalArgumentException(String.format(
+                        "nonBlockingRetry is not supported with a @StreamRetryTemplate, its retries follow the retry consumer properties <binding=%s>",
+                        consumerProperties.getBindingName()));
+            }
             retryTemplate = Optional.of(buildRetryTemplate(consumerProperties));
             recoveryCallback = Optional.of(errorInfra.getRecoverer());
         } else {
@@ -167,6 +190,8 @@ public class SolaceMessageChannelBinder
             adapter.setErrorChannel(errorInfra.getErrorChannel());
         }
         adapter.setErrorMessageStrategy(errorMessageStrategy);
+        adapter.setPayloadCodecRegistry(payloadCodecRegistry);
+        adapter.setLargeMessageExpiryService(largeMessageExpiryService);
         return adapter;
 
     }
@@ -177,6 +202,7 @@ public class SolaceMessageChannelBinder
 
         topicMessageProducer.setErrorChannel(errorInfra.getErrorChannel());
         topicMessageProducer.setErrorMessageStrategy(errorMessageStrategy);
+        topicMessageProducer.setPayloadCodecRegistry(payloadCodecRegistry);
         return topicMessageProducer;
     }
 
@@ -0,0 +1,48 @@
+package com.solace.spring.cloud.stream.binder.codec;
+
+/**
+ * Compact binary encoding of payloads with {@link BinaryValueEncoding}: boxed primitives, {@link String}s,
+ * {@code byte[]}, common value types, enums, lists, sets and maps of them, and Java records whose components are
+ * supported.
+ * <p>Records are decoded only if their package is {@link #addTrustedPackages(String...) trusted}, no package is
+ * trusted by default. To decode application records, register a codec bean which trusts their packages, it replaces
+ * the built-in one.</p>
+ * <p>This codec never uses Java serialization, payloads it cannot encode are handled by the binder as described by
+ * the {@code payloadCodec} producer property.</p>
+ */
+public class BinaryPayloadCodec implements SolacePayloadCodec {
+    public static final String ID = "binary";
+
+    private final TrustedPackages trustedPackages = new TrustedPackages();
+
+    /**
+     * Trust the records of these packages, {@code *} trusts all packages.
+     *
+     * @param packages the package names, sub-packages are not included
+     * @return this codec
+     */
+    public BinaryPayloadCodec addTrustedPackages(String... packages) {
+        trustedPackages.add(packages);
+        return this;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public boolean canEncode(Object payload) {
+        return payload != null && BinaryValueEncoding.canEncode(payload, true);
+    }
+
+    @Override
+    public byte[] encode(Object payload) {
+        return BinaryValueEncoding.encode(payload, true);
+    }
+
+    @Override
+    public Object decode(byte[] data, String type) {
+        return BinaryValueEncoding.decode(data, trustedPackages);
+    }
+}
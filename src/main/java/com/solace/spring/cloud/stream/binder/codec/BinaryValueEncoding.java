@@ -0,0 +1,385 @@
+package com.solace.spring.cloud.stream.binder.codec;
+
+import com.solace.spring.cloud.stream.binder.util.SolaceMessageConversionException;
+import lombok.SneakyThrows;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InaccessibleObjectException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Compact typed binary encoding of values without Java serialization.
+ * <p>Every value starts with a type tag followed by its fixed-size or length-prefixed data. Supported are
+ * {@code null}, boxed primitives, {@link Character}, {@link String}, {@code byte[]}, {@link UUID},
+ * {@link BigInteger}, {@link BigDecimal}, {@link Instant}, {@link Duration}, {@link Date}, {@link MimeType}, enums
+ * and {@link List}s, {@link Set}s and {@link Map}s of supported values. Decoded lists, sets and maps are mutable
+ * {@link ArrayList}s, {@link LinkedHashSet}s and {@link LinkedHashMap}s.</p>
+ * <p>{@link BinaryPayloadCodec} additionally encodes Java records by their class name and component values, they are
+ * decoded with their canonical constructor if their package is trusted.</p>
+ */
+public final class BinaryValueEncoding {
+    private static final byte TYPE_BOOLEAN = 0;
+    private static final byte TYPE_BYTE = 1;
+    private static final byte TYPE_SHORT = 2;
+    private static final byte TYPE_INTEGER = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_FLOAT = 5;
+    private static final byte TYPE_DOUBLE = 6;
+    private static final byte TYPE_CHARACTER = 7;
+    private static final byte TYPE_UUID = 8;
+    private static final byte TYPE_BIG_INTEGER = 9;
+    private static final byte TYPE_BIG_DECIMAL = 10;
+    private static final byte TYPE_INSTANT = 11;
+    private static final byte TYPE_NULL = 12;
+    private static final byte TYPE_STRING = 13;
+    private static final byte TYPE_BYTES = 14;
+    private static final byte TYPE_DURATION = 15;
+    private static final byte TYPE_DATE = 16;
+    private static final byte TYPE_MIME_TYPE = 17;
+    private static final byte TYPE_ENUM = 18;
+    private static final byte TYPE_LIST = 19;
+    private static final byte TYPE_SET = 20;
+    private static final byte TYPE_MAP = 21;
+    private static final byte TYPE_RECORD = 22;
+    private static final int MAX_DEPTH = 32;
+
+    private BinaryValueEncoding() {
+    }
+
+    /**
+     * @return {@code true} if the value and all values it contains are supported
+     */
+    public static boolean canEncode(Object value) {
+        return canEncode(value, false, 0);
+    }
+
+    /**
+     * @throws SolaceMessageConversionException if the value or a value it contains is not supported
+     */
+    public static byte[] encode(Object value) {
+        return encode(value, false);
+    }
+
+    /**
+     * @throws SolaceMessageConversionException if the data is not a value of this encoding
+     */
+    public static Object decode(byte[] data) {
+        return decode(data, null);
+    }
+
+    static boolean canEncode(Object value, boolean records) {
+        return canEncode(value, records, 0);
+    }
+
+    @SneakyThrows(IOException.class)
+    static byte[] encode(Object value, boolean records) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, value, records, 0);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param recordPackages the packages of the records to decode, {@code null} to reject all records
+     */
+    static Object decode(byte[] data, TrustedPackages recordPackages) {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        try {
+            Object value = read(in, recordPackages, 0);
+            if (in.available() > 0) {
+                throw new SolaceMessageConversionException(String.format("%s trailing bytes after the encoded value",
+                        in.available()));
+            }
+            return value;
+        } catch (IOException e) {
+            throw new SolaceMessageConversionException("Truncated binary value", e);
+        }
+    }
+
+    private static boolean canEncode(Object value, boolean records, int depth) {
+        if (depth > MAX_DEPTH) {
+            return false;
+        } else if (value instanceof Collection<?> collection) {
+            return (collection instanceof List || collection instanceof Set) &&
+                    collection.stream().allMatch(element -> canEncode(element, records, depth + 1));
+        } else if (value instanceof Map<?, ?> map) {
+            return map.entrySet().stream().allMatch(entry ->
+                    canEncode(entry.getKey(), records, depth + 1) && canEncode(entry.getValue(), records, depth + 1));
+        } else if (value instanceof Record) {
+            return records && Arrays.stream(value.getClass().getRecordComponents())
+                    .allMatch(component -> canEncode(componentValue(value, component), true, depth + 1));
+        }
+        return value == null || value instanceof Boolean || value instanceof Byte || value instanceof Short ||
+                value instanceof Integer || value instanceof Long || value instanceof Float ||
+                value instanceof Double || value instanceof Character || value instanceof String ||
+                value instanceof byte[] || value instanceof UUID || value instanceof BigInteger ||
+                value instanceof BigDecimal || value instanceof Instant || value instanceof Duration ||
+                value instanceof Enum<?> ||
+                // subclasses would be decoded as their base class
+                (value != null && (value.getClass() == Date.class || value.getClass() == MimeType.class));
+    }
+
+    private static void write(DataOutputStream out, Object value, boolean records, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new SolaceMessageConversionException(String.format("Values nested deeper than %s are not supported",
+                    MAX_DEPTH));
+        }
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof Boolean v) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean(v);
+        } else if (value instanceof Byte v) {
+            out.writeByte(TYPE_BYTE);
+            out.writeByte(v);
+        } else if (value instanceof Short v) {
+            out.writeByte(TYPE_SHORT);
+            out.writeShort(v);
+        } else if (value instanceof Integer v) {
+            out.writeByte(TYPE_INTEGER);
+            out.writeInt(v);
+        } else if (value instanceof Long v) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(v);
+        } else if (value instanceof Float v) {
+            out.writeByte(TYPE_FLOAT);
+            out.writeFloat(v);
+        } else if (value instanceof Double v) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(v);
+        } else if (value instanceof Character v) {
+            out.writeByte(TYPE_CHARACTER);
+            out.writeChar(v);
+        } else if (value instanceof String v) {
+            out.writeByte(TYPE_STRING);
+            writeBytes(out, v.getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof byte[] v) {
+            out.writeByte(TYPE_BYTES);
+            writeBytes(out, v);
+        } else if (value instanceof UUID v) {
+            out.writeByte(TYPE_UUID);
+            out.writeLong(v.getMostSignificantBits());
+            out.writeLong(v.getLeastSignificantBits());
+        } else if (value instanceof BigInteger v) {
+            out.writeByte(TYPE_BIG_INTEGER);
+            writeBytes(out, v.toByteArray());
+        } else if (value instanceof BigDecimal v) {
+            out.writeByte(TYPE_BIG_DECIMAL);
+            out.writeInt(v.scale());
+            writeBytes(out, v.unscaledValue().toByteArray());
+        } else if (value instanceof Instant v) {
+            out.writeByte(TYPE_INSTANT);
+            out.writeLong(v.getEpochSecond());
+            out.writeInt(v.getNano());
+        } else if (value instanceof Duration v) {
+            out.writeByte(TYPE_DURATION);
+            out.writeLong(v.getSeconds());
+            out.writeInt(v.getNano());
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(TYPE_DATE);
+            out.writeLong(((Date) value).getTime());
+        } else if (value.getClass() == MimeType.class) {
+            out.writeByte(TYPE_MIME_TYPE);
+            writeBytes(out, value.toString().getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Enum<?> v) {
+            out.writeByte(TYPE_ENUM);
+            writeBytes(out, v.getDeclaringClass().getName().getBytes(StandardCharsets.UTF_8));
+            writeBytes(out, v.name().getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof List<?> || value instanceof Set<?>) {
+            Collection<?> v = (Collection<?>) value;
+            out.writeByte(value instanceof List<?> ? TYPE_LIST : TYPE_SET);
+            out.writeInt(v.size());
+            for (Object element : v) {
+                write(out, element, records, depth + 1);
+            }
+        } else if (value instanceof Map<?, ?> v) {
+            out.writeByte(TYPE_MAP);
+            out.writeInt(v.size());
+            for (Map.Entry<?, ?> entry : v.entrySet()) {
+                write(out, entry.getKey(), records, depth + 1);
+                write(out, entry.getValue(), records, depth + 1);
+            }
+        } else if (records && value instanceof Record) {
+            RecordComponent[] components = value.getClass().getRecordComponents();
+            out.writeByte(TYPE_RECORD);
+            writeBytes(out, value.getClass().getName().getBytes(StandardCharsets.UTF_8));
+            out.writeInt(components.length);
+            for (RecordComponent component : components) {
+                write(out, componentValue(value, component), true, depth + 1);
+            }
+        } else {
+            throw new SolaceMessageConversionException(String.format("%s cannot encode values of type %s",
+                    BinaryValueEncoding.class.getSimpleName(), value.getClass().getName()));
+        }
+    }
+
+    private static Object read(DataInputStream in, TrustedPackages recordPackages, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new SolaceMessageConversionException(String.format("Values nested deeper than %s are not supported",
+                    MAX_DEPTH));
+        }
+        byte typeTag = in.readByte();
+        return switch (typeTag) {
+            case TYPE_NULL -> null;
+            case TYPE_BOOLEAN -> in.readBoolean();
+            case TYPE_BYTE -> in.readByte();
+            case TYPE_SHORT -> in.readShort();
+            case TYPE_INTEGER -> in.readInt();
+            case TYPE_LONG -> in.readLong();
+            case TYPE_FLOAT -> in.readFloat();
+            case TYPE_DOUBLE -> in.readDouble();
+            case TYPE_CHARACTER -> in.readChar();
+            case TYPE_STRING -> new String(readBytes(in), StandardCharsets.UTF_8);
+            case TYPE_BYTES -> readBytes(in);
+            case TYPE_UUID -> new UUID(in.readLong(), in.readLong());
+            case TYPE_BIG_INTEGER -> new BigInteger(readBytes(in));
+            case TYPE_BIG_DECIMAL -> {
+                int scale = in.readInt();
+                yield new BigDecimal(new BigInteger(readBytes(in)), scale);
+            }
+            case TYPE_INSTANT -> Instant.ofEpochSecond(in.readLong(), in.readInt());
+            case TYPE_DURATION -> Duration.ofSeconds(in.readLong(), in.readInt());
+            case TYPE_DATE -> new Date(in.readLong());
+            case TYPE_MIME_TYPE -> MimeTypeUtils.parseMimeType(new String(readBytes(in), StandardCharsets.UTF_8));
+            case TYPE_ENUM -> readEnum(new String(readBytes(in), StandardCharsets.UTF_8),
+                    new String(readBytes(in), StandardCharsets.UTF_8));
+            case TYPE_LIST, TYPE_SET -> {
+                int size = readSize(in);
+                Collection<Object> collection = typeTag == TYPE_LIST ? new ArrayList<>(size) :
+                        new LinkedHashSet<>(size);
+                for (int i = 0; i < size; i++) {
+                    collection.add(read(in, recordPackages, depth + 1));
+                }
+                yield collection;
+            }
+            case TYPE_MAP -> {
+                int size = readSize(in);
+                Map<Object, Object> map = new LinkedHashMap<>(size);
+                for (int i = 0; i < size; i++) {
+                    map.put(read(in, recordPackages, depth + 1), read(in, recordPackages, depth + 1));
+                }
+                yield map;
+            }
+            case TYPE_RECORD -> {
+                Class<?> type = recordType(new String(readBytes(in), StandardCharsets.UTF_8), recordPackages);
+                int size = readSize(in);
+                Object[] values = new Object[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = read(in, recordPackages, depth + 1);
+                }
+                yield newRecord(type, values);
+            }
+            default -> throw new SolaceMessageConversionException(String.format("%s cannot decode unknown type tag %s",
+                    BinaryValueEncoding.class.getSimpleName(), typeTag));
+        };
+    }
+
+    private static Enum<?> readEnum(String className, String name) {
+        Class<?> type;
+        try {
+            // not initialized unless it is an enum
+            type = Class.forName(className, false, ClassUtils.getDefaultClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new SolaceMessageConversionException(String.format("Unknown enum type %s", className), e);
+        }
+        if (!type.isEnum()) {
+            throw new SolaceMessageConversionException(String.format("%s is not an enum type", className));
+        }
+        try {
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Enum<?> value = Enum.valueOf((Class<? extends Enum>) type, name);
+            return value;
+        } catch (IllegalArgumentException e) {
+            throw new SolaceMessageConversionException(String.format("Unknown constant %s of enum %s", name, className), e);
+        }
+    }
+
+    private static Class<?> recordType(String className, TrustedPackages recordPackages) {
+        if (recordPackages == null || !recordPackages.isTrusted(className)) {
+            throw new SolaceMessageConversionException(String.format(
+                    "Refusing to decode record of type %s, it is not in the trusted packages %s",
+                    className, recordPackages != null ? recordPackages : "[]"));
+        }
+        Class<?> type;
+        try {
+            type = Class.forName(className, false, ClassUtils.getDefaultClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new SolaceMessageConversionException(String.format("Unknown record type %s", className), e);
+        }
+        if (!type.isRecord()) {
+            throw new SolaceMessageConversionException(String.format("%s is not a record type", className));
+        }
+        return type;
+    }
+
+    private static Object newRecord(Class<?> type, Object[] values) {
+        Class<?>[] componentTypes = Arrays.stream(type.getRecordComponents())
+                .map(RecordComponent::getType)
+                .toArray(Class<?>[]::new);
+        if (componentTypes.length != values.length) {
+            throw new SolaceMessageConversionException(String.format("Record %s has %s components, received %s",
+                    type.getName(), componentTypes.length, values.length));
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor(componentTypes);
+            constructor.setAccessible(true);
+            return constructor.newInstance(values);
+        } catch (ReflectiveOperationException | IllegalArgumentException | InaccessibleObjectException |
+                 SecurityException e) {
+            throw new SolaceMessageConversionException(String.format("Failed to create record %s", type.getName()),
+                    e instanceof InvocationTargetException ? e.getCause() : e);
+        }
+    }
+
+    private static Object componentValue(Object record, RecordComponent component) {
+        try {
+            Method accessor = component.getAccessor();
+            accessor.setAccessible(true);
+            return accessor.invoke(record);
+        } catch (ReflectiveOperationException | InaccessibleObjectException | SecurityException e) {
+            throw new SolaceMessageConversionException(String.format("Failed to read component %s of record %s",
+                    component.getName(), record.getClass().getName()),
+                    e instanceof InvocationTargetException ? e.getCause() : e);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readSize(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads a length or element count, which can't exceed the number of remaining bytes.
+     */
+    private static int readSize(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0 || size > in.available()) {
+            throw new SolaceMessageConversionException(String.format("Invalid length %s, %s bytes remaining",
+                    size, in.available()));
+        }
+        return size;
+    }
+}
@@ -0,0 +1,79 @@
+package com.solace.spring.cloud.stream.binder.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.solace.spring.cloud.stream.binder.util.SolaceMessageConversionException;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+
+/**
+ * Encodes payloads as JSON. The payload's class name is carried as the type so that the consumer can decode it back
+ * into the same type.
+ * <p>Only types of {@link #addTrustedPackages(String...) trusted packages} are decoded, by default those of
+ * {@value #DEFAULT_TRUSTED_PACKAGES}. To decode application types, register a codec bean which trusts their
+ * packages, it replaces the built-in one.</p>
+ */
+public class JacksonPayloadCodec implements SolacePayloadCodec {
+    public static final String ID = "jackson";
+    public static final String DEFAULT_TRUSTED_PACKAGES = "java.lang, java.util, java.math";
+
+    private final ObjectMapper objectMapper;
+    private final TrustedPackages trustedPackages = new TrustedPackages("java.lang", "java.util", "java.math");
+
+    public JacksonPayloadCodec() {
+        this(new ObjectMapper());
+    }
+
+    public JacksonPayloadCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Trust the classes of these packages in addition to the default ones, {@code *} trusts all packages.
+     *
+     * @param packages the package names, sub-packages are not included
+     * @return this codec
+     */
+    public JacksonPayloadCodec addTrustedPackages(String... packages) {
+        trustedPackages.add(packages);
+        return this;
+    }
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public boolean canEncode(Object payload) {
+        return true;
+    }
+
+    @Override
+    public byte[] encode(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (IOException e) {
+            throw new SolaceMessageConversionException(String.format("Failed to encode payload of type %s as JSON",
+                    payload.getClass().getName()), e);
+        }
+    }
+
+    @Override
+    public Object decode(byte[] data, String type) {
+        if (type != null && !trustedPackages.isTrusted(type)) {
+            throw new SolaceMessageConversionException(String.format(
+                    "Refusing to decode JSON payload of type %s, it is not in the trusted packages %s",
+                    type, trustedPackages));
+        }
+        try {
+            Class<?> targetType = type != null ?
+                    ClassUtils.forName(type, ClassUtils.getDefaultClassLoader()) :
+                    Object.class;
+            return objectMapper.readValue(data, targetType);
+        } catch (ClassNotFoundException | IOException e) {
+            throw new SolaceMessageConversionException(String.format("Failed to decode JSON payload of type %s",
+                    type), e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.solace.spring.cloud.stream.binder.codec;
+
+import com.solace.spring.cloud.stream.binder.util.SolaceMessageConversionException;
+import org.springframework.util.SerializationUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+
+/**
+ * Java serialization of {@link Serializable} payloads, the binder's default.
+ * <p>For backwards compatibility, payloads encoded by this codec are flagged with the
+ * {@link com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders#SERIALIZED_PAYLOAD} header instead of
+ * the codec id.</p>
+ */
+public class JavaSerializationPayloadCodec implements SolacePayloadCodec {
+    public static final String ID = "java";
+
+    @Override
+    public String getId() {
+        return ID;
+    }
+
+    @Override
+    public boolean canEncode(Object payload) {
+        return payload instanceof Serializable;
+    }
+
+    @Override
+    public byte[] encode(Object payload) {
+        return SerializationUtils.serialize(payload);
+    }
+
+    @Override
+    public Object decode(byte[] data, String type) {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            return objectInputStream.readObject();
+        } catch (ClassNotFoundException | IOException e) {
+            throw new SolaceMessageConversionException(String.format("Failed to decode serialized payload of type %s",
+                    type), e);
+        }
+    }
+}
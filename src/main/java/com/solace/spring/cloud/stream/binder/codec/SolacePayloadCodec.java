@@ -0,0 +1,35 @@
+package com.solace.spring.cloud.stream.binder.codec;
+
+/**
+ * <p>Encodes payloads which are not natively supported by PubSub+ messages (byte[], String, SDT map, SDT stream).</p>
+ * <p>The producer binding's codec is selected with the {@code payloadCodec} producer property. Its
+ * {@link #getId() id} travels in the
+ * {@link com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders#PAYLOAD_CODEC} header, so that consumers
+ * decode the payload with the same codec.</p>
+ * <p>Custom codecs are registered as Spring beans.</p>
+ */
+public interface SolacePayloadCodec {
+    /**
+     * @return the unique id of this codec
+     */
+    String getId();
+
+    /**
+     * @param payload the payload
+     * @return {@code true} if this codec can encode the payload
+     */
+    boolean canEncode(Object payload);
+
+    /**
+     * @param payload the payload
+     * @return the encoded payload
+     */
+    byte[] encode(Object payload);
+
+    /**
+     * @param data the encoded payload
+     * @param type the class name of the original payload
+     * @return the decoded payload
+     */
+    Object decode(byte[] data, String type);
+}
@@ -0,0 +1,59 @@
+package com.solace.spring.cloud.stream.binder.codec;
+
+import com.solace.spring.cloud.stream.binder.util.SolaceMessageConversionException;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@link SolacePayloadCodec}s known to the binder, looked up by {@link SolacePayloadCodec#getId() id}.
+ * <p>Contains the built-in {@code java}, {@code binary} and {@code jackson} codecs. Additional codecs with the same
+ * id as a built-in codec replace it.</p>
+ */
+public class SolacePayloadCodecRegistry {
+    private static final SolacePayloadCodecRegistry DEFAULT = new SolacePayloadCodecRegistry(List.of());
+
+    private final Map<String, SolacePayloadCodec> codecs = new LinkedHashMap<>();
+
+    public SolacePayloadCodecRegistry(Collection<? extends SolacePayloadCodec> additionalCodecs) {
+        register(new JavaSerializationPayloadCodec());
+        register(new BinaryPayloadCodec());
+        register(new JacksonPayloadCodec());
+        additionalCodecs.forEach(this::register);
+    }
+
+    /**
+     * @return a registry containing only the built-in codecs
+     */
+    public static SolacePayloadCodecRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param id the codec id
+     * @return the codec, or {@code null} if there is none with this id
+     */
+    public SolacePayloadCodec get(String id) {
+        return codecs.get(id);
+    }
+
+    /**
+     * @param id the codec id
+     * @return the codec
+     * @throws SolaceMessageConversionException if there is no codec with this id
+     */
+    public SolacePayloadCodec getRequired(String id) {
+        SolacePayloadCodec codec = codecs.get(id);
+        if (codec == null) {
+            throw new SolaceMessageConversionException(String.format("No payload codec with id %s, available: %s",
+                    id, codecs.keySet()));
+        }
+        return codec;
+    }
+
+    private void register(SolacePayloadCodec codec) {
+        codecs.put(codec.getId(), codec);
+    }
+}
@@ -0,0 +1,60 @@
+package com.solace.spring.cloud.stream.binder.codec;
+
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * The packages whose classes a codec may instantiate when decoding a payload, similar to the trusted packages of
+ * spring-kafka's {@code JsonDeserializer}. A class is trusted if its package is listed exactly, {@code *} trusts all
+ * packages.
+ */
+class TrustedPackages {
+    static final String ALL = "*";
+
+    private final Set<String> packages = new CopyOnWriteArraySet<>();
+
+    TrustedPackages(String... packages) {
+        add(packages);
+    }
+
+    void add(String... packages) {
+        this.packages.addAll(Arrays.asList(packages));
+    }
+
+    boolean isTrusted(String className) {
+        if (packages.contains(ALL)) {
+            return true;
+        }
+        String elementName = elementName(className);
+        if (ClassUtils.resolvePrimitiveClassName(elementName) != null) {
+            return true;
+        }
+        int lastDot = elementName.lastIndexOf('.');
+        return packages.contains(lastDot < 0 ? "" : elementName.substring(0, lastDot));
+    }
+
+    /**
+     * @return the element class name of array class names in source ({@code Foo[]}) or JVM ({@code [LFoo;}) form
+     */
+    private static String elementName(String className) {
+        String elementName = className;
+        while (elementName.endsWith("[]")) {
+            elementName = elementName.substring(0, elementName.length() - 2);
+        }
+        if (elementName.startsWith("[")) {
+            elementName = elementName.substring(elementName.lastIndexOf('[') + 1);
+            elementName = elementName.startsWith("L") && elementName.endsWith(";") ?
+                    elementName.substring(1, elementName.length() - 1) :
+                    "int"; // primitive array type code
+        }
+        return elementName;
+    }
+
+    @Override
+    public String toString() {
+        return packages.toString();
+    }
+}
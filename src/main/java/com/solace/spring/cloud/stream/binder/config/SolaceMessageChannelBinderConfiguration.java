@@ -1,6 +1,8 @@
 package com.solace.spring.cloud.stream.binder.config;
 
 import com.solace.spring.cloud.stream.binder.SolaceMessageChannelBinder;
+import com.solace.spring.cloud.stream.binder.codec.SolacePayloadCodec;
+import com.solace.spring.cloud.stream.binder.codec.SolacePayloadCodecRegistry;
 import com.solace.spring.cloud.stream.binder.config.autoconfigure.JCSMPSessionConfiguration;
 import com.solace.spring.cloud.stream.binder.health.SolaceBinderHealthAccessor;
 import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
@@ -11,6 +13,8 @@ import com.solace.spring.cloud.stream.binder.util.JCSMPSessionEventHandler;
 import com.solacesystems.jcsmp.Context;
 import com.solacesystems.jcsmp.JCSMPSession;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -31,7 +35,8 @@ public class SolaceMessageChannelBinderConfiguration {
     SolaceMessageChannelBinder solaceMessageChannelBinder(SolaceEndpointProvisioner solaceEndpointProvisioner,
                                                           Optional<SolaceMeterAccessor> solaceMeterAccessor,
                                                           Optional<TracingProxy> tracingProxy,
-                                                          Optional<SolaceBinderHealthAccessor> solaceBinderHealthAccessor) {
+                                                          Optional<SolaceBinderHealthAccessor> solaceBinderHealthAccessor,
+                                                          SolacePayloadCodecRegistry solacePayloadCodecRegistry) {
         SolaceMessageChannelBinder binder = new SolaceMessageChannelBinder(jcsmpSession,
                 context,
                 solaceEndpointProvisioner,
@@ -39,6 +44,13 @@ public class SolaceMessageChannelBinderConfiguration {
                 tracingProxy,
                 solaceBinderHealthAccessor);
         binder.setExtendedBindingProperties(solaceExtendedBindingProperties);
+        binder.setPayloadCodecRegistry(solacePayloadCodecRegistry);
         return binder;
     }
+
+    @Bean
+    @ConditionalOnMissingBean
+    SolacePayloadCodecRegistry solacePayloadCodecRegistry(ObjectProvider<SolacePayloadCodec> payloadCodecs) {
+        return new SolacePayloadCodecRegistry(payloadCodecs.orderedStream().toList());
+    }
 }
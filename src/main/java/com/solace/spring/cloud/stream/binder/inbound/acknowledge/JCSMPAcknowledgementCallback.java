@@ -3,6 +3,7 @@ package com.solace.spring.cloud.stream.binder.inbound.acknowledge;
 import com.solace.spring.cloud.stream.binder.util.ErrorQueueInfrastructure;
 import com.solace.spring.cloud.stream.binder.util.SolaceAcknowledgmentException;
 import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.JCSMPException;
 import com.solacesystems.jcsmp.XMLMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +16,7 @@ import java.util.Optional;
 public class JCSMPAcknowledgementCallback implements AcknowledgmentCallback {
     private final BytesXMLMessage message;
     private final Optional<ErrorQueueInfrastructure> errorQueueInfrastructure;
+    private final Optional<SettlementQueue> settlementQueue;
     private boolean acknowledged = false;
     private boolean autoAckEnabled = true;
 
@@ -28,19 +30,19 @@ public class JCSMPAcknowledgementCallback implements AcknowledgmentCallback {
         try {
             switch (status) {
                 case ACCEPT:
-                    message.ackMessage();
+                    settle(XMLMessage.Outcome.ACCEPTED);
                     break;
                 case REJECT:
                     if (republishToErrorQueue()) {
                         break;
                     } else {
-                        message.settle(XMLMessage.Outcome.REJECTED);
+                        settle(XMLMessage.Outcome.REJECTED);
                     }
                     break;
                 case REQUEUE:
                     log.debug("{} {}: Will be re-queued",
                             XMLMessage.class.getSimpleName(), message.getMessageId());
-                    message.settle(XMLMessage.Outcome.FAILED);
+                    settle(XMLMessage.Outcome.FAILED);
             }
         } catch (SolaceAcknowledgmentException e) {
             throw e;
@@ -51,6 +53,19 @@ public class JCSMPAcknowledgementCallback implements AcknowledgmentCallback {
         acknowledged = true;
     }
 
+    /**
+     * Settle the message on the settler thread if a settlement queue is defined, otherwise right away.
+     */
+    private void settle(XMLMessage.Outcome outcome) throws JCSMPException {
+        if (settlementQueue.isPresent()) {
+            settlementQueue.get().settle(message, outcome);
+        } else if (outcome == XMLMessage.Outcome.ACCEPTED) {
+            message.ackMessage();
+        } else {
+            message.settle(outcome);
+        }
+    }
+
     /**
      * Send the message to the error queue and acknowledge the message.
      *
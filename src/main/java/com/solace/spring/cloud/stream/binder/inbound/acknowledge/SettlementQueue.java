@@ -0,0 +1,133 @@
+package com.solace.spring.cloud.stream.binder.inbound.acknowledge;
+
+import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
+import com.solace.spring.cloud.stream.binder.util.IdleThreads;
+import com.solace.spring.cloud.stream.binder.util.WaitStrategy;
+import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.XMLMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Settles messages on a dedicated settler thread, so that the consumer threads only enqueue the outcome of a message
+ * instead of settling it on the flow themselves.
+ * <p>The settler drains the lock-free queue in batches. As a single thread settles the messages in the order they
+ * were enqueued, the settlements of every flow keep their order.</p>
+ */
+@Slf4j
+public class SettlementQueue implements AutoCloseable {
+    static final int MAX_BATCH_SIZE = 256;
+    private final Queue<Settlement> settlements = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSettlements = new AtomicInteger();
+    private final IdleThreads idleSettler = new IdleThreads();
+    private final Thread settler;
+    private volatile boolean running = true;
+    private volatile SolaceMeterAccessor solaceMeterAccessor;
+    private volatile String bindingName;
+
+    /**
+     * @param threadName the name of the settler thread
+     */
+    public SettlementQueue(String threadName) {
+        this.settler = new Thread(this::run);
+        this.settler.setName(threadName);
+        this.settler.start();
+    }
+
+    public void setSolaceMeterAccessor(SolaceMeterAccessor solaceMeterAccessor, String bindingName) {
+        this.solaceMeterAccessor = solaceMeterAccessor;
+        this.bindingName = bindingName;
+        solaceMeterAccessor.registerSettlementPendingGauge(bindingName, pendingSettlements);
+    }
+
+    /**
+     * Enqueue the settlement of a message. Once the queue is closed, the message is settled by the calling thread.
+     */
+    public void settle(BytesXMLMessage message, XMLMessage.Outcome outcome) {
+        Settlement settlement = new Settlement(message, outcome, System.nanoTime());
+        pendingSettlements.incrementAndGet();
+        if (!running) {
+            settle(settlement);
+            return;
+        }
+        settlements.offer(settlement);
+        idleSettler.wakeUpOne();
+        // closed meanwhile, settled here unless the settler or close() already took it
+        if (!running && settlements.remove(settlement)) {
+            settle(settlement);
+        }
+    }
+
+    /**
+     * @return the number of enqueued settlements not yet settled
+     */
+    public int getPendingSettlements() {
+        return pendingSettlements.get();
+    }
+
+    /**
+     * Stop the settler thread once it settled all enqueued messages.
+     */
+    @Override
+    public void close() {
+        running = false;
+        idleSettler.wakeUpAll();
+        try {
+            settler.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain(Integer.MAX_VALUE);
+    }
+
+    private void run() {
+        int attempt = 0;
+        while (running) {
+            if (drain(MAX_BATCH_SIZE) > 0) {
+                attempt = 0;
+            } else {
+                WaitStrategy.PARK.idle(attempt, idleSettler, () -> !running || !settlements.isEmpty());
+                attempt = Math.min(attempt + 1, Integer.MAX_VALUE - 1);
+            }
+        }
+        drain(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return the number of settled messages
+     */
+    private int drain(int maxSettlements) {
+        int settled = 0;
+        Settlement settlement;
+        while (settled < maxSettlements && (settlement = settlements.poll()) != null) {
+            settle(settlement);
+            settled++;
+        }
+        return settled;
+    }
+
+    private void settle(Settlement settlement) {
+        try {
+            if (settlement.outcome() == XMLMessage.Outcome.ACCEPTED) {
+                settlement.message().ackMessage();
+            } else {
+                settlement.message().settle(settlement.outcome());
+            }
+        } catch (Exception e) {
+            log.error("Failed to settle XMLMessage {} with outcome {}",
+                    settlement.message().getReplicationGroupMessageId(), settlement.outcome(), e);
+        } finally {
+            pendingSettlements.decrementAndGet();
+            SolaceMeterAccessor meterAccessor = solaceMeterAccessor;
+            if (meterAccessor != null) {
+                meterAccessor.recordSettlementLag(bindingName, System.nanoTime() - settlement.enqueuedNanos());
+            }
+        }
+    }
+
+    private record Settlement(BytesXMLMessage message, XMLMessage.Outcome outcome, long enqueuedNanos) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
+import com.solace.spring.cloud.stream.binder.util.IdleThreads;
+import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.SDTException;
+import com.solacesystems.jcsmp.SDTMap;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One queue per receiver thread, messages with the same key always take the same lane and are therefore processed in
+ * order, while messages with different keys are processed in parallel. Messages without a key are distributed
+ * round-robin.
+ * <p>Messages offered while their lane is full are kept in an unbounded overflow queue of the lane, and follow the
+ * overflow until it is drained, so that the flow's dispatcher thread never waits and the order of the lane is kept.</p>
+ */
+@Slf4j
+final class DispatchLanes {
+    private final RingBuffer<Entry>[] lanes;
+    private final Queue<Entry>[] overflows;
+    private final AtomicInteger overflowed = new AtomicInteger();
+    private final AtomicInteger[] occupancy;
+    private final IdleThreads[] idleThreads;
+    private final String keyProperty;
+    private final AtomicInteger nextLane = new AtomicInteger();
+    private SolaceMeterAccessor solaceMeterAccessor;
+    private String bindingName;
+
+    /**
+     * @param count       the number of lanes
+     * @param capacity    the total capacity, divided between the lanes
+     * @param keyProperty the user property holding the key of a message
+     */
+    @SuppressWarnings("unchecked")
+    DispatchLanes(int count, int capacity, String keyProperty) {
+        this.lanes = new RingBuffer[count];
+        this.overflows = new Queue[count];
+        this.occupancy = new AtomicInteger[count];
+        this.idleThreads = new IdleThreads[count];
+        for (int i = 0; i < count; i++) {
+            lanes[i] = new RingBuffer<>(Math.max(1, capacity / count));
+            overflows[i] = new ConcurrentLinkedQueue<>();
+            occupancy[i] = new AtomicInteger();
+            idleThreads[i] = new IdleThreads();
+        }
+        this.keyProperty = keyProperty;
+    }
+
+    void setSolaceMeterAccessor(SolaceMeterAccessor solaceMeterAccessor, String bindingName) {
+        this.solaceMeterAccessor = solaceMeterAccessor;
+        this.bindingName = bindingName;
+        for (int i = 0; i < occupancy.length; i++) {
+            solaceMeterAccessor.registerDispatchLaneGauge(bindingName, i, occupancy[i]);
+        }
+    }
+
+    /**
+     * Add the message to its lane, or to the overflow of the lane if the lane is full or already overflowed.
+     */
+    void offer(BytesXMLMessage message) {
+        int lane = lane(message);
+        occupancy[lane].incrementAndGet();
+        Entry entry = new Entry(message, System.nanoTime());
+        if (!overflows[lane].isEmpty() || !lanes[lane].offer(entry)) {
+            overflowed.incrementAndGet();
+            overflows[lane].add(entry);
+        }
+        idleThreads[lane].wakeUpOne();
+    }
+
+    /**
+     * @return the head of the lane, {@code null} if it is empty
+     */
+    BytesXMLMessage poll(int lane) {
+        Entry entry = lanes[lane].poll();
+        if (entry == null) {
+            // the overflow only holds messages offered after the ones of the full lane
+            entry = overflows[lane].poll();
+            if (entry == null) {
+                return null;
+            }
+            overflowed.decrementAndGet();
+        }
+        occupancy[lane].decrementAndGet();
+        if (solaceMeterAccessor != null) {
+            solaceMeterAccessor.recordDispatchLaneWaitTime(bindingName, lane, System.nanoTime() - entry.enqueuedNanos());
+        }
+        return entry.message();
+    }
+
+    /**
+     * @return the head of any lane, {@code null} if all lanes are empty, for draining the lanes
+     */
+    BytesXMLMessage poll() {
+        for (int lane = 0; lane < lanes.length; lane++) {
+            BytesXMLMessage message = poll(lane);
+            if (message != null) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the receiver thread of the lane while it waits for messages
+     */
+    IdleThreads idleThreads(int lane) {
+        return idleThreads[lane];
+    }
+
+    void wakeUpAll() {
+        for (IdleThreads idle : idleThreads) {
+            idle.wakeUpAll();
+        }
+    }
+
+    /**
+     * @return {@code true} if messages wait in the overflow of a full lane
+     */
+    boolean isOverflowed() {
+        return overflowed.get() > 0;
+    }
+
+    boolean hasMessages(int lane) {
+        return lanes[lane].size() > 0 || !overflows[lane].isEmpty();
+    }
+
+    int size() {
+        int size = overflowed.get();
+        for (RingBuffer<Entry> lane : lanes) {
+            size += lane.size();
+        }
+        return size;
+    }
+
+    int lane(BytesXMLMessage message) {
+        Object key = getKey(message);
+        if (key == null) {
+            return Math.floorMod(nextLane.getAndIncrement(), lanes.length);
+        }
+        int hash = hash(key);
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    /**
+     * @return the hash code of the key, of the content for arrays such as {@code byte[]} keys, as their own hash code
+     * is the identity of the array instance
+     */
+    static int hash(Object key) {
+        return key.getClass().isArray() ? Arrays.deepHashCode(new Object[]{key}) : key.hashCode();
+    }
+
+    private Object getKey(BytesXMLMessage message) {
+        SDTMap properties = message.getProperties();
+        if (properties == null) {
+            return null;
+        }
+        try {
+            return properties.get(keyProperty);
+        } catch (SDTException e) {
+            log.debug("Unable to read dispatch key {}, dispatching round-robin", keyProperty, e);
+            return null;
+        }
+    }
+
+    private record Entry(BytesXMLMessage message, long enqueuedNanos) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+/**
+ * Derives the transport window size of the consumer flows of a binding. The flows together get the messages the
+ * consumer threads process within one ack timer interval, so that the broker does not wait for an acknowledgement
+ * while the consumer threads are idle, but no more than the receive buffer holds below its high watermark.
+ */
+final class FlowWindowTuning {
+    static final int MAX_WINDOW_SIZE = 255;
+
+    private FlowWindowTuning() {
+    }
+
+    /**
+     * @param messagesPerSecond     the processing rate of the consumer threads, 0 if not measured yet
+     * @param ackTimerMs            the ack timer of the flows
+     * @param maxWindowSize         the maximum window size of a flow
+     * @param highWatermarkMessages the high watermark of the receive buffer in messages, 0 if disabled
+     * @param concurrency           the number of consumer threads
+     * @param flowCount             the number of flows
+     * @return the window size of every flow
+     */
+    static int windowSize(double messagesPerSecond, int ackTimerMs, int maxWindowSize, int highWatermarkMessages,
+                          int concurrency, int flowCount) {
+        int upper = Math.max(1, Math.min(MAX_WINDOW_SIZE, maxWindowSize));
+        if (highWatermarkMessages > 0) {
+            upper = Math.min(upper, Math.max(1, highWatermarkMessages / flowCount));
+        }
+        // every consumer thread should find a message
+        int lower = Math.min(upper, Math.max(1, (concurrency + flowCount - 1) / flowCount));
+        if (messagesPerSecond <= 0) {
+            return upper;
+        }
+        double perFlow = messagesPerSecond * ackTimerMs / 1000 / flowCount;
+        return (int) Math.max(lower, Math.min(upper, Math.ceil(perFlow)));
+    }
+}
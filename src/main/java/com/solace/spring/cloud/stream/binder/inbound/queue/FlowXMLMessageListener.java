@@ -1,6 +1,8 @@
 package com.solace.spring.cloud.stream.binder.inbound.queue;
 
 import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
+import com.solace.spring.cloud.stream.binder.util.IdleThreads;
+import com.solace.spring.cloud.stream.binder.util.WaitStrategy;
 import com.solacesystems.jcsmp.BytesXMLMessage;
 import com.solacesystems.jcsmp.JCSMPException;
 import com.solacesystems.jcsmp.XMLMessage;
@@ -10,60 +12,290 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.HashSet;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 @Slf4j
 @SuppressWarnings("deprecation")
 public class FlowXMLMessageListener implements XMLMessageListener {
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
     @SuppressWarnings("MismatchedReadAndWriteOfArray") // to keep the messageId's in memory and be able to analyze them in the stacktrace
     private final String[] messageIdRingBuffer = new String[128];
-    private final BlockingQueue<BytesXMLMessage> messageQueue = new LinkedBlockingDeque<>();
+    private volatile RingBuffer<BytesXMLMessage> messageQueue = new RingBuffer<>(DEFAULT_QUEUE_CAPACITY);
+    private volatile Queue<BytesXMLMessage> overflowQueue = new ConcurrentLinkedQueue<>();
+    private final IdleThreads idleThreads = new IdleThreads();
+    private volatile WaitStrategy waitStrategy = WaitStrategy.PARK;
+    private volatile String dispatchKeyProperty;
+    private volatile DispatchLanes dispatchLanes;
+    private volatile ThreadFactory threadFactory = Thread::new;
+    private volatile Autoscaling autoscaling;
+    private volatile String threadNamePrefix;
+    private volatile Consumer<BytesXMLMessage> messageConsumer;
+    private final AtomicInteger receiverThreads = new AtomicInteger();
+    private final AtomicInteger nextThreadIndex = new AtomicInteger();
+    private final AtomicInteger pendingRetirements = new AtomicInteger();
+    private final LongAdder processingNanos = new LongAdder();
+    private final LongAdder totalProcessingNanos = new LongAdder();
+    private final LongAdder processedMessages = new LongAdder();
+    private final LongAdder scaleUps = new LongAdder();
+    private final LongAdder scaleDowns = new LongAdder();
+    private long lastScaleNanos;
     private final Set<MessageInProgress> activeMessages = new HashSet<>();
     private final AtomicReference<SolaceMeterAccessor> solaceMeterAccessor = new AtomicReference<>();
     private final AtomicReference<String> bindingName = new AtomicReference<>();
-    private int messageIdIndex = 0;
+    private final AtomicInteger bufferedMessages = new AtomicInteger();
+    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final Object flowControlLock = new Object();
+    private volatile FlowControl flowControl;
+    private volatile Watermarks watermarks;
+    private volatile boolean flowStopped = false;
+    private final AtomicInteger messageIdIndex = new AtomicInteger();
     private volatile boolean running = true;
+    private final AtomicInteger generation = new AtomicInteger();
 
     public void setSolaceMeterAccessor(SolaceMeterAccessor solaceMeterAccessor, String bindingName) {
         this.solaceMeterAccessor.set(solaceMeterAccessor);
         this.bindingName.set(bindingName);
+        solaceMeterAccessor.registerReceiveBufferGauges(bindingName, bufferedMessages, bufferedBytes);
+        solaceMeterAccessor.registerReceiverThreadMeters(bindingName, receiverThreads, scaleUps, scaleDowns);
+    }
+
+    /**
+     * Stop the flow while messages overflow the full receive queue or the messages buffered for the receiver threads
+     * reached a high watermark, and start it again once the overflow is drained and the buffer fell to the low
+     * watermark.
+     *
+     * @param watermarks the buffer levels, may be disabled to only stop the flow on overflow
+     */
+    public void setFlowControl(FlowControl flowControl, Watermarks watermarks) {
+        this.flowControl = flowControl;
+        this.watermarks = watermarks;
+    }
+
+    /**
+     * Dispatch the messages to one lane per receiver thread by the given user property instead of to a queue shared
+     * by all receiver threads, so that messages with the same key are processed in order.
+     *
+     * @param dispatchKeyProperty the user property holding the key, {@code null} to disable key-ordered dispatch
+     */
+    public void setKeyOrderedDispatch(String dispatchKeyProperty) {
+        this.dispatchKeyProperty = dispatchKeyProperty;
+    }
+
+    /**
+     * @param threadFactory the factory of the receiver threads, for example for virtual threads
+     */
+    public void setThreadFactory(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Add and retire receiver threads between the given bounds by the backlog and the utilization of the receiver
+     * threads. Not applied with key-ordered dispatch, as its lanes are bound to the receiver threads.
+     *
+     * @param autoscaling the bounds and the interval of the scaling decisions, {@code null} for a fixed number of
+     *                    receiver threads
+     */
+    public void setAutoscaling(Autoscaling autoscaling) {
+        this.autoscaling = autoscaling;
+    }
+
+    /**
+     * @return the number of running receiver threads
+     */
+    public int getReceiverThreadCount() {
+        return receiverThreads.get();
+    }
+
+    /**
+     * @return the messages per second a single receiver thread processed while busy, 0 if none was processed yet
+     */
+    public double getProcessingRatePerThread() {
+        long messages = processedMessages.sum();
+        long nanos = totalProcessingNanos.sum();
+        return messages == 0 || nanos == 0 ? 0 : messages * 1e9 / nanos;
+    }
+
+    /**
+     * @return {@code true} if the flow is stopped because messages overflow the receive queue or the buffered
+     * messages reached the high watermark
+     */
+    public boolean isFlowStopped() {
+        return flowStopped;
     }
 
     public void startReceiverThreads(int count, String threadNamePrefix, Consumer<BytesXMLMessage> messageConsumer, long maxProcessingTimeMs) {
+        startReceiverThreads(count, threadNamePrefix, messageConsumer, maxProcessingTimeMs, DEFAULT_QUEUE_CAPACITY, WaitStrategy.PARK);
+    }
+
+    /**
+     * @param queueCapacity the capacity of the queue between the flow and the receiver threads, rounded up to a power
+     *                      of two. Messages received while it is full are kept in an unbounded overflow queue,
+     *                      so that the flow's dispatcher thread never waits, and the flow is stopped until the
+     *                      overflow is drained.
+     * @param waitStrategy  how the receiver threads wait for messages
+     */
+    public void startReceiverThreads(int count, String threadNamePrefix, Consumer<BytesXMLMessage> messageConsumer, long maxProcessingTimeMs,
+                                     int queueCapacity, WaitStrategy waitStrategy) {
         if (maxProcessingTimeMs < 100) {
             throw new IllegalArgumentException("maxProcessingTimeMs must be at least 100ms");
         }
-        for (int i = 0; i < count; i++) {
-            String threadName = threadNamePrefix + "-" + i;
-            Thread thread = new Thread(() -> loop(threadName, messageConsumer));
-            thread.setName(threadName);
-            thread.start();
-            log.info("Started receiving thread {}", thread.getName());
+        // the receiver threads are started again when the binding is restarted, the threads of the previous start
+        // still finishing their message exit as they belong to an older generation
+        int currentGeneration = generation.incrementAndGet();
+        this.running = true;
+        pendingRetirements.set(0);
+        // the flow is created after the receiver threads, so that no message is queued yet
+        this.messageQueue = new RingBuffer<>(queueCapacity);
+        this.overflowQueue = new ConcurrentLinkedQueue<>();
+        this.waitStrategy = waitStrategy;
+        if (dispatchKeyProperty != null) {
+            DispatchLanes lanes = new DispatchLanes(count, queueCapacity, dispatchKeyProperty);
+            if (solaceMeterAccessor.get() != null && bindingName.get() != null) {
+                lanes.setSolaceMeterAccessor(solaceMeterAccessor.get(), bindingName.get());
+            }
+            this.dispatchLanes = lanes;
+        }
+        this.threadNamePrefix = threadNamePrefix;
+        this.messageConsumer = messageConsumer;
+        Autoscaling currentAutoscaling = dispatchLanes == null ? autoscaling : null;
+        int initialCount = currentAutoscaling != null ? currentAutoscaling.bound(count) : count;
+        for (int i = 0; i < initialCount; i++) {
+            startReceiverThread(currentGeneration, i);
         }
-        Thread thread = new Thread(() -> watchdog(maxProcessingTimeMs));
+        lastScaleNanos = System.nanoTime();
+        Thread thread = new Thread(() -> watchdog(currentGeneration, maxProcessingTimeMs, currentAutoscaling));
         thread.setName(threadNamePrefix + "-watchdog");
         thread.start();
     }
 
     public void stopReceiverThreads() {
         running = false;
+        idleThreads.wakeUpAll();
+        DispatchLanes lanes = dispatchLanes;
+        if (lanes != null) {
+            lanes.wakeUpAll();
+        }
+        discardBufferedMessages();
+    }
+
+    /**
+     * The flows are closed before the receiver threads are stopped, so the broker redelivers the messages still
+     * buffered. Take them off the buffer level, so that a restart begins with an empty buffer and a started flow.
+     */
+    private void discardBufferedMessages() {
+        RingBuffer<BytesXMLMessage> queue = messageQueue;
+        Queue<BytesXMLMessage> overflow = overflowQueue;
+        DispatchLanes lanes = dispatchLanes;
+        int discarded = 0;
+        // the receiver threads may still take messages, every message is polled once
+        for (BytesXMLMessage polled = lanes != null ? lanes.poll() : poll(queue, overflow); polled != null;
+             polled = lanes != null ? lanes.poll() : poll(queue, overflow)) {
+            bufferedMessages.decrementAndGet();
+            bufferedBytes.addAndGet(-size(polled));
+            discarded++;
+        }
+        synchronized (flowControlLock) {
+            flowStopped = false;
+        }
+        if (discarded > 0) {
+            log.info("Discarded {} buffered messages of the closed flow", discarded);
+        }
+    }
+
+    /**
+     * @param lane the dispatch lane of the receiver thread, only used with key-ordered dispatch
+     */
+    private void startReceiverThread(int currentGeneration, int lane) {
+        String threadName = threadNamePrefix + "-" + nextThreadIndex.getAndIncrement();
+        Consumer<BytesXMLMessage> consumer = messageConsumer;
+        receiverThreads.incrementAndGet();
+        Thread thread = threadFactory.newThread(() -> loop(currentGeneration, threadName, lane, consumer));
+        thread.setName(threadName);
+        thread.start();
+        log.info("Started receiving thread {}", thread.getName());
+    }
+
+    /**
+     * @return {@code true} if the calling receiver thread took one of the pending retirements
+     */
+    private boolean retire() {
+        for (int pending = pendingRetirements.get(); pending > 0; pending = pendingRetirements.get()) {
+            if (pendingRetirements.compareAndSet(pending, pending - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Scale the receiver threads to the target of the utilization over the past interval. Messages still in
+     * processing are counted as busy threads, so that long-running messages are not missed.
+     */
+    private void autoscale(int currentGeneration, Autoscaling currentAutoscaling) {
+        long now = System.nanoTime();
+        long elapsedNanos = now - lastScaleNanos;
+        lastScaleNanos = now;
+        int threads = receiverThreads.get() - pendingRetirements.get();
+        int backlog = queueSize();
+        int active;
+        synchronized (activeMessages) {
+            active = activeMessages.size();
+        }
+        double busyRatio = threads > 0 && elapsedNanos > 0 ? (double) processingNanos.sumThenReset() / ((double) threads * elapsedNanos) : 1;
+        double utilization = threads > 0 ? Math.max(busyRatio, (double) active / threads) : 1;
+        int target = currentAutoscaling.targetThreads(threads, backlog, utilization);
+        if (target > threads) {
+            scaleUps.increment();
+            log.info("Scaling up receiver threads binding={} threads={} target={} backlog={} active={} utilization={}",
+                    bindingName.get(), threads, target, backlog, active, String.format("%.2f", utilization));
+            int toStart = target - threads;
+            // threads not yet retired are kept instead of starting new ones
+            for (int pending = pendingRetirements.get(); pending > 0 && toStart > 0; pending = pendingRetirements.get()) {
+                int cancelled = Math.min(pending, toStart);
+                if (pendingRetirements.compareAndSet(pending, pending - cancelled)) {
+                    toStart -= cancelled;
+                }
+            }
+            for (int i = 0; i < toStart; i++) {
+                // autoscaling is not applied with key-ordered dispatch
+                startReceiverThread(currentGeneration, 0);
+            }
+        } else if (target < threads) {
+            scaleDowns.increment();
+            log.info("Scaling down receiver threads binding={} threads={} target={} backlog={} active={} utilization={}",
+                    bindingName.get(), threads, target, backlog, active, String.format("%.2f", utilization));
+            pendingRetirements.addAndGet(threads - target);
+            idleThreads.wakeUpAll();
+        }
     }
 
     @SuppressWarnings("BusyWait")
-    private void watchdog(long maxProcessingTimeMs) {
-        while (running) {
+    private void watchdog(int currentGeneration, long maxProcessingTimeMs, Autoscaling currentAutoscaling) {
+        long nextScaleMillis = System.currentTimeMillis() + (currentAutoscaling != null ? currentAutoscaling.intervalMs() : 0);
+        while (isRunning(currentGeneration)) {
             try {
                 if (solaceMeterAccessor.get() != null && bindingName.get() != null) {
-                    solaceMeterAccessor.get().recordQueueSize(this.bindingName.get(), messageQueue.size());
+                    solaceMeterAccessor.get().recordQueueSize(this.bindingName.get(), queueSize());
                     solaceMeterAccessor.get().recordActiveMessages(this.bindingName.get(), activeMessages.size());
                 }
                 long currentTimeMillis = System.currentTimeMillis();
                 long sleepMillis = maxProcessingTimeMs / 2;
+                if (currentAutoscaling != null) {
+                    if (currentTimeMillis >= nextScaleMillis) {
+                        autoscale(currentGeneration, currentAutoscaling);
+                        nextScaleMillis = currentTimeMillis + currentAutoscaling.intervalMs();
+                    }
+                    sleepMillis = Math.min(sleepMillis, Math.max(10, nextScaleMillis - currentTimeMillis));
+                }
                 synchronized (activeMessages) {
                     for (MessageInProgress messageInProgress : activeMessages) {
                         long timeInProcessing = currentTimeMillis - messageInProgress.startMillis;
@@ -88,52 +320,172 @@ public class FlowXMLMessageListener implements XMLMessageListener {
         }
     }
 
-    private void loop(String threadName, Consumer<BytesXMLMessage> messageConsumer) {
-        while (running) {
-            try {
-                BytesXMLMessage polled = messageQueue.poll(1, TimeUnit.SECONDS);
-                if (polled != null) {
+    /**
+     * @param lane the dispatch lane of the receiver thread, only used with key-ordered dispatch
+     */
+    private void loop(int currentGeneration, String threadName, int lane, Consumer<BytesXMLMessage> messageConsumer) {
+        RingBuffer<BytesXMLMessage> queue = messageQueue;
+        Queue<BytesXMLMessage> overflow = overflowQueue;
+        DispatchLanes lanes = dispatchLanes;
+        IdleThreads idle = lanes != null ? lanes.idleThreads(lane) : idleThreads;
+        BooleanSupplier hasWork = lanes != null ?
+                () -> !isRunning(currentGeneration) || lanes.hasMessages(lane) :
+                () -> !isRunning(currentGeneration) || pendingRetirements.get() > 0 || queue.size() > 0 || !overflow.isEmpty();
+        int attempt = 0;
+        try {
+            while (isRunning(currentGeneration) && !retire()) {
+                try {
+                    BytesXMLMessage polled = lanes != null ? lanes.poll(lane) : poll(queue, overflow);
+                    if (polled == null) {
+                        waitStrategy.idle(attempt, idle, hasWork);
+                        attempt = Math.min(attempt + 1, Integer.MAX_VALUE - 1);
+                        continue;
+                    }
+                    attempt = 0;
+                    unbuffer(polled);
                     MessageInProgress mip = new MessageInProgress(System.currentTimeMillis(), threadName, polled);
                     synchronized (activeMessages) {
                         activeMessages.add(mip);
                     }
-                    messageConsumer.accept(polled);
-                    synchronized (activeMessages) {
-                        activeMessages.remove(mip);
+                    long startNanos = System.nanoTime();
+                    try {
+                        messageConsumer.accept(polled);
+                    } finally {
+                        long durationNanos = System.nanoTime() - startNanos;
+                        processingNanos.add(durationNanos);
+                        totalProcessingNanos.add(durationNanos);
+                        processedMessages.increment();
+                        synchronized (activeMessages) {
+                            activeMessages.remove(mip);
+                        }
                     }
+                } catch (Throwable e) {
+                    log.error("Error was not properly handled in JCSMPInboundQueueMessageProducer", e);
                 }
-            } catch (Throwable e) {
-                log.error("Error was not properly handled in JCSMPInboundQueueMessageProducer", e);
+            }
+        } finally {
+            receiverThreads.decrementAndGet();
+            if (isRunning(currentGeneration)) {
+                log.info("Retired receiving thread {}", threadName);
             }
         }
     }
 
+    /**
+     * @return {@code false} once the receiver threads of the given start were stopped, also if they were started again
+     */
+    private boolean isRunning(int currentGeneration) {
+        return running && generation.get() == currentGeneration;
+    }
+
+    /**
+     * The overflow queue only holds messages received while the ring buffer was full, so that it is drained after the
+     * older messages of the ring buffer.
+     */
+    private static BytesXMLMessage poll(RingBuffer<BytesXMLMessage> queue, Queue<BytesXMLMessage> overflow) {
+        BytesXMLMessage polled = queue.poll();
+        return polled != null ? polled : overflow.poll();
+    }
+
     @Override
     public void onReceive(BytesXMLMessage bytesXMLMessage) {
         log.debug("Received BytesXMLMessage:{}", bytesXMLMessage);
         keepMessageIdInMemoryForDebugPurposes(bytesXMLMessage);
-        try {
-            int i = 0;
-            while (i++ < 100) {
-                // since the messageQueue is unbounded this should never happen and is here for paranoia and because the blocking put had strange behaviours
-                if (messageQueue.offer(bytesXMLMessage, 1, TimeUnit.SECONDS)) {
-                    return;
+        RingBuffer<BytesXMLMessage> queue = messageQueue;
+        Queue<BytesXMLMessage> overflow = overflowQueue;
+        DispatchLanes lanes = dispatchLanes;
+        buffer(bytesXMLMessage);
+        if (running) {
+            // never waits on the flow's dispatcher thread, messages which do not fit are kept in an overflow queue
+            // until the receiver threads drained the ring buffer, and the flow is stopped meanwhile
+            if (lanes != null) {
+                lanes.offer(bytesXMLMessage);
+            } else {
+                if (!overflow.isEmpty() || !queue.offer(bytesXMLMessage)) {
+                    overflow.add(bytesXMLMessage);
                 }
+                idleThreads.wakeUpOne();
+            }
+            if (!flowStopped && flowControl != null && isOverflowed()) {
+                updateFlowControl();
             }
-        } catch (InterruptedException e) {
-            log.warn("unable to add message:{}", bytesXMLMessage);
+            return;
+        }
+        unbuffer(bytesXMLMessage);
+        log.warn("unable to add message:{}", bytesXMLMessage);
+        try {
+            bytesXMLMessage.settle(XMLMessage.Outcome.FAILED);
+        } catch (JCSMPException ex) {
+            log.error(ex.getMessage(), ex);
+        }
+    }
+
+
+    private void buffer(BytesXMLMessage bytesXMLMessage) {
+        int messages = bufferedMessages.incrementAndGet();
+        long bytes = bufferedBytes.addAndGet(size(bytesXMLMessage));
+        Watermarks currentWatermarks = watermarks;
+        if (currentWatermarks != null && !flowStopped && currentWatermarks.isHigh(messages, bytes)) {
+            updateFlowControl();
+        }
+    }
+
+    private void unbuffer(BytesXMLMessage bytesXMLMessage) {
+        int messages = bufferedMessages.decrementAndGet();
+        long bytes = bufferedBytes.addAndGet(-size(bytesXMLMessage));
+        Watermarks currentWatermarks = watermarks;
+        if (flowStopped && !isOverflowed() && (currentWatermarks == null || currentWatermarks.isLow(messages, bytes))) {
+            updateFlowControl();
+        }
+    }
+
+    /**
+     * Stop or start the flow according to the overflow and the current buffer level. Both are evaluated again under
+     * the lock, so that a start racing with a stop never leaves the flow stopped with an empty buffer.
+     */
+    private void updateFlowControl() {
+        synchronized (flowControlLock) {
+            int messages = bufferedMessages.get();
+            long bytes = bufferedBytes.get();
+            boolean overflowed = isOverflowed();
+            Watermarks currentWatermarks = watermarks;
             try {
-                bytesXMLMessage.settle(XMLMessage.Outcome.FAILED);
-            } catch (JCSMPException ex) {
-                log.error(ex.getMessage(), ex);
+                if (!flowStopped && (overflowed || (currentWatermarks != null && currentWatermarks.isHigh(messages, bytes)))) {
+                    flowStopped = true;
+                    log.info("{}, stopping flow. messages={} bytes={}",
+                            overflowed ? "Receive queue is full" : "Receive buffer reached its high watermark", messages, bytes);
+                    flowControl.stopFlow();
+                } else if (flowStopped && !overflowed && (currentWatermarks == null || currentWatermarks.isLow(messages, bytes))) {
+                    flowStopped = false;
+                    log.info("Receive buffer fell to its low watermark, starting flow. messages={} bytes={}", messages, bytes);
+                    flowControl.startFlow();
+                }
+            } catch (Exception e) {
+                log.error("Failed to {} flow", flowStopped ? "stop" : "start", e);
             }
         }
     }
 
+    /**
+     * @return the messages waiting for a receiver thread, including the overflow of the full receive queue
+     */
+    private int queueSize() {
+        DispatchLanes lanes = dispatchLanes;
+        return lanes != null ? lanes.size() : messageQueue.size() + overflowQueue.size();
+    }
+
+    private boolean isOverflowed() {
+        DispatchLanes lanes = dispatchLanes;
+        return lanes != null ? lanes.isOverflowed() : !overflowQueue.isEmpty();
+    }
+
+    private static long size(BytesXMLMessage bytesXMLMessage) {
+        return (long) bytesXMLMessage.getAttachmentContentLength() + bytesXMLMessage.getContentLength();
+    }
 
     private void keepMessageIdInMemoryForDebugPurposes(BytesXMLMessage bytesXMLMessage) {
-        this.messageIdRingBuffer[messageIdIndex] = bytesXMLMessage.getMessageId();
-        messageIdIndex = ++messageIdIndex % messageIdRingBuffer.length;
+        // several flows may deliver concurrently
+        this.messageIdRingBuffer[Math.floorMod(messageIdIndex.getAndIncrement(), messageIdRingBuffer.length)] = bytesXMLMessage.getMessageId();
         log.trace("Message ID stored in ring buffer. messageId={}", bytesXMLMessage.getMessageId());
     }
 
@@ -142,6 +494,77 @@ public class FlowXMLMessageListener implements XMLMessageListener {
         log.error("Failed to receive message", e);
     }
 
+    public interface FlowControl {
+        void stopFlow() throws JCSMPException;
+
+        void startFlow() throws JCSMPException;
+    }
+
+    /**
+     * The buffer levels for stopping and starting the flow. A high watermark of 0 disables the respective limit.
+     */
+    public record Watermarks(int highMessages, int lowMessages, long highBytes, long lowBytes) {
+        public Watermarks {
+            if ((highMessages > 0 && (lowMessages < 0 || lowMessages >= highMessages))
+                    || (highBytes > 0 && (lowBytes < 0 || lowBytes >= highBytes))) {
+                throw new IllegalArgumentException("a low watermark must be at least 0 and less than its high watermark");
+            }
+        }
+
+        public boolean isEnabled() {
+            return highMessages > 0 || highBytes > 0;
+        }
+
+        boolean isHigh(int messages, long bytes) {
+            return (highMessages > 0 && messages >= highMessages) || (highBytes > 0 && bytes >= highBytes);
+        }
+
+        boolean isLow(int messages, long bytes) {
+            return (highMessages <= 0 || messages <= lowMessages) && (highBytes <= 0 || bytes <= lowBytes);
+        }
+    }
+
+    /**
+     * The bounds and the interval of the receiver thread autoscaling. Threads are added while messages wait for busy
+     * threads, and retired while no messages wait and the threads are mostly idle.
+     */
+    public record Autoscaling(int minThreads, int maxThreads, long intervalMs) {
+        static final double TARGET_UTILIZATION = 0.75;
+        static final double SCALE_DOWN_UTILIZATION = 0.5;
+
+        public Autoscaling {
+            if (minThreads < 1 || maxThreads < minThreads) {
+                throw new IllegalArgumentException("minThreads must be at least 1 and maxThreads at least minThreads");
+            }
+            if (intervalMs < 100) {
+                throw new IllegalArgumentException("intervalMs must be at least 100ms");
+            }
+        }
+
+        int bound(int threads) {
+            return Math.max(minThreads, Math.min(maxThreads, threads));
+        }
+
+        /**
+         * @param threads     the current number of receiver threads
+         * @param backlog     the number of messages waiting for a receiver thread
+         * @param utilization the share of the past interval the receiver threads were processing messages
+         * @return the number of receiver threads to scale to
+         */
+        int targetThreads(int threads, int backlog, double utilization) {
+            int sized = (int) Math.ceil(threads * utilization / TARGET_UTILIZATION);
+            if (backlog > 0 && utilization >= TARGET_UTILIZATION) {
+                // more threads than waiting messages would stay idle
+                return bound(Math.min(Math.max(threads + 1, sized), threads + backlog));
+            }
+            if (backlog == 0 && utilization < SCALE_DOWN_UTILIZATION) {
+                // retire gradually, so that a short lull does not drop the threads needed right after it
+                return bound(Math.max(threads - Math.max(1, threads / 4), sized));
+            }
+            return bound(threads);
+        }
+    }
+
     @Data
     @RequiredArgsConstructor
     static class MessageInProgress {
@@ -1,16 +1,21 @@
 package com.solace.spring.cloud.stream.binder.inbound.queue;
 
+import com.solace.spring.cloud.stream.binder.codec.SolacePayloadCodecRegistry;
 import com.solace.spring.cloud.stream.binder.health.SolaceBinderHealthAccessor;
 import com.solace.spring.cloud.stream.binder.health.base.SolaceHealthIndicator;
 import com.solace.spring.cloud.stream.binder.inbound.acknowledge.JCSMPAcknowledgementCallback;
+import com.solace.spring.cloud.stream.binder.inbound.acknowledge.SettlementQueue;
 import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
 import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
 import com.solace.spring.cloud.stream.binder.provisioning.SolaceConsumerDestination;
 import com.solace.spring.cloud.stream.binder.provisioning.SolaceProvisioningUtil;
 import com.solace.spring.cloud.stream.binder.tracing.TracingProxy;
+import com.solace.spring.cloud.stream.binder.util.ConsumerThreadFactory;
 import com.solace.spring.cloud.stream.binder.util.ErrorQueueInfrastructure;
+import com.solace.spring.cloud.stream.binder.util.LargeMessageExpiryService;
 import com.solace.spring.cloud.stream.binder.util.LargeMessageSupport;
 import com.solace.spring.cloud.stream.binder.util.SolaceAcknowledgmentException;
+import com.solace.spring.cloud.stream.binder.util.WaitStrategy;
 import com.solace.spring.cloud.stream.binder.util.XMLMessageMapper;
 import com.solacesystems.jcsmp.*;
 import com.solacesystems.jcsmp.impl.JCSMPBasicSession;
@@ -30,13 +35,21 @@ import org.springframework.integration.support.ErrorMessageUtils;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
 import org.springframework.retry.RecoveryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.CollectionUtils;
 
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 @Slf4j
@@ -55,11 +68,19 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
     private final Optional<RecoveryCallback<?>> recoveryCallback;
     private final Optional<ErrorQueueInfrastructure> errorQueueInfrastructure;
 
-    private final ThreadLocal<XMLMessageMapper> xmlMessageMapper = ThreadLocal.withInitial(XMLMessageMapper::new);
+    private SolacePayloadCodecRegistry payloadCodecRegistry = SolacePayloadCodecRegistry.getDefault();
+    private LargeMessageExpiryService largeMessageExpiryService;
+    private final ThreadLocal<XMLMessageMapper> xmlMessageMapper = ThreadLocal.withInitial(() -> {
+        XMLMessageMapper mapper = new XMLMessageMapper();
+        mapper.setPayloadCodecRegistry(payloadCodecRegistry);
+        return mapper;
+    });
     private final AtomicBoolean paused = new AtomicBoolean(false);
     private final SolaceFlowEventHandler solaceFlowEventHandler = new SolaceFlowEventHandler();
     private final FlowXMLMessageListener flowXMLMessageListener = new FlowXMLMessageListener();
-    private final AtomicReference<FlowReceiver> flowReceiver = new AtomicReference<>();
+    private final List<FlowReceiver> flowReceivers = new CopyOnWriteArrayList<>();
+    private volatile Optional<SettlementQueue> settlementQueue = Optional.empty();
+    private volatile Optional<RetryScheduler> retryScheduler = Optional.empty();
     private final LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
 
 
@@ -84,10 +105,38 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
         });
     }
 
-    private static void handleMessageWithoutRetry(Consumer<Message<?>> sendToCustomerConsumer, Message<?> message, BytesXMLMessage bytesXMLMessage, AcknowledgmentCallback acknowledgmentCallback) {
+    @SuppressWarnings("OptionalGetWithoutIsPresent")
+    void handleMessageWithNonBlockingRetry(Message<?> message, Consumer<Message<?>> sendToConsumerHandler,
+                                           AcknowledgmentCallback acknowledgmentCallback, BytesXMLMessage bytesXMLMessage) {
+        retryScheduler.get().execute(new RetryScheduler.Attempt() {
+            @Override
+            public void run(RetryContext context) {
+                sendToConsumerHandler.accept(message);
+                AckUtils.autoAck(acknowledgmentCallback);
+            }
+
+            @Override
+            public void recover(RetryContext context) {
+                try {
+                    context.setAttribute(ErrorMessageUtils.INPUT_MESSAGE_CONTEXT_KEY, message);
+                    recoveryCallback.get().recover(context);
+                    AckUtils.autoAck(acknowledgmentCallback);
+                } catch (Exception ex) {
+                    handleException(acknowledgmentCallback, bytesXMLMessage, ex);
+                }
+            }
+
+            @Override
+            public void cancel() {
+                AckUtils.requeue(acknowledgmentCallback);
+            }
+        });
+    }
+
+    private void handleMessageWithoutRetry(Consumer<Message<?>> sendToCustomerConsumer, Message<?> message, BytesXMLMessage bytesXMLMessage, AcknowledgmentCallback acknowledgmentCallback) {
         try {
             sendToCustomerConsumer.accept(message);
-            bytesXMLMessage.ackMessage();
+            ackMessage(bytesXMLMessage);
         } catch (Exception ex) {
             handleException(acknowledgmentCallback, bytesXMLMessage, ex);
         }
@@ -114,7 +163,7 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
     }
 
     public void onReceiveConcurrent(BytesXMLMessage bytesXMLMessageRaw) {
-        AcknowledgmentCallback acknowledgmentCallback = new JCSMPAcknowledgementCallback(bytesXMLMessageRaw, errorQueueInfrastructure);
+        AcknowledgmentCallback acknowledgmentCallback = new JCSMPAcknowledgementCallback(bytesXMLMessageRaw, errorQueueInfrastructure, settlementQueue);
         LargeMessageSupport.MessageContext messageContext = largeMessageSupport.assemble(bytesXMLMessageRaw, acknowledgmentCallback);
         // we got an incomplete large message and wait for more chunks
         if (messageContext == null) {
@@ -122,7 +171,7 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
         }
         BytesXMLMessage bytesXMLMessage = messageContext.bytesMessage();
         try {
-            Message<?> message = mapMessageToSpring(bytesXMLMessage, acknowledgmentCallback);
+            Message<?> message = mapMessageToSpring(bytesXMLMessage, messageContext.payload(), acknowledgmentCallback);
             if (message == null) {
                 return;
             }
@@ -130,7 +179,9 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
             if (tracingProxy.isPresent() && bytesXMLMessage.getProperties() != null && tracingProxy.get().hasTracingHeader(bytesXMLMessage.getProperties())) {
                 sendToCustomerConsumer = tracingProxy.get().wrapInTracingContext(bytesXMLMessage.getProperties(), sendToCustomerConsumer);
             }
-            if (retryTemplate.isPresent()) {
+            if (retryScheduler.isPresent()) {
+                handleMessageWithNonBlockingRetry(message, sendToCustomerConsumer, acknowledgmentCallback, bytesXMLMessage);
+            } else if (retryTemplate.isPresent()) {
                 handleMessageWithRetry(message, sendToCustomerConsumer, acknowledgmentCallback, bytesXMLMessage);
             } else {
                 handleMessageWithoutRetry(sendToCustomerConsumer, message, bytesXMLMessage, acknowledgmentCallback);
@@ -144,13 +195,13 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
     }
 
 
-    private Message<?> mapMessageToSpring(BytesXMLMessage bytesXMLMessage, AcknowledgmentCallback acknowledgmentCallback) {
+    private Message<?> mapMessageToSpring(BytesXMLMessage bytesXMLMessage, ByteBuffer payload, AcknowledgmentCallback acknowledgmentCallback) {
         try {
-            return xmlMessageMapper.get().map(bytesXMLMessage, acknowledgmentCallback, true, consumerProperties.getExtension());
+            return xmlMessageMapper.get().map(bytesXMLMessage, payload, acknowledgmentCallback, true, consumerProperties.getExtension());
         } catch (RuntimeException e) {
             boolean processedByErrorHandler = this.sendErrorMessageIfNecessary(null, e);
             if (processedByErrorHandler) {
-                bytesXMLMessage.ackMessage();
+                ackMessage(bytesXMLMessage);
             } else {
                 log.warn("Failed to map to a Spring Message and no error channel was configured. Message will be rejected: {}", bytesXMLMessage, e);
                 requeueMessage(bytesXMLMessage);
@@ -159,7 +210,19 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
         }
     }
 
+    private void ackMessage(BytesXMLMessage bytesXMLMessage) {
+        if (settlementQueue.isPresent()) {
+            settlementQueue.get().settle(bytesXMLMessage, XMLMessage.Outcome.ACCEPTED);
+        } else {
+            bytesXMLMessage.ackMessage();
+        }
+    }
+
     private void requeueMessage(BytesXMLMessage bytesXMLMessage) {
+        if (settlementQueue.isPresent()) {
+            settlementQueue.get().settle(bytesXMLMessage, XMLMessage.Outcome.FAILED);
+            return;
+        }
         try {
             bytesXMLMessage.settle(XMLMessage.Outcome.FAILED);
         } catch (JCSMPException ex) {
@@ -183,22 +246,175 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
 
     private void startFlowReceiver() throws Exception {
         final String endpointName = consumerDestination.getName();
-        log.info("Creating {} threads for binding={} <inbound adapter>", consumerProperties.getConcurrency(), endpointName);
+        log.info("Creating {} threads and {} flows for binding={} <inbound adapter>", consumerProperties.getConcurrency(),
+                consumerProperties.getExtension().getFlowCount(), endpointName);
         checkPropertiesAndBroker();
         setupFlowEventHandler();
         ConsumerFlowProperties consumerFlowProperties = getConsumerFlowProperties(endpointName);
+        if (consumerProperties.getExtension().isFlowWindowAutoTuning()) {
+            tuneFlowWindow(consumerFlowProperties);
+        }
         long maxProcessingTimeMs = consumerProperties.getExtension().getMaxProcessingTimeMs();
+        this.largeMessageSupport.setSpillToDisk(consumerProperties.getExtension().isLargeMessageSpillToDisk());
+        if (consumerProperties.getExtension().getLargeMessageSpillDirectory() != null) {
+            this.largeMessageSupport.setSpillDirectory(Path.of(consumerProperties.getExtension().getLargeMessageSpillDirectory()));
+        }
+        this.largeMessageSupport.setMaxAssemblyBytes(consumerProperties.getExtension().getLargeMessageMaxAssemblyBytes());
+        this.largeMessageSupport.setMaxAssemblyRefusals(consumerProperties.getExtension().getLargeMessageMaxAssemblyRefusals());
+        this.largeMessageSupport.setReceiveTimeoutMs(consumerProperties.getExtension().getLargeMessageReceiveTimeoutMs());
+        this.largeMessageSupport.setExpiryService(largeMessageExpiryService);
+        this.solaceMeterAccessor.ifPresent(ma -> this.largeMessageSupport.setSolaceMeterAccessor(ma, consumerProperties.getBindingName()));
         this.solaceMeterAccessor.ifPresent(ma -> this.flowXMLMessageListener.setSolaceMeterAccessor(ma, consumerProperties.getBindingName()));
+        if (consumerProperties.getExtension().isVirtualThreads()) {
+            if (consumerProperties.getExtension().getReceiveQueueWaitStrategy() != WaitStrategy.PARK) {
+                log.warn("receiveQueueWaitStrategy={} keeps the carrier threads of idle virtual threads busy <inbound adapter binding={}>",
+                        consumerProperties.getExtension().getReceiveQueueWaitStrategy(), endpointName);
+            }
+            this.flowXMLMessageListener.setThreadFactory(ConsumerThreadFactory.create(true));
+        }
+        if (consumerProperties.getExtension().isKeyOrderedDispatch()) {
+            this.flowXMLMessageListener.setKeyOrderedDispatch(consumerProperties.getExtension().getKeyOrderedDispatchProperty());
+        }
+        if (consumerProperties.getExtension().isConcurrencyAutoscaling()) {
+            this.flowXMLMessageListener.setAutoscaling(getAutoscaling());
+        }
+        if (consumerProperties.getExtension().isAsyncSettlement()) {
+            SettlementQueue queue = new SettlementQueue(consumerDestination.getBindingDestinationName() + "-settler");
+            this.solaceMeterAccessor.ifPresent(ma -> queue.setSolaceMeterAccessor(ma, consumerProperties.getBindingName()));
+            this.settlementQueue = Optional.of(queue);
+        }
+        if (consumerProperties.getExtension().isNonBlockingRetry() && retryTemplate.isPresent()) {
+            this.retryScheduler = Optional.of(createRetryScheduler());
+        }
+        // the flow is also stopped while messages overflow the full receive queue, even with disabled watermarks
+        this.flowXMLMessageListener.setFlowControl(new FlowXMLMessageListener.FlowControl() {
+            @Override
+            public void stopFlow() {
+                stopFlows();
+            }
+
+            @Override
+            public void startFlow() throws JCSMPException {
+                // a paused binding is started by resume()
+                if (!paused.get()) {
+                    startFlows();
+                }
+            }
+        }, getReceiveBufferWatermarks());
         this.flowXMLMessageListener.startReceiverThreads(
                 consumerProperties.getConcurrency(),
                 consumerDestination.getBindingDestinationName(),
                 this::onReceiveConcurrent,
-                maxProcessingTimeMs);
-        this.flowReceiver.set(jcsmpSession.createFlow(flowXMLMessageListener, consumerFlowProperties, endpointProperties, solaceFlowEventHandler));
+                maxProcessingTimeMs,
+                consumerProperties.getExtension().getReceiveQueueCapacity(),
+                consumerProperties.getExtension().getReceiveQueueWaitStrategy());
+        createFlows(consumerFlowProperties);
         if (!paused.get()) {
-            this.flowReceiver.get().start();
+            startFlows();
+        }
+        postStart.accept(flowReceivers.get(0).getEndpoint());
+    }
+
+    /**
+     * Create {@code flowCount} flows to the queue, all delivering to the same receiver threads. Every flow has its
+     * own transport window, so that more messages are in flight from the broker.
+     */
+    private void createFlows(ConsumerFlowProperties consumerFlowProperties) throws JCSMPException {
+        int flowCount = consumerProperties.getExtension().getFlowCount();
+        try {
+            for (int i = 0; i < flowCount; i++) {
+                flowReceivers.add(jcsmpSession.createFlow(flowXMLMessageListener, consumerFlowProperties, endpointProperties, solaceFlowEventHandler));
+            }
+        } catch (JCSMPException | RuntimeException e) {
+            closeFlows();
+            retryScheduler.ifPresent(RetryScheduler::close);
+            settlementQueue.ifPresent(SettlementQueue::close);
+            throw e;
+        }
+    }
+
+    private void startFlows() throws JCSMPException {
+        for (FlowReceiver flowReceiver : flowReceivers) {
+            flowReceiver.start();
+        }
+    }
+
+    private void stopFlows() {
+        for (FlowReceiver flowReceiver : flowReceivers) {
+            flowReceiver.stop();
+        }
+    }
+
+    private void closeFlows() {
+        for (FlowReceiver flowReceiver : flowReceivers) {
+            flowReceiver.close();
+        }
+        flowReceivers.clear();
+    }
+
+    private FlowXMLMessageListener.Watermarks getReceiveBufferWatermarks() {
+        SolaceConsumerProperties extension = consumerProperties.getExtension();
+        try {
+            return new FlowXMLMessageListener.Watermarks(
+                    extension.getReceiveBufferHighWatermarkMessages(), extension.getReceiveBufferLowWatermarkMessages(),
+                    extension.getReceiveBufferHighWatermarkBytes(), extension.getReceiveBufferLowWatermarkBytes());
+        } catch (IllegalArgumentException e) {
+            throw new MessagingException(String.format("Invalid receive buffer watermarks <inbound adapter binding=%s>: %s",
+                    consumerDestination.getName(), e.getMessage()), e);
+        }
+    }
+
+    private void tuneFlowWindow(ConsumerFlowProperties consumerFlowProperties) {
+        SolaceConsumerProperties extension = consumerProperties.getExtension();
+        int ackTimerMs = consumerFlowProperties.getAckTimerInMsecs() > 0 ? consumerFlowProperties.getAckTimerInMsecs()
+                : getSessionIntProperty(JCSMPProperties.SUB_ACK_TIME, 1000);
+        int maxWindowSize = extension.getFlowWindowSize() != null ? extension.getFlowWindowSize()
+                : getSessionIntProperty(JCSMPProperties.SUB_ACK_WINDOW_SIZE, FlowWindowTuning.MAX_WINDOW_SIZE);
+        double messagesPerSecond = flowXMLMessageListener.getProcessingRatePerThread() * consumerProperties.getConcurrency();
+        int windowSize = FlowWindowTuning.windowSize(messagesPerSecond, ackTimerMs, maxWindowSize,
+                extension.getReceiveBufferHighWatermarkMessages(), consumerProperties.getConcurrency(), extension.getFlowCount());
+        log.info("Tuned flow window binding={} windowSize={} processingRate={}/s ackTimerMs={} <inbound adapter>",
+                consumerDestination.getName(), windowSize, String.format("%.1f", messagesPerSecond), ackTimerMs);
+        consumerFlowProperties.setTransportWindowSize(windowSize);
+    }
+
+    private int getSessionIntProperty(String property, int defaultValue) {
+        return jcsmpSession.getProperty(property) instanceof Integer value && value > 0 ? value : defaultValue;
+    }
+
+    /**
+     * The retry policy and back off of the retry template built by the binder, with the retries run on a timer.
+     */
+    private RetryScheduler createRetryScheduler() {
+        RetryPolicy retryPolicy = CollectionUtils.isEmpty(consumerProperties.getRetryableExceptions())
+                ? new SimpleRetryPolicy(consumerProperties.getMaxAttempts())
+                : new SimpleRetryPolicy(consumerProperties.getMaxAttempts(), consumerProperties.getRetryableExceptions(),
+                true, consumerProperties.isDefaultRetryable());
+        ThreadFactory threadFactory = ConsumerThreadFactory.create(consumerProperties.getExtension().isVirtualThreads());
+        String threadNamePrefix = consumerDestination.getBindingDestinationName() + "-retry-";
+        AtomicInteger threadIndex = new AtomicInteger();
+        return new RetryScheduler(retryPolicy,
+                consumerProperties.getBackOffInitialInterval(),
+                consumerProperties.getBackOffMultiplier(),
+                consumerProperties.getBackOffMaxInterval(),
+                consumerProperties.getExtension().getMaxPendingRetries(),
+                consumerProperties.getConcurrency(),
+                runnable -> {
+                    Thread thread = threadFactory.newThread(runnable);
+                    thread.setName(threadNamePrefix + threadIndex.getAndIncrement());
+                    return thread;
+                });
+    }
+
+    private FlowXMLMessageListener.Autoscaling getAutoscaling() {
+        SolaceConsumerProperties extension = consumerProperties.getExtension();
+        try {
+            return new FlowXMLMessageListener.Autoscaling(
+                    extension.getMinConcurrency(), extension.getMaxConcurrency(), extension.getConcurrencyScaleIntervalMs());
+        } catch (IllegalArgumentException e) {
+            throw new MessagingException(String.format("Invalid concurrency autoscaling <inbound adapter binding=%s>: %s",
+                    consumerDestination.getName(), e.getMessage()), e);
         }
-        postStart.accept(flowReceiver.get().getEndpoint());
     }
 
     private void checkPropertiesAndBroker() {
@@ -208,6 +424,30 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
             log.warn(msg);
             throw new MessagingException(msg);
         }
+        if (consumerProperties.getExtension().getFlowCount() < 1) {
+            String msg = String.format("flowCount must be greater than 0, was %d <inbound adapter binding=%s>",
+                    consumerProperties.getExtension().getFlowCount(), consumerDestination.getName());
+            log.warn(msg);
+            throw new MessagingException(msg);
+        }
+        if (consumerProperties.getExtension().isNonBlockingRetry() && consumerProperties.getExtension().isKeyOrderedDispatch()) {
+            String msg = String.format("nonBlockingRetry is not supported with keyOrderedDispatch <inbound adapter binding=%s>",
+                    consumerDestination.getName());
+            log.warn(msg);
+            throw new MessagingException(msg);
+        }
+        if (consumerProperties.getExtension().getMaxPendingRetries() < 1) {
+            String msg = String.format("maxPendingRetries must be greater than 0, was %d <inbound adapter binding=%s>",
+                    consumerProperties.getExtension().getMaxPendingRetries(), consumerDestination.getName());
+            log.warn(msg);
+            throw new MessagingException(msg);
+        }
+        if (consumerProperties.getExtension().isConcurrencyAutoscaling() && consumerProperties.getExtension().isKeyOrderedDispatch()) {
+            String msg = String.format("concurrencyAutoscaling is not supported with keyOrderedDispatch <inbound adapter binding=%s>",
+                    consumerDestination.getName());
+            log.warn(msg);
+            throw new MessagingException(msg);
+        }
         if (jcsmpSession instanceof JCSMPBasicSession jcsmpBasicSession
                 && !jcsmpBasicSession.isRequiredSettlementCapable(
                 Set.of(XMLMessage.Outcome.ACCEPTED, XMLMessage.Outcome.FAILED, XMLMessage.Outcome.REJECTED))) {
@@ -246,8 +486,12 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
     protected void doStop() {
         if (!isRunning()) return;
         solaceBinderHealthAccessor.ifPresent(solaceBinderHealth -> solaceBinderHealth.removeBindingHealthIndicator(consumerProperties.getBindingName()));
-        this.flowReceiver.get().stop();
-        this.flowReceiver.get().close();
+        stopFlows();
+        // requeues the messages waiting for a retry
+        this.retryScheduler.ifPresent(RetryScheduler::close);
+        // the flows must still be open to settle the remaining messages
+        this.settlementQueue.ifPresent(SettlementQueue::close);
+        closeFlows();
         this.flowXMLMessageListener.stopReceiverThreads();
     }
 
@@ -266,9 +510,7 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
     public void pause() {
         log.info("Pausing inbound adapter binding={}", consumerDestination.getName());
         paused.set(true);
-        if (this.flowReceiver.get() != null) {
-            this.flowReceiver.get().stop();
-        }
+        stopFlows();
     }
 
     @Override
@@ -278,8 +520,12 @@ public class JCSMPInboundQueueMessageProducer extends MessageProducerSupport imp
         }
         log.info("Resuming inbound adapter binding={}", consumerDestination.getName());
         paused.set(false);
+        if (this.flowXMLMessageListener.isFlowStopped()) {
+            // started again once the receive queue's overflow is drained and the buffer fell to its low watermark
+            return;
+        }
         try {
-            this.flowReceiver.get().start();
+            startFlows();
         } catch (JCSMPException e) {
             log.error("Failed to resume/start flow receiver", e);
             throw new RuntimeException(e);
@@ -0,0 +1,193 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries failed messages on a timer instead of sleeping through the back off on the receiver thread, so that the
+ * receiver thread moves on to the next message right after a failed attempt.
+ * <p>The number of messages waiting for a retry is bounded, a failed message is requeued for a redelivery by the
+ * broker while no retry slot is free, so that the receiver thread never waits for one.</p>
+ */
+@Slf4j
+final class RetryScheduler implements AutoCloseable {
+    private final RetryPolicy retryPolicy;
+    private final long initialIntervalMs;
+    private final double multiplier;
+    private final long maxIntervalMs;
+    private final Semaphore retrySlots;
+    private final ScheduledExecutorService executorService;
+    private final Set<Retry> pendingRetries = ConcurrentHashMap.newKeySet();
+    private volatile boolean running = true;
+
+    /**
+     * @param retryPolicy       decides whether a failed message is retried
+     * @param initialIntervalMs the back off before the first retry
+     * @param multiplier        the factor of the back off of every further retry
+     * @param maxIntervalMs     the maximum back off
+     * @param maxRetries        the maximum number of messages waiting for or in a retry
+     * @param threads           the number of threads running the retries
+     * @param threadFactory     the factory of the threads running the retries
+     */
+    RetryScheduler(RetryPolicy retryPolicy, long initialIntervalMs, double multiplier, long maxIntervalMs,
+                   int maxRetries, int threads, ThreadFactory threadFactory) {
+        this.retryPolicy = retryPolicy;
+        this.initialIntervalMs = initialIntervalMs;
+        this.multiplier = multiplier;
+        this.maxIntervalMs = maxIntervalMs;
+        this.retrySlots = new Semaphore(maxRetries);
+        this.executorService = Executors.newScheduledThreadPool(threads, threadFactory);
+    }
+
+    /**
+     * Run the first attempt on the calling thread and schedule the retries.
+     */
+    void execute(Attempt attempt) {
+        run(new Retry(attempt, retryPolicy.open(null)));
+    }
+
+    /**
+     * @return the number of messages waiting for a retry
+     */
+    int getPendingRetries() {
+        return pendingRetries.size();
+    }
+
+    /**
+     * Stop retrying, the messages waiting for a retry are given up with {@link Attempt#cancel()}.
+     */
+    @Override
+    public void close() {
+        running = false;
+        executorService.shutdownNow();
+        for (Retry retry : pendingRetries) {
+            if (pendingRetries.remove(retry)) {
+                cancel(retry);
+            }
+        }
+    }
+
+    /**
+     * @param retryCount the number of failed attempts
+     * @return the back off before the next attempt
+     */
+    long backOffMs(int retryCount) {
+        double interval = initialIntervalMs * Math.pow(multiplier, Math.max(0, retryCount - 1));
+        return (long) Math.min(interval, maxIntervalMs);
+    }
+
+    private void run(Retry retry) {
+        try {
+            retry.attempt.run(retry.context);
+            release(retry);
+            return;
+        } catch (Throwable e) {
+            // like the RetryTemplate, an Error is only retried if the retry policy classifies it as retryable
+            retryPolicy.registerThrowable(retry.context, e);
+        }
+        if (!running) {
+            cancel(retry);
+        } else if (!retryPolicy.canRetry(retry.context)) {
+            release(retry);
+            recover(retry);
+        } else if (!schedule(retry)) {
+            log.debug("No free retry slot, requeuing message");
+            cancel(retry);
+        }
+    }
+
+    private void recover(Retry retry) {
+        try {
+            retry.attempt.recover(retry.context);
+        } catch (Throwable e) {
+            // the message must not stay unsettled
+            log.error("Failed to recover message, giving it up", e);
+            cancel(retry);
+        }
+    }
+
+    /**
+     * @return {@code false} if no retry slot could be taken
+     */
+    private boolean schedule(Retry retry) {
+        if (!retry.scheduled) {
+            if (!retrySlots.tryAcquire()) {
+                return false;
+            }
+            retry.scheduled = true;
+        }
+        long backOffMs = backOffMs(retry.context.getRetryCount());
+        log.debug("Retrying message in {} ms, attempt {}", backOffMs, retry.context.getRetryCount() + 1);
+        // a pending retry is either run by its task or cancelled by close(), whichever removes it first
+        pendingRetries.add(retry);
+        try {
+            executorService.schedule(() -> {
+                if (pendingRetries.remove(retry)) {
+                    run(retry);
+                }
+            }, backOffMs, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // rejected after close()
+            if (pendingRetries.remove(retry)) {
+                cancel(retry);
+            }
+        }
+        return true;
+    }
+
+    private void cancel(Retry retry) {
+        release(retry);
+        try {
+            retry.attempt.cancel();
+        } catch (Throwable e) {
+            log.error("Failed to cancel retry", e);
+        }
+    }
+
+    private void release(Retry retry) {
+        if (retry.scheduled) {
+            retry.scheduled = false;
+            retrySlots.release();
+        }
+    }
+
+    /**
+     * The processing of a message.
+     */
+    interface Attempt {
+        /**
+         * Process the message, throws if it failed.
+         */
+        void run(RetryContext context) throws Exception;
+
+        /**
+         * Handle the message once no retry is left.
+         */
+        void recover(RetryContext context);
+
+        /**
+         * Give up the message for a redelivery, as the retries were stopped or no retry slot is free.
+         */
+        void cancel();
+    }
+
+    private static final class Retry {
+        private final Attempt attempt;
+        private final RetryContext context;
+        private volatile boolean scheduled;
+
+        private Retry(Attempt attempt, RetryContext context) {
+            this.attempt = attempt;
+            this.context = context;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, pre-sized and lock-free queue for any number of producers and consumers.
+ * <p>Every slot has a sequence number telling whether it is free for the producer or filled for the consumer of a
+ * position, so that producers and consumers only contend on their own position counter and no node is allocated per
+ * element (D. Vyukov's bounded MPMC queue).</p>
+ */
+final class RingBuffer<E> {
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity the minimum capacity, rounded up to a power of two of at least 2
+     */
+    RingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+        }
+        // a single slot could not tell a filled slot from a slot free for the next revolution
+        int size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return {@code false} if the queue is full
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        elements.lazySet(index, element);
+        // publishes the element to the consumer of this position
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /**
+     * @return the head of the queue, {@code null} if it is empty
+     */
+    E poll() {
+        long position = head.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+        E element = elements.get(index);
+        elements.lazySet(index, null);
+        // frees the slot for the producer of the next revolution
+        sequences.set(index, position + mask + 1);
+        return element;
+    }
+
+    /**
+     * @return the approximate number of queued elements
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
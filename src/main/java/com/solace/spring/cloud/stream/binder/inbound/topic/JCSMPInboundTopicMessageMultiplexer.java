@@ -4,6 +4,7 @@ import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
 import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
 import com.solace.spring.cloud.stream.binder.provisioning.SolaceConsumerDestination;
 import com.solace.spring.cloud.stream.binder.tracing.TracingProxy;
+import com.solace.spring.cloud.stream.binder.util.LargeMessageExpiryService;
 import com.solace.spring.cloud.stream.binder.util.LargeMessageSupport;
 import com.solacesystems.jcsmp.*;
 import lombok.RequiredArgsConstructor;
@@ -21,9 +22,11 @@ public class JCSMPInboundTopicMessageMultiplexer {
     private final JCSMPSession jcsmpSession;
     private final Optional<SolaceMeterAccessor> solaceMeterAccessorSupplier;
     private final Optional<TracingProxy> tracingProxy;
+    private final LargeMessageExpiryService largeMessageExpiryService;
     private final List<JCSMPInboundTopicMessageProducer> jcsmpInboundTopicMessageProducers = new ArrayList<>();
     private final AtomicReference<XMLMessageConsumer> msgConsumer = new AtomicReference<>(null);
     private final LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
+    private long largeMessageReceiveTimeoutMs;
 
     private final LivecycleHooks livecycleHooks = new LivecycleHooks() {
         @Override
@@ -33,7 +36,7 @@ public class JCSMPInboundTopicMessageMultiplexer {
                 jcsmpInboundTopicMessageProducers.add(producer);
             }
             updateTopics();
-            largeMessageSupport.startHousekeeping();
+            largeMessageSupport.setExpiryService(largeMessageExpiryService);
         }
 
         @Override
@@ -142,6 +145,11 @@ public class JCSMPInboundTopicMessageMultiplexer {
 
     public JCSMPInboundTopicMessageProducer createTopicMessageProducer(ConsumerDestination destination, String group, ExtendedConsumerProperties<SolaceConsumerProperties> properties) {
         this.ensureXMLMessageConsumer();
+        synchronized (largeMessageSupport) {
+            // chunks are assembled before they are dispatched to a binding
+            largeMessageReceiveTimeoutMs = Math.max(largeMessageReceiveTimeoutMs, properties.getExtension().getLargeMessageReceiveTimeoutMs());
+            largeMessageSupport.setReceiveTimeoutMs(largeMessageReceiveTimeoutMs);
+        }
         return new JCSMPInboundTopicMessageProducer((SolaceConsumerDestination) destination, group, properties, this.solaceMeterAccessorSupplier, tracingProxy, livecycleHooks);
     }
 
@@ -1,9 +1,11 @@
 package com.solace.spring.cloud.stream.binder.inbound.topic;
 
+import com.solace.spring.cloud.stream.binder.codec.SolacePayloadCodecRegistry;
 import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
 import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
 import com.solace.spring.cloud.stream.binder.provisioning.SolaceConsumerDestination;
 import com.solace.spring.cloud.stream.binder.tracing.TracingProxy;
+import com.solace.spring.cloud.stream.binder.util.ConsumerThreadFactory;
 import com.solace.spring.cloud.stream.binder.util.XMLMessageMapper;
 import com.solacesystems.jcsmp.BytesXMLMessage;
 import lombok.Setter;
@@ -40,6 +42,10 @@ public class JCSMPInboundTopicMessageProducer extends MessageProducerSupport imp
     private final AcknowledgmentCallback noop = status -> {
     };
 
+    public void setPayloadCodecRegistry(SolacePayloadCodecRegistry payloadCodecRegistry) {
+        xmlMessageMapper.setPayloadCodecRegistry(payloadCodecRegistry);
+    }
+
     public JCSMPInboundTopicMessageProducer(SolaceConsumerDestination consumerDestination,
                                             String group,
                                             ExtendedConsumerProperties<SolaceConsumerProperties> consumerProperties,
@@ -51,7 +57,8 @@ public class JCSMPInboundTopicMessageProducer extends MessageProducerSupport imp
         this.consumerProperties = consumerProperties;
         this.solaceMeterAccessor = solaceMeterAccessor;
         this.tracingProxy = tracingProxy;
-        this.executorService = Executors.newFixedThreadPool(Math.max(1, consumerProperties.getConcurrency()));
+        this.executorService = Executors.newFixedThreadPool(Math.max(1, consumerProperties.getConcurrency()),
+                ConsumerThreadFactory.create(consumerProperties.getExtension().isVirtualThreads()));
         this.livecycleHooks = livecycleHooks;
     }
 
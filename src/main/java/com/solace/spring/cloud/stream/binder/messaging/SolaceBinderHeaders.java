@@ -63,6 +63,22 @@ public final class SolaceBinderHeaders {
      */
     public static final String CHUNK_COUNT = PREFIX + "chunkCount";
 
+    /**
+     * <p><b>Acceptable Value Type:</b> {@link Integer}</p>
+     * <p><b>Access:</b> Internal Binder Use Only</p>
+     * <br>
+     * <p>The CRC32C checksum of the data of the current chunk.</p>
+     */
+    public static final String CHUNK_CHECKSUM = PREFIX + "chunkChecksum";
+
+    /**
+     * <p><b>Acceptable Value Type:</b> {@link Integer}</p>
+     * <p><b>Access:</b> Internal Binder Use Only</p>
+     * <br>
+     * <p>The CRC32C checksum over the chunk checksums of all chunks in index order. Only set on the last chunk.</p>
+     */
+    public static final String CHUNK_MESSAGE_CHECKSUM = PREFIX + "chunkMessageChecksum";
+
     /**
      * <p><b>Acceptable Value Type:</b> {@link Integer}</p>
      * <p><b>Access:</b> Read</p>
@@ -87,6 +103,7 @@ public final class SolaceBinderHeaders {
      * <br>
      * <p>A JSON String array of header names where each entry indicates that that header’s value was serialized by a
      * Solace Spring Cloud Stream binder before publishing it to a broker.</p>
+     * <p>With {@link #MESSAGE_VERSION} 2, an SDT map of the serialized header values as raw byte arrays instead.</p>
      */
     public static final String SERIALIZED_HEADERS = PREFIX + "serializedHeaders";
 
@@ -96,9 +113,28 @@ public final class SolaceBinderHeaders {
      * <p><b>Default Value: </b>{@code "base64"}</p>
      * <br>
      * <p>The encoding algorithm used to encode the headers indicated by {@link #SERIALIZED_HEADERS}.</p>
+     * <p>Not set with {@link #MESSAGE_VERSION} 2.</p>
      */
     public static final String SERIALIZED_HEADERS_ENCODING = PREFIX + "serializedHeadersEncoding";
 
+    /**
+     * <p><b>Acceptable Value Type:</b> {@link String}</p>
+     * <p><b>Access:</b> Internal Binder Use Only</p>
+     * <br>
+     * <p>The id of the {@link com.solace.spring.cloud.stream.binder.codec.SolacePayloadCodec} which encoded the
+     * payload before publishing it to a broker. Is undefined if the payload was not encoded or was encoded with Java
+     * serialization, see {@link #SERIALIZED_PAYLOAD}.</p>
+     */
+    public static final String PAYLOAD_CODEC = PREFIX + "payloadCodec";
+
+    /**
+     * <p><b>Acceptable Value Type:</b> {@link String}</p>
+     * <p><b>Access:</b> Internal Binder Use Only</p>
+     * <br>
+     * <p>The class name of the payload encoded by the codec indicated by {@link #PAYLOAD_CODEC}.</p>
+     */
+    public static final String PAYLOAD_TYPE = PREFIX + "payloadType";
+
     /**
      * <p><b>Acceptable Value Type:</b> {@link CorrelationData}</p>
      * <p><b>Access:</b> Write</p>
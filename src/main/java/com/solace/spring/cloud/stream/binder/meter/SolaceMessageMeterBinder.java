@@ -2,12 +2,19 @@ package com.solace.spring.cloud.stream.binder.meter;
 
 import com.solacesystems.jcsmp.XMLMessage;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.binder.BaseUnits;
 import io.micrometer.core.instrument.binder.MeterBinder;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public class SolaceMessageMeterBinder implements MeterBinder {
     MeterRegistry registry;
@@ -16,13 +23,51 @@ public class SolaceMessageMeterBinder implements MeterBinder {
     public static final String METER_NAME_PAYLOAD_SIZE = "solace.message.size.payload";
     public static final String METER_NAME_QUEUE_SIZE = "solace.message.queue.size";
     public static final String METER_NAME_ACTIVE_MESSAGES_SIZE = "solace.message.active.size";
+    public static final String METER_NAME_PUBLISH_BATCH_SIZE = "solace.message.publish.batch.size";
+    public static final String METER_NAME_PUBLISH_IN_FLIGHT = "solace.message.publish.inflight";
+    public static final String METER_NAME_PUBLISH_FLOW_IN_FLIGHT = "solace.message.publish.flow.inflight";
+    public static final String METER_NAME_PUBLISH_ACK_LATENCY = "solace.message.publish.ack.latency";
+    public static final String METER_NAME_DYNAMIC_DESTINATION_CACHE = "solace.message.publish.destination.cache";
+    public static final String METER_NAME_ASSEMBLY_PARTIAL = "solace.message.assembly.partial";
+    public static final String METER_NAME_ASSEMBLY_BYTES = "solace.message.assembly.bytes";
+    public static final String METER_NAME_ASSEMBLY_TIME = "solace.message.assembly.time";
+    public static final String METER_NAME_RECEIVE_BUFFER_MESSAGES = "solace.message.receive.buffer.messages";
+    public static final String METER_NAME_RECEIVE_BUFFER_BYTES = "solace.message.receive.buffer.bytes";
+    public static final String METER_NAME_DISPATCH_LANE_SIZE = "solace.message.dispatch.lane.size";
+    public static final String METER_NAME_DISPATCH_LANE_WAIT = "solace.message.dispatch.lane.wait";
+    public static final String METER_NAME_RECEIVER_THREADS = "solace.message.receiver.threads";
+    public static final String METER_NAME_RECEIVER_SCALING = "solace.message.receiver.scaling";
+    public static final String METER_NAME_SETTLEMENT_PENDING = "solace.message.settlement.pending";
+    public static final String METER_NAME_SETTLEMENT_LAG = "solace.message.settlement.lag";
     public static final String METER_DESCRIPTION_TOTAL_SIZE = "Total message size";
     public static final String METER_DESCRIPTION_PAYLOAD_SIZE = "Message payload size";
     public static final String METER_DESCRIPTION_QUEUE_SIZE = "Message queue size";
     public static final String METER_DESCRIPTION_ACTIVE_MESSAGES_SIZE = "Messages active in processing";
+    public static final String METER_DESCRIPTION_PUBLISH_BATCH_SIZE = "Messages published with a single producer call";
+    public static final String METER_DESCRIPTION_PUBLISH_IN_FLIGHT = "Published messages not yet acknowledged by the broker";
+    public static final String METER_DESCRIPTION_PUBLISH_FLOW_IN_FLIGHT = "Messages published on a producer flow not yet acknowledged by the broker";
+    public static final String METER_DESCRIPTION_PUBLISH_ACK_LATENCY = "Time from publishing a message until the broker acknowledged it";
+    public static final String METER_DESCRIPTION_DYNAMIC_DESTINATION_CACHE = "Lookups and evictions of the dynamic destination cache";
+    public static final String METER_DESCRIPTION_ASSEMBLY_PARTIAL = "Large messages of which not all chunks were received yet";
+    public static final String METER_DESCRIPTION_ASSEMBLY_BYTES = "Bytes held by large messages of which not all chunks were received yet";
+    public static final String METER_DESCRIPTION_ASSEMBLY_TIME = "Time from receiving the first chunk of a large message until it was assembled";
+    public static final String METER_DESCRIPTION_RECEIVE_BUFFER_MESSAGES = "Received messages waiting for a consumer thread";
+    public static final String METER_DESCRIPTION_RECEIVE_BUFFER_BYTES = "Bytes of the received messages waiting for a consumer thread";
+    public static final String METER_DESCRIPTION_DISPATCH_LANE_SIZE = "Messages waiting in a key-ordered dispatch lane";
+    public static final String METER_DESCRIPTION_DISPATCH_LANE_WAIT = "Time a message waited in its key-ordered dispatch lane for the messages ahead of it";
+    public static final String METER_DESCRIPTION_RECEIVER_THREADS = "Running consumer threads";
+    public static final String METER_DESCRIPTION_RECEIVER_SCALING = "Scaling decisions of the consumer thread autoscaling";
+    public static final String METER_DESCRIPTION_SETTLEMENT_PENDING = "Processed messages waiting for the settler thread";
+    public static final String METER_DESCRIPTION_SETTLEMENT_LAG = "Time from enqueuing the settlement of a message until the settler thread settled it";
     public static final String TAG_NAME = "name";
+    public static final String TAG_DESTINATION_TYPE = "destination.type";
+    public static final String TAG_RESULT = "result";
+    public static final String TAG_FLOW = "flow";
+    public static final String TAG_LANE = "lane";
+    public static final String TAG_DIRECTION = "direction";
 
     public final Map<String, DistributionSummary> meterCache = new ConcurrentHashMap<>();
+    public final Map<String, Timer> timerCache = new ConcurrentHashMap<>();
 
     @Override
     public void bindTo(MeterRegistry registry) {
@@ -73,6 +118,215 @@ public class SolaceMessageMeterBinder implements MeterBinder {
                 .record(activeMessages);
     }
 
+    public void recordPublishBatchSize(String bindingName, int batchSize) {
+        if (registry == null) {
+            return;
+        }
+
+        meterCache.computeIfAbsent(
+                        METER_NAME_PUBLISH_BATCH_SIZE + bindingName,
+                        ignored -> DistributionSummary.builder(METER_NAME_PUBLISH_BATCH_SIZE)
+                                .description(METER_DESCRIPTION_PUBLISH_BATCH_SIZE)
+                                .tag(TAG_NAME, bindingName)
+                                .baseUnit(BaseUnits.MESSAGES)
+                                .register(registry)
+                )
+                .record(batchSize);
+    }
+
+    public void registerPublishInFlightGauge(String bindingName, AtomicInteger inFlightMessages) {
+        if (registry == null) {
+            return;
+        }
+
+        Gauge.builder(METER_NAME_PUBLISH_IN_FLIGHT, inFlightMessages, AtomicInteger::get)
+                .description(METER_DESCRIPTION_PUBLISH_IN_FLIGHT)
+                .tag(TAG_NAME, bindingName)
+                .baseUnit(BaseUnits.MESSAGES)
+                .register(registry);
+    }
+
+    public void recordPublishAckLatency(String bindingName, String destinationType, long latencyNanos) {
+        if (registry == null) {
+            return;
+        }
+
+        timerCache.computeIfAbsent(
+                        METER_NAME_PUBLISH_ACK_LATENCY + bindingName + destinationType,
+                        ignored -> Timer.builder(METER_NAME_PUBLISH_ACK_LATENCY)
+                                .description(METER_DESCRIPTION_PUBLISH_ACK_LATENCY)
+                                .tag(TAG_NAME, bindingName)
+                                .tag(TAG_DESTINATION_TYPE, destinationType)
+                                .publishPercentiles(0.5, 0.95, 0.99)
+                                .register(registry)
+                )
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void registerProducerFlowInFlightGauge(String bindingName, int flowIndex, AtomicInteger inFlightMessages) {
+        if (registry == null) {
+            return;
+        }
+
+        Gauge.builder(METER_NAME_PUBLISH_FLOW_IN_FLIGHT, inFlightMessages, AtomicInteger::get)
+                .description(METER_DESCRIPTION_PUBLISH_FLOW_IN_FLIGHT)
+                .tag(TAG_NAME, bindingName)
+                .tag(TAG_FLOW, String.valueOf(flowIndex))
+                .baseUnit(BaseUnits.MESSAGES)
+                .register(registry);
+    }
+
+    public void registerDynamicDestinationCacheMeters(String bindingName, LongAdder hits, LongAdder misses,
+                                                      LongAdder evictions) {
+        if (registry == null) {
+            return;
+        }
+
+        registerDynamicDestinationCacheCounter(bindingName, "hit", hits);
+        registerDynamicDestinationCacheCounter(bindingName, "miss", misses);
+        registerDynamicDestinationCacheCounter(bindingName, "eviction", evictions);
+    }
+
+    public void registerLargeMessageAssemblyGauges(String bindingName, AtomicInteger partialAssemblies,
+                                                   AtomicLong assemblyBytes) {
+        if (registry == null) {
+            return;
+        }
+
+        Gauge.builder(METER_NAME_ASSEMBLY_PARTIAL, partialAssemblies, AtomicInteger::get)
+                .description(METER_DESCRIPTION_ASSEMBLY_PARTIAL)
+                .tag(TAG_NAME, bindingName)
+                .baseUnit(BaseUnits.MESSAGES)
+                .register(registry);
+        Gauge.builder(METER_NAME_ASSEMBLY_BYTES, assemblyBytes, AtomicLong::get)
+                .description(METER_DESCRIPTION_ASSEMBLY_BYTES)
+                .tag(TAG_NAME, bindingName)
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+
+    public void registerReceiveBufferGauges(String bindingName, AtomicInteger bufferedMessages, AtomicLong bufferedBytes) {
+        if (registry == null) {
+            return;
+        }
+
+        Gauge.builder(METER_NAME_RECEIVE_BUFFER_MESSAGES, bufferedMessages, AtomicInteger::get)
+                .description(METER_DESCRIPTION_RECEIVE_BUFFER_MESSAGES)
+                .tag(TAG_NAME, bindingName)
+                .baseUnit(BaseUnits.MESSAGES)
+                .register(registry);
+        Gauge.builder(METER_NAME_RECEIVE_BUFFER_BYTES, bufferedBytes, AtomicLong::get)
+                .description(METER_DESCRIPTION_RECEIVE_BUFFER_BYTES)
+                .tag(TAG_NAME, bindingName)
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+
+    public void registerDispatchLaneGauge(String bindingName, int lane, AtomicInteger laneSize) {
+        if (registry == null) {
+            return;
+        }
+
+        Gauge.builder(METER_NAME_DISPATCH_LANE_SIZE, laneSize, AtomicInteger::get)
+                .description(METER_DESCRIPTION_DISPATCH_LANE_SIZE)
+                .tag(TAG_NAME, bindingName)
+                .tag(TAG_LANE, String.valueOf(lane))
+                .baseUnit(BaseUnits.MESSAGES)
+                .register(registry);
+    }
+
+    public void registerReceiverThreadMeters(String bindingName, AtomicInteger receiverThreads, LongAdder scaleUps,
+                                             LongAdder scaleDowns) {
+        if (registry == null) {
+            return;
+        }
+
+        Gauge.builder(METER_NAME_RECEIVER_THREADS, receiverThreads, AtomicInteger::get)
+                .description(METER_DESCRIPTION_RECEIVER_THREADS)
+                .tag(TAG_NAME, bindingName)
+                .baseUnit(BaseUnits.THREADS)
+                .register(registry);
+        registerReceiverScalingCounter(bindingName, "up", scaleUps);
+        registerReceiverScalingCounter(bindingName, "down", scaleDowns);
+    }
+
+    public void registerSettlementPendingGauge(String bindingName, AtomicInteger pendingSettlements) {
+        if (registry == null) {
+            return;
+        }
+
+        Gauge.builder(METER_NAME_SETTLEMENT_PENDING, pendingSettlements, AtomicInteger::get)
+                .description(METER_DESCRIPTION_SETTLEMENT_PENDING)
+                .tag(TAG_NAME, bindingName)
+                .baseUnit(BaseUnits.MESSAGES)
+                .register(registry);
+    }
+
+    public void recordSettlementLag(String bindingName, long lagNanos) {
+        if (registry == null) {
+            return;
+        }
+
+        timerCache.computeIfAbsent(
+                        METER_NAME_SETTLEMENT_LAG + bindingName,
+                        ignored -> Timer.builder(METER_NAME_SETTLEMENT_LAG)
+                                .description(METER_DESCRIPTION_SETTLEMENT_LAG)
+                                .tag(TAG_NAME, bindingName)
+                                .publishPercentiles(0.5, 0.95, 0.99)
+                                .register(registry)
+                )
+                .record(lagNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDispatchLaneWaitTime(String bindingName, int lane, long waitTimeNanos) {
+        if (registry == null) {
+            return;
+        }
+
+        timerCache.computeIfAbsent(
+                        METER_NAME_DISPATCH_LANE_WAIT + bindingName + lane,
+                        ignored -> Timer.builder(METER_NAME_DISPATCH_LANE_WAIT)
+                                .description(METER_DESCRIPTION_DISPATCH_LANE_WAIT)
+                                .tag(TAG_NAME, bindingName)
+                                .tag(TAG_LANE, String.valueOf(lane))
+                                .publishPercentiles(0.5, 0.95, 0.99)
+                                .register(registry)
+                )
+                .record(waitTimeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLargeMessageAssemblyTime(String bindingName, long assemblyTimeNanos) {
+        if (registry == null) {
+            return;
+        }
+
+        timerCache.computeIfAbsent(
+                        METER_NAME_ASSEMBLY_TIME + bindingName,
+                        ignored -> Timer.builder(METER_NAME_ASSEMBLY_TIME)
+                                .description(METER_DESCRIPTION_ASSEMBLY_TIME)
+                                .tag(TAG_NAME, bindingName)
+                                .publishPercentiles(0.5, 0.95, 0.99)
+                                .register(registry)
+                )
+                .record(assemblyTimeNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void registerDynamicDestinationCacheCounter(String bindingName, String result, LongAdder count) {
+        FunctionCounter.builder(METER_NAME_DYNAMIC_DESTINATION_CACHE, count, LongAdder::sum)
+                .description(METER_DESCRIPTION_DYNAMIC_DESTINATION_CACHE)
+                .tag(TAG_NAME, bindingName)
+                .tag(TAG_RESULT, result)
+                .register(registry);
+    }
+
+    private void registerReceiverScalingCounter(String bindingName, String direction, LongAdder count) {
+        FunctionCounter.builder(METER_NAME_RECEIVER_SCALING, count, LongAdder::sum)
+                .description(METER_DESCRIPTION_RECEIVER_SCALING)
+                .tag(TAG_NAME, bindingName)
+                .tag(TAG_DIRECTION, direction)
+                .register(registry);
+    }
+
     private DistributionSummary registerSizeMeter(String meterName,
                                                   String description,
                                                   String bindingName) {
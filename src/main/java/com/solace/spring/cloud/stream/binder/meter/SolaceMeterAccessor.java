@@ -2,6 +2,10 @@ package com.solace.spring.cloud.stream.binder.meter;
 
 import com.solacesystems.jcsmp.XMLMessage;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * <p>Proxy class for the Solace binder to access meter components.
  * Always use this instead of directly using meter components in Solace binder code.</p>
@@ -24,4 +28,59 @@ public class SolaceMeterAccessor {
     public void recordActiveMessages(String bindingName, int activeMessages) {
         solaceMessageMeterBinder.recordActiveMessages(bindingName, activeMessages);
     }
+
+    public void recordPublishBatchSize(String bindingName, int batchSize) {
+        solaceMessageMeterBinder.recordPublishBatchSize(bindingName, batchSize);
+    }
+
+    public void registerPublishInFlightGauge(String bindingName, AtomicInteger inFlightMessages) {
+        solaceMessageMeterBinder.registerPublishInFlightGauge(bindingName, inFlightMessages);
+    }
+
+    public void recordPublishAckLatency(String bindingName, String destinationType, long latencyNanos) {
+        solaceMessageMeterBinder.recordPublishAckLatency(bindingName, destinationType, latencyNanos);
+    }
+
+    public void registerProducerFlowInFlightGauge(String bindingName, int flowIndex, AtomicInteger inFlightMessages) {
+        solaceMessageMeterBinder.registerProducerFlowInFlightGauge(bindingName, flowIndex, inFlightMessages);
+    }
+
+    public void registerDynamicDestinationCacheMeters(String bindingName, LongAdder hits, LongAdder misses,
+                                                      LongAdder evictions) {
+        solaceMessageMeterBinder.registerDynamicDestinationCacheMeters(bindingName, hits, misses, evictions);
+    }
+
+    public void registerLargeMessageAssemblyGauges(String bindingName, AtomicInteger partialAssemblies,
+                                                   AtomicLong assemblyBytes) {
+        solaceMessageMeterBinder.registerLargeMessageAssemblyGauges(bindingName, partialAssemblies, assemblyBytes);
+    }
+
+    public void registerReceiveBufferGauges(String bindingName, AtomicInteger bufferedMessages, AtomicLong bufferedBytes) {
+        solaceMessageMeterBinder.registerReceiveBufferGauges(bindingName, bufferedMessages, bufferedBytes);
+    }
+
+    public void registerDispatchLaneGauge(String bindingName, int lane, AtomicInteger laneSize) {
+        solaceMessageMeterBinder.registerDispatchLaneGauge(bindingName, lane, laneSize);
+    }
+
+    public void registerReceiverThreadMeters(String bindingName, AtomicInteger receiverThreads, LongAdder scaleUps,
+                                             LongAdder scaleDowns) {
+        solaceMessageMeterBinder.registerReceiverThreadMeters(bindingName, receiverThreads, scaleUps, scaleDowns);
+    }
+
+    public void registerSettlementPendingGauge(String bindingName, AtomicInteger pendingSettlements) {
+        solaceMessageMeterBinder.registerSettlementPendingGauge(bindingName, pendingSettlements);
+    }
+
+    public void recordSettlementLag(String bindingName, long lagNanos) {
+        solaceMessageMeterBinder.recordSettlementLag(bindingName, lagNanos);
+    }
+
+    public void recordDispatchLaneWaitTime(String bindingName, int lane, long waitTimeNanos) {
+        solaceMessageMeterBinder.recordDispatchLaneWaitTime(bindingName, lane, waitTimeNanos);
+    }
+
+    public void recordLargeMessageAssemblyTime(String bindingName, long assemblyTimeNanos) {
+        solaceMessageMeterBinder.recordLargeMessageAssemblyTime(bindingName, assemblyTimeNanos);
+    }
 }
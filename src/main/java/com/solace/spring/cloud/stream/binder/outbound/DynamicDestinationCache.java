@@ -0,0 +1,117 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import com.solace.spring.cloud.stream.binder.util.DestinationType;
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded cache of the destinations resolved from the {@code TARGET_DESTINATION} header, so that frequently used
+ * destinations are not validated and created by {@link JCSMPFactory} for every published message.
+ * <p>Cache hits take no lock, they only record their access time. Once a miss grows the cache beyond its bound, the
+ * least recently used destinations are evicted in a batch, so that the scan for them is shared by several misses.</p>
+ */
+class DynamicDestinationCache {
+    /**
+     * Every eviction frees this fraction of the cache beyond the evicted excess.
+     */
+    private static final int EVICTION_BATCH_DIVISOR = 16;
+    private final int maxSize;
+    private final Map<DestinationKey, CachedDestination> cache = new ConcurrentHashMap<>();
+    private final Lock evictionLock = new ReentrantLock();
+    @Getter
+    private final LongAdder hits = new LongAdder();
+    @Getter
+    private final LongAdder misses = new LongAdder();
+    @Getter
+    private final LongAdder evictions = new LongAdder();
+
+    DynamicDestinationCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Return the cached destination or create and cache a new one.
+     *
+     * @param name the destination name
+     * @param type the destination type
+     * @return the destination
+     */
+    Destination get(String name, DestinationType type) {
+        DestinationKey key = new DestinationKey(name, type);
+        CachedDestination cached = cache.get(key);
+        if (cached != null) {
+            cached.touch();
+            hits.increment();
+            return cached.destination;
+        }
+
+        misses.increment();
+        // created outside any lock, concurrent misses of the same destination keep the first instance
+        CachedDestination created = new CachedDestination(create(name, type));
+        CachedDestination existing = cache.putIfAbsent(key, created);
+        if (existing != null) {
+            existing.touch();
+            return existing.destination;
+        }
+        if (cache.size() > maxSize) {
+            evict();
+        }
+        return created.destination;
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    static Destination create(String name, DestinationType type) {
+        return type == DestinationType.TOPIC ?
+                JCSMPFactory.onlyInstance().createTopic(name) :
+                JCSMPFactory.onlyInstance().createQueue(name);
+    }
+
+    private void evict() {
+        evictionLock.lock();
+        try {
+            int excess = cache.size() - maxSize;
+            if (excess <= 0) {
+                return; // evicted by a concurrent miss
+            }
+            cache.entrySet()
+                    .stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccessNanos))
+                    .limit(excess + maxSize / EVICTION_BATCH_DIVISOR)
+                    .toList()
+                    .forEach(entry -> {
+                        if (cache.remove(entry.getKey(), entry.getValue())) {
+                            evictions.increment();
+                        }
+                    });
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private record DestinationKey(String name, DestinationType type) {
+    }
+
+    private static final class CachedDestination {
+        private final Destination destination;
+        private volatile long lastAccessNanos = System.nanoTime();
+
+        private CachedDestination(Destination destination) {
+            this.destination = destination;
+        }
+
+        private void touch() {
+            lastAccessNanos = System.nanoTime();
+        }
+    }
+}
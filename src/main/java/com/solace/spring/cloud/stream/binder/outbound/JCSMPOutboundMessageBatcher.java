@@ -0,0 +1,157 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
+import com.solace.spring.cloud.stream.binder.util.ClosedChannelBindingException;
+import com.solacesystems.jcsmp.*;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups messages of one producer binding and publishes them with
+ * {@link XMLMessageProducer#sendMultiple(JCSMPSendMultipleEntry[], int, int, int)}.
+ * <p>A batch is published as soon as it contains {@code batchSize} messages or when the oldest message in the batch
+ * waited {@code lingerTimeMs}, whatever comes first.</p>
+ * <p>Publish failures are reported through the {@code errorHandler} per correlation key, the same way as
+ * asynchronous broker errors are.</p>
+ */
+@Slf4j
+class JCSMPOutboundMessageBatcher {
+    /**
+     * The maximum number of messages JCSMP accepts in a single {@code sendMultiple} call.
+     */
+    static final int MAX_BATCH_SIZE = 50;
+    private final XMLMessageProducer producer;
+    private final int batchSize;
+    private final long lingerTimeMs;
+    private final String bindingName;
+    private final Optional<SolaceMeterAccessor> solaceMeterAccessor;
+    private final JCSMPStreamingPublishCorrelatingEventHandler errorHandler;
+    private final ScheduledExecutorService lingerExecutor;
+    private final List<JCSMPSendMultipleEntry> pending = new ArrayList<>();
+    private ScheduledFuture<?> lingerFlush;
+    private boolean closed;
+
+    JCSMPOutboundMessageBatcher(XMLMessageProducer producer,
+                                int batchSize,
+                                long lingerTimeMs,
+                                String bindingName,
+                                Optional<SolaceMeterAccessor> solaceMeterAccessor,
+                                JCSMPStreamingPublishCorrelatingEventHandler errorHandler) {
+        this.producer = producer;
+        if (batchSize > MAX_BATCH_SIZE) {
+            log.warn("publishBatchSize={} exceeds the maximum of {} messages per publish call, using {} binding={}",
+                    batchSize, MAX_BATCH_SIZE, MAX_BATCH_SIZE, bindingName);
+        }
+        this.batchSize = Math.min(batchSize, MAX_BATCH_SIZE);
+        this.lingerTimeMs = lingerTimeMs;
+        this.bindingName = bindingName;
+        this.solaceMeterAccessor = solaceMeterAccessor;
+        this.errorHandler = errorHandler;
+        this.lingerExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "solace-batch-publisher-" + bindingName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Add a message to the current batch. Publishes the batch in the calling thread if it is full.
+     *
+     * @throws ClosedChannelBindingException if the batcher was closed
+     */
+    void add(XMLMessage smfMessage, Destination destination) {
+        synchronized (pending) {
+            if (closed) {
+                throw new ClosedChannelBindingException(String.format("Batch publisher of binding %s is closed", bindingName));
+            }
+            pending.add(JCSMPFactory.onlyInstance().createSendMultipleEntry(smfMessage, destination));
+            if (pending.size() >= batchSize) {
+                flush();
+            } else if (lingerFlush == null) {
+                lingerFlush = lingerExecutor.schedule(this::flushLingering, lingerTimeMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Publish all pending messages right away, so that they leave before a message which is sent without a batch.
+     */
+    void publishPending() {
+        synchronized (pending) {
+            flush();
+        }
+    }
+
+    /**
+     * Publish all pending messages and stop the linger timer.
+     */
+    void close() {
+        synchronized (pending) {
+            closed = true;
+            flush();
+        }
+        lingerExecutor.shutdownNow();
+    }
+
+    private void flushLingering() {
+        try {
+            synchronized (pending) {
+                flush();
+            }
+        } catch (Exception e) {
+            log.error("Failed to publish lingering batch binding={}", bindingName, e);
+        }
+    }
+
+    /**
+     * Must be called while holding the lock on {@link #pending}, so that batches leave in the order they were built.
+     */
+    private void flush() {
+        if (lingerFlush != null) {
+            lingerFlush.cancel(false);
+            lingerFlush = null;
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        JCSMPSendMultipleEntry[] entries = pending.toArray(new JCSMPSendMultipleEntry[0]);
+        pending.clear();
+
+        int sent = 0;
+        try {
+            while (sent < entries.length) {
+                log.debug("Publishing batch of {} messages binding={}", entries.length - sent, bindingName);
+                int sentNow = producer.sendMultiple(entries, sent, Math.min(entries.length - sent, MAX_BATCH_SIZE), 0);
+                if (sentNow <= 0) {
+                    throw new JCSMPException(String.format("Producer accepted no message of a batch of %s", entries.length - sent));
+                }
+                sent += sentNow;
+            }
+        } catch (JCSMPException e) {
+            failRemaining(entries, sent, e);
+        } finally {
+            if (solaceMeterAccessor.isPresent()) {
+                solaceMeterAccessor.get().recordPublishBatchSize(bindingName, entries.length);
+                for (JCSMPSendMultipleEntry entry : entries) {
+                    solaceMeterAccessor.get().recordMessage(bindingName, entry.getMessage());
+                }
+            }
+        }
+    }
+
+    private void failRemaining(JCSMPSendMultipleEntry[] entries, int offset, JCSMPException cause) {
+        log.warn("Unable to send batch of messages to destination binding={}", bindingName, cause);
+        long timestamp = System.currentTimeMillis();
+        for (int i = offset; i < entries.length; i++) {
+            // every raw message releases its in-flight slot, the error handler reports a key's first failure only
+            errorHandler.handleErrorEx(entries[i].getMessage().getCorrelationKey(), cause, timestamp);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.solace.spring.cloud.stream.binder.outbound;
 
+import com.solace.spring.cloud.stream.binder.codec.SolacePayloadCodecRegistry;
 import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
 import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
 import com.solace.spring.cloud.stream.binder.properties.SolaceProducerProperties;
@@ -22,9 +23,16 @@ import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
 import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.support.GenericMessage;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
@@ -39,11 +47,20 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
     private final LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
     private final Optional<SolaceMeterAccessor> solaceMeterAccessor;
     private final Optional<TracingProxy> tracing;
-    private XMLMessageProducer producer;
+    private volatile List<JCSMPOutboundProducerFlow> producerFlows = List.of();
+    private final AtomicInteger nextProducerFlow = new AtomicInteger(0);
+    private DynamicDestinationCache dynamicDestinationCache;
+    private final AtomicInteger inFlightMessages = new AtomicInteger(0);
+    // per producer flow, kept across restarts so that the registered gauges stay valid
+    private final List<AtomicInteger> producerFlowInFlightMessages = new ArrayList<>();
     private final XMLMessageMapper xmlMessageMapper = new XMLMessageMapper();
+    private int maxMessageSize = Integer.MAX_VALUE;
+    private int publisherWindowSize = 0;
     private boolean isRunning = false;
     @Setter
     private ErrorMessageStrategy errorMessageStrategy;
+    @Setter
+    private SolacePayloadCodecRegistry payloadCodecRegistry = SolacePayloadCodecRegistry.getDefault();
 
 
     public JCSMPOutboundMessageHandler(ProducerDestination destination,
@@ -97,8 +114,11 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
 
         List<XMLMessage> smfMessages;
         Destination dynamicDestination;
+        boolean isLargeMessage = message.getHeaders().containsKey(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT);
+        // streamed payloads are read chunk by chunk, only their headers are mapped up front
+        boolean isStreamedPayload = isLargeMessage && LargeMessageSupport.isStreamable(message.getPayload());
         XMLMessage smfMessageMapped = xmlMessageMapper.map(
-                message,
+                isStreamedPayload ? new GenericMessage<>(new byte[0], message.getHeaders()) : message,
                 properties.getExtension().getHeaderExclusions(),
                 properties.getExtension().isNonserializableHeaderConvertToString(),
                 properties.getExtension().getDeliveryMode());
@@ -106,30 +126,207 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
 
         smfMessageMapped.setCorrelationKey(correlationKey);
         dynamicDestination = getDynamicDestination(message.getHeaders(), correlationKey);
-        if (message.getHeaders().containsKey(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT)) {
+        if (isLargeMessage && properties.getExtension().getLargeMessageChunkSize() > maxMessageSize) {
+            throw handleMessagingException(correlationKey, "Unable to split large message", new IllegalArgumentException(
+                    String.format("largeMessageChunkSize=%s exceeds the maximum message size %s",
+                            properties.getExtension().getLargeMessageChunkSize(), maxMessageSize)));
+        }
+        if (isStreamedPayload) {
+            try {
+                smfMessages = largeMessageSupport.split(smfMessageMapped, message.getPayload());
+            } catch (IOException e) {
+                throw handleMessagingException(correlationKey, "Unable to read the payload", e);
+            }
+        } else if (isLargeMessage) {
             smfMessages = largeMessageSupport.split(smfMessageMapped);
         } else {
             smfMessages = List.of(smfMessageMapped);
         }
 
+        try {
+            publish(message, correlationKey, smfMessages, dynamicDestination);
+        } finally {
+            if (isStreamedPayload) {
+                // every chunk was read while publishing, delete the spool file of an InputStream payload
+                LargeMessageSupport.release(smfMessages);
+            }
+        }
+    }
+
+    private void publish(Message<?> message, ErrorChannelSendingCorrelationKey correlationKey,
+                         List<XMLMessage> smfMessages, Destination dynamicDestination) {
         correlationKey.setRawMessages(smfMessages);
+        Destination targetDestination = Objects.requireNonNullElse(dynamicDestination, configDestination);
+        JCSMPOutboundProducerFlow producerFlow;
+        try {
+            producerFlow = selectProducerFlow(message);
+        } catch (ClosedFacilityException e) {
+            throw handleMessagingException(correlationKey, "Unable to send message(s) to destination", e);
+        }
+        AtomicInteger flowInFlightMessages = producerFlow.getInFlightMessages();
+
+        // direct messages are never acknowledged by the broker and therefore never in flight
+        boolean isGuaranteed = !DeliveryMode.DIRECT.equals(properties.getExtension().getDeliveryMode());
+        // the chunks of a large message are not batched, so that they are not all held by a pending batch at once
+        JCSMPOutboundMessageBatcher batcher = smfMessages.size() == 1 ? producerFlow.getBatcher() : null;
+        // the chunks of a large message are pipelined through a window which is freed by their acknowledgements
+        int chunkWindowSize = properties.getExtension().getLargeMessageChunkWindow();
+        Semaphore chunkWindow = isGuaranteed && chunkWindowSize > 0 &&
+                smfMessages.size() > chunkWindowSize ? new Semaphore(chunkWindowSize) : null;
+        if (isGuaranteed) {
+            if (!acquireInFlight(smfMessages.size(), flowInFlightMessages)) {
+                String msg = String.format("Message handler %s reached maxInFlightMessages=%s or the publisher window of %s messages",
+                        id, properties.getExtension().getMaxInFlightMessages(), publisherWindowSize);
+                log.warn(msg);
+                throw correlationKey.reject(msg, new SolacePublishBackpressureException(msg));
+            }
+            correlationKey.setInFlightRelease(() -> {
+                inFlightMessages.decrementAndGet();
+                flowInFlightMessages.decrementAndGet();
+                if (chunkWindow != null) {
+                    chunkWindow.release();
+                }
+            });
+            AggregatedCorrelationData aggregatedCorrelation = AggregatedCorrelationData.current();
+            if (aggregatedCorrelation != null) {
+                correlationKey.joinAggregatedCorrelation(aggregatedCorrelation);
+            }
+            if (solaceMeterAccessor.isPresent()) {
+                String destinationType = (targetDestination instanceof Topic ?
+                        DestinationType.TOPIC : DestinationType.QUEUE).name();
+                correlationKey.setAckLatencyRecorder(latencyNanos -> solaceMeterAccessor.get()
+                        .recordPublishAckLatency(properties.getBindingName(), destinationType, latencyNanos));
+                correlationKey.markPublished();
+            }
+        }
 
+        if (batcher != null) {
+            int added = 0;
+            try {
+                for (XMLMessage smfMessage : smfMessages) {
+                    batcher.add(smfMessage, targetDestination);
+                    added++;
+                }
+            } catch (UncheckedIOException | ClosedChannelBindingException e) {
+                if (isGuaranteed) {
+                    inFlightMessages.addAndGet(added - smfMessages.size());
+                    flowInFlightMessages.addAndGet(added - smfMessages.size());
+                }
+                // the batcher is closed when the handler stopped after the isRunning() check
+                throw handleMessagingException(correlationKey, e instanceof UncheckedIOException ?
+                        "Unable to read the payload" : "Unable to send message(s) to destination", e);
+            }
+            return;
+        }
+
+        int sent = 0;
         try {
+            if (producerFlow.getBatcher() != null) {
+                // the messages batched before are published first
+                producerFlow.getBatcher().publishPending();
+            }
             for (int i = 0; i < smfMessages.size(); i++) {
+                // large message chunks are created on demand, get each of them only once
                 XMLMessage smfMessage = smfMessages.get(i);
-                Destination targetDestination = Objects.requireNonNullElse(dynamicDestination, configDestination);
+                if (chunkWindow != null) {
+                    acquireChunkWindow(chunkWindow);
+                }
+                solaceMeterAccessor.ifPresent(meterAccessor ->
+                        meterAccessor.recordMessage(properties.getBindingName(), smfMessage));
                 log.debug("Publishing message {} of {} to destination [ {}:{} ] <message handler ID: {}>",
                         i + 1, smfMessages.size(), targetDestination instanceof Topic ? "TOPIC" : "QUEUE",
                         targetDestination, id);
-                producer.send(smfMessage, targetDestination);
+                producerFlow.getProducer().send(smfMessage, targetDestination);
+                sent++;
+            }
+        } catch (JCSMPException | UncheckedIOException | ClosedChannelBindingException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (isGuaranteed) {
+                inFlightMessages.addAndGet(sent - smfMessages.size());
+                flowInFlightMessages.addAndGet(sent - smfMessages.size());
             }
-        } catch (JCSMPException e) {
             throw handleMessagingException(correlationKey, "Unable to send message(s) to destination", e);
-        } finally {
-            if (solaceMeterAccessor.isPresent()) {
-                for (XMLMessage smfMessage : smfMessages) {
-                    solaceMeterAccessor.get().recordMessage(properties.getBindingName(), smfMessage);
-                }
+        }
+    }
+
+    /**
+     * Wait until an earlier chunk of the same large message was acknowledged.
+     */
+    private void acquireChunkWindow(Semaphore chunkWindow) throws InterruptedException {
+        while (!chunkWindow.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+            if (!isRunning()) {
+                throw new ClosedChannelBindingException(String.format("Message handler %s is not running", id));
+            }
+        }
+    }
+
+    /**
+     * @return the maximum message size of the broker and of the queues provisioned by this binding
+     */
+    private int getMaxMessageSize(boolean isDirect) {
+        int maxMessageSize = isDirect ? Integer.MAX_VALUE :
+                Objects.requireNonNullElse(properties.getExtension().getQueueMaxMsgSize(), Integer.MAX_VALUE);
+        try {
+            if (jcsmpSession.getCapability(isDirect ? CapabilityType.MAX_DIRECT_MSG_SIZE :
+                    CapabilityType.MAX_GUARANTEED_MSG_SIZE) instanceof Integer brokerMaxMessageSize) {
+                maxMessageSize = Math.min(maxMessageSize, brokerMaxMessageSize);
+            }
+        } catch (JCSMPException e) {
+            log.debug("Unable to get the maximum message size of the broker", e);
+        }
+        return maxMessageSize;
+    }
+
+    /**
+     * Messages with a {@link SolaceBinderHeaders#PARTITION_KEY} always use the same producer flow so that they stay
+     * in order, all other messages are distributed round-robin.
+     */
+    private JCSMPOutboundProducerFlow selectProducerFlow(Message<?> message) throws ClosedFacilityException {
+        List<JCSMPOutboundProducerFlow> flows = producerFlows;
+        if (flows.isEmpty()) {
+            // stopped after the isRunning() check, fail the same way as a send on a closed producer
+            throw new ClosedFacilityException(String.format("Message handler %s is not running", id));
+        }
+        if (flows.size() == 1) {
+            return flows.get(0);
+        }
+        Object partitionKey = message.getHeaders().get(SolaceBinderHeaders.PARTITION_KEY);
+        int hash = partitionKey != null ? partitionKey.hashCode() : nextProducerFlow.getAndIncrement();
+        return flows.get(Math.floorMod(hash, flows.size()));
+    }
+
+    /**
+     * Reserve {@code count} messages of the in-flight window without blocking.
+     * <p>With {@code maxInFlightMessages} set, a producer flow also takes no more messages than its publisher window,
+     * so that a full window rejects the message instead of parking the calling thread.</p>
+     */
+    private boolean acquireInFlight(int count, AtomicInteger flowInFlightMessages) {
+        int maxInFlightMessages = properties.getExtension().getMaxInFlightMessages();
+        if (!tryAcquire(inFlightMessages, count, maxInFlightMessages)) {
+            return false;
+        }
+        if (!tryAcquire(flowInFlightMessages, count, maxInFlightMessages > 0 ? publisherWindowSize : 0)) {
+            inFlightMessages.addAndGet(-count);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * A message which alone exceeds the limit is still let through if nothing else is in flight.
+     *
+     * @param limit the maximum number of in-flight messages, 0 for no limit
+     */
+    private static boolean tryAcquire(AtomicInteger inFlight, int count, int limit) {
+        while (true) {
+            int current = inFlight.get();
+            if (limit > 0 && current > 0 && current + count > limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + count)) {
+                return true;
             }
         }
     }
@@ -150,9 +347,9 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
             if (StringUtils.hasText(targetDestinationTypeHeader)) {
                 targetDestinationTypeHeader = targetDestinationTypeHeader.trim().toUpperCase();
                 if (targetDestinationTypeHeader.equals(DestinationType.TOPIC.name())) {
-                    return JCSMPFactory.onlyInstance().createTopic(dynamicDestName);
+                    return resolveDynamicDestination(dynamicDestName, DestinationType.TOPIC);
                 } else if (targetDestinationTypeHeader.equals(DestinationType.QUEUE.name())) {
-                    return JCSMPFactory.onlyInstance().createQueue(dynamicDestName);
+                    return resolveDynamicDestination(dynamicDestName, DestinationType.QUEUE);
                 } else {
                     throw new IllegalArgumentException(String.format("Incorrect value specified for header '%s'. Expected [ %s|%s ] but actual value is [ %s ]",
                             SolaceBinderHeaders.TARGET_DESTINATION_TYPE, DestinationType.TOPIC.name(), DestinationType.QUEUE.name(), targetDestinationTypeHeader));
@@ -160,14 +357,18 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
             }
 
             //No dynamic destinationType present so use configured destinationType
-            return configDestinationType == DestinationType.TOPIC ?
-                    JCSMPFactory.onlyInstance().createTopic(dynamicDestName) :
-                    JCSMPFactory.onlyInstance().createQueue(dynamicDestName);
+            return resolveDynamicDestination(dynamicDestName, configDestinationType);
         } catch (Exception e) {
             throw handleMessagingException(correlationKey, "Unable to parse headers", e);
         }
     }
 
+    private Destination resolveDynamicDestination(String name, DestinationType type) {
+        return dynamicDestinationCache != null ?
+                dynamicDestinationCache.get(name, type) :
+                DynamicDestinationCache.create(name, type);
+    }
+
     @Override
     public void start() {
         log.info("Creating producer to {} {} <message handler ID: {}>", configDestinationType, configDestination.getName(), id);
@@ -177,22 +378,65 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
         }
 
         try {
+            xmlMessageMapper.setMessageVersion(properties.getExtension().getMessageVersion());
+            xmlMessageMapper.setPayloadCodecRegistry(payloadCodecRegistry);
+            xmlMessageMapper.setPayloadCodec(payloadCodecRegistry.getRequired(properties.getExtension().getPayloadCodec()));
+            largeMessageSupport.setChunkSize(properties.getExtension().getLargeMessageChunkSize());
+            largeMessageSupport.setChecksum(properties.getExtension().isLargeMessageChecksum());
+            if (properties.getExtension().getLargeMessageSpillDirectory() != null) {
+                largeMessageSupport.setSpillDirectory(Path.of(properties.getExtension().getLargeMessageSpillDirectory()));
+            }
             XMLMessageProducer defaultProducer = producerManager.get(id);
-            // flow producers don't support direct messaging
-            if (DeliveryMode.DIRECT.equals(properties.getExtension().getDeliveryMode())) {
-                producer = defaultProducer;
-            } else {
-                producer = jcsmpSession.createProducer(SolaceProvisioningUtil.getProducerFlowProperties(jcsmpSession),
-                        producerEventHandler);
-            }
-            if (producer instanceof JCSMPXMLMessageProducer jcsmpxmlMessageProducer) {
-                PubADManager pubADManager = jcsmpxmlMessageProducer.getPubADManager();
-                if (pubADManager != null) {
-                    // 0x1FFFFF = 2097151 = 000111111111111111111111 remove everything above 21 bit since solace somehow add a bit there
-                    // Masking higher bits to display flowId similar to the Solace broker UI and log format
-                    long flowId = pubADManager.getFlowId() & 0x1FFFFF;
-                    log.info("created producer for binding={} flowId={} destination={} deliveryMode={}", properties.getBindingName(), flowId, configDestination.getName(), properties.getExtension().getDeliveryMode());
+            boolean isDirect = DeliveryMode.DIRECT.equals(properties.getExtension().getDeliveryMode());
+            maxMessageSize = getMaxMessageSize(isDirect);
+            publisherWindowSize = Objects.requireNonNullElse(
+                    (Integer) jcsmpSession.getProperty(JCSMPProperties.PUB_ACK_WINDOW_SIZE), 0);
+            if (properties.getExtension().getLargeMessageChunkSize() > maxMessageSize) {
+                log.warn("largeMessageChunkSize={} exceeds the maximum message size {}, large messages will be rejected <message handler ID: {}>",
+                        properties.getExtension().getLargeMessageChunkSize(), maxMessageSize, id);
+            }
+            // flow producers don't support direct messaging, direct messages always use the session's default producer
+            int producerFlowCount = isDirect ? 1 : Math.max(1, properties.getExtension().getProducerFlowCount());
+            List<JCSMPOutboundProducerFlow> flows = new ArrayList<>(producerFlowCount);
+            producerFlows = flows; // already created flows are closed if a later one fails
+            for (int i = 0; i < producerFlowCount; i++) {
+                XMLMessageProducer producer = isDirect ? defaultProducer : jcsmpSession.createProducer(
+                        SolaceProvisioningUtil.getProducerFlowProperties(jcsmpSession), producerEventHandler);
+                if (producer instanceof JCSMPXMLMessageProducer jcsmpxmlMessageProducer) {
+                    PubADManager pubADManager = jcsmpxmlMessageProducer.getPubADManager();
+                    if (pubADManager != null) {
+                        // 0x1FFFFF = 2097151 = 000111111111111111111111 remove everything above 21 bit since solace somehow add a bit there
+                        // Masking higher bits to display flowId similar to the Solace broker UI and log format
+                        long flowId = pubADManager.getFlowId() & 0x1FFFFF;
+                        log.info("created producer for binding={} flowId={} destination={} deliveryMode={}", properties.getBindingName(), flowId, configDestination.getName(), properties.getExtension().getDeliveryMode());
+                    }
+                }
+                JCSMPOutboundMessageBatcher batcher = null;
+                if (properties.getExtension().getPublishBatchSize() > 1) {
+                    batcher = new JCSMPOutboundMessageBatcher(producer,
+                            properties.getExtension().getPublishBatchSize(),
+                            properties.getExtension().getPublishBatchLingerTimeMs(),
+                            properties.getBindingName(),
+                            solaceMeterAccessor,
+                            producerEventHandler);
                 }
+                flows.add(new JCSMPOutboundProducerFlow(producer, batcher, getProducerFlowInFlightMessages(i)));
+            }
+            producerFlows = List.copyOf(flows);
+
+            if (!isDirect) {
+                solaceMeterAccessor.ifPresent(meterAccessor -> meterAccessor
+                        .registerPublishInFlightGauge(properties.getBindingName(), inFlightMessages));
+            }
+            // kept across restarts, the cached destinations stay valid and the cache meters keep their counters
+            if (dynamicDestinationCache == null && properties.getExtension().getDynamicDestinationCacheSize() > 0) {
+                dynamicDestinationCache = new DynamicDestinationCache(
+                        properties.getExtension().getDynamicDestinationCacheSize());
+                solaceMeterAccessor.ifPresent(meterAccessor -> meterAccessor.registerDynamicDestinationCacheMeters(
+                        properties.getBindingName(),
+                        dynamicDestinationCache.getHits(),
+                        dynamicDestinationCache.getMisses(),
+                        dynamicDestinationCache.getEvictions()));
             }
         } catch (Exception e) {
             String msg = String.format("Unable to get a message producer for session %s", jcsmpSession.getSessionName());
@@ -213,13 +457,32 @@ public class JCSMPOutboundMessageHandler implements MessageHandler, Lifecycle {
 
     private void closeResources() {
         log.info("Stopping producer to {} {} <message handler ID: {}>", configDestinationType, configDestination.getName(), id);
-        if (producer != null && !DeliveryMode.DIRECT.equals(properties.getExtension().getDeliveryMode())) {
-            log.info("Closing producer <message handler ID: {}>", id);
-            producer.close();
+        for (JCSMPOutboundProducerFlow producerFlow : producerFlows) {
+            if (producerFlow.getBatcher() != null) {
+                producerFlow.getBatcher().close();
+            }
+            if (!DeliveryMode.DIRECT.equals(properties.getExtension().getDeliveryMode())) {
+                log.info("Closing producer <message handler ID: {}>", id);
+                producerFlow.getProducer().close();
+            }
         }
+        producerFlows = List.of();
         producerManager.release(id);
     }
 
+    private AtomicInteger getProducerFlowInFlightMessages(int flowIndex) {
+        while (producerFlowInFlightMessages.size() <= flowIndex) {
+            AtomicInteger flowInFlightMessages = new AtomicInteger(0);
+            int index = producerFlowInFlightMessages.size();
+            producerFlowInFlightMessages.add(flowInFlightMessages);
+            if (properties.getExtension().getProducerFlowCount() > 1) {
+                solaceMeterAccessor.ifPresent(meterAccessor -> meterAccessor.registerProducerFlowInFlightGauge(
+                        properties.getBindingName(), index, flowInFlightMessages));
+            }
+        }
+        return producerFlowInFlightMessages.get(flowIndex);
+    }
+
     @Override
     public boolean isRunning() {
         return isRunning;
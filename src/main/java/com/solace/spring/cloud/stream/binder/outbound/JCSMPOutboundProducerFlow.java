@@ -0,0 +1,21 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import com.solacesystems.jcsmp.XMLMessageProducer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One producer flow of a producer binding, together with its optional batcher and in-flight counter.
+ */
+@Getter
+@RequiredArgsConstructor
+class JCSMPOutboundProducerFlow {
+    private final XMLMessageProducer producer;
+    /**
+     * {@code null} if batched publishing is disabled.
+     */
+    private final JCSMPOutboundMessageBatcher batcher;
+    private final AtomicInteger inFlightMessages;
+}
@@ -1,7 +1,10 @@
 package com.solace.spring.cloud.stream.binder.properties;
 
+import com.solace.spring.cloud.stream.binder.util.LargeMessageSupport;
 import com.solace.spring.cloud.stream.binder.util.QualityOfService;
+import com.solace.spring.cloud.stream.binder.util.WaitStrategy;
 import com.solacesystems.jcsmp.EndpointProperties;
+import com.solacesystems.jcsmp.XMLMessage;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -105,6 +108,131 @@ public class SolaceConsumerProperties extends SolaceCommonProperties {
      * Time in milliseconds till a long running consumer is logged as warning, defaults to 1000 ms.
      */
     private long maxProcessingTimeMs = 1000;
+    /**
+     * Capacity of the queue between the consumer flow and the consumer threads, rounded up to a power of two.
+     * Messages received while the queue is full overflow into an unbounded queue and the flow is stopped until it is drained.
+     */
+    private int receiveQueueCapacity = 1024;
+    /**
+     * How the consumer threads wait for messages.
+     */
+    private WaitStrategy receiveQueueWaitStrategy = WaitStrategy.PARK;
+    /**
+     * Number of received messages waiting for a consumer thread at which the consumer flow is stopped. 0 disables the limit.
+     */
+    private int receiveBufferHighWatermarkMessages = 0;
+    /**
+     * Number of received messages waiting for a consumer thread at which a flow stopped by
+     * {@link #receiveBufferHighWatermarkMessages} is started again.
+     */
+    private int receiveBufferLowWatermarkMessages = 0;
+    /**
+     * Bytes of the received messages waiting for a consumer thread at which the consumer flow is stopped. 0 disables the limit.
+     */
+    private long receiveBufferHighWatermarkBytes = 64 * 1024 * 1024;
+    /**
+     * Bytes of the received messages waiting for a consumer thread at which a flow stopped by
+     * {@link #receiveBufferHighWatermarkBytes} is started again.
+     */
+    private long receiveBufferLowWatermarkBytes = 32 * 1024 * 1024;
+    /**
+     * Whether messages are dispatched to the consumer threads by the key in {@link #keyOrderedDispatchProperty},
+     * so that messages with the same key are processed in order while different keys are processed in parallel.
+     */
+    private boolean keyOrderedDispatch = false;
+    /**
+     * The user property holding the key for {@link #keyOrderedDispatch}, defaults to the queue partition key.
+     */
+    private String keyOrderedDispatchProperty = XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY;
+    /**
+     * Whether the message handlers run on virtual threads instead of platform threads. The number of threads is still
+     * given by the concurrency. Requires a Java runtime with virtual threads, otherwise platform threads are used.
+     */
+    private boolean virtualThreads = false;
+    /**
+     * Whether consumer threads are added and retired between {@link #minConcurrency} and {@link #maxConcurrency} by
+     * the backlog and the processing time of the messages, starting with the concurrency of the binding.
+     * Not supported with {@link #keyOrderedDispatch}.
+     */
+    private boolean concurrencyAutoscaling = false;
+    /**
+     * Whether the consumer threads enqueue the settlement of a message for a dedicated settler thread instead of
+     * settling it themselves. A failed settlement is then only logged and not thrown to the consumer thread.
+     */
+    private boolean asyncSettlement = false;
+    /**
+     * Whether a failed message is retried on a timer after its back off instead of by the consumer thread sleeping
+     * through the back off, so that the consumer thread moves on to the next message. Only applies with a
+     * {@code maxAttempts} greater than 1. Not supported with {@link #keyOrderedDispatch}.
+     */
+    private boolean nonBlockingRetry = false;
+    /**
+     * The maximum number of messages waiting for a retry with {@link #nonBlockingRetry}. Once reached, a failed
+     * message is requeued for a redelivery instead of waiting for a free slot.
+     */
+    private int maxPendingRetries = 1000;
+    /**
+     * Number of flows the binding opens to its queue, each with its own transport window. The messages of all flows
+     * are processed by the same consumer threads. Values greater than 1 require a non-exclusive queue and a consumer
+     * group.
+     */
+    private int flowCount = 1;
+    /**
+     * The transport window size of the consumer flows, the number of messages the broker sends without an
+     * acknowledgement of the flow. Between 1 and 255, defaults to the session's {@code SUB_ACK_WINDOW_SIZE}.
+     * The maximum window size with {@link #flowWindowAutoTuning}.
+     */
+    private Integer flowWindowSize = null;
+    /**
+     * The percentage of the transport window of received messages at which the consumer flows acknowledge them to
+     * the broker. Between 1 and 75, defaults to the session's {@code SUB_ACK_WINDOW_THRESHOLD}.
+     */
+    private Integer flowAckThreshold = null;
+    /**
+     * Time in milliseconds after which the consumer flows acknowledge received messages to the broker, even if the
+     * {@link #flowAckThreshold} was not reached. Between 20 and 1500, defaults to the session's {@code SUB_ACK_TIME}.
+     */
+    private Integer flowAckTimerMs = null;
+    /**
+     * Whether the transport window size is derived from the processing rate of the consumer threads measured so far,
+     * the ack timer and the {@link #receiveBufferHighWatermarkMessages}, whenever the consumer flows are created.
+     */
+    private boolean flowWindowAutoTuning = false;
+    /**
+     * The minimum number of consumer threads with {@link #concurrencyAutoscaling}.
+     */
+    private int minConcurrency = 1;
+    /**
+     * The maximum number of consumer threads with {@link #concurrencyAutoscaling}.
+     */
+    private int maxConcurrency = 16;
+    /**
+     * Interval in milliseconds between the scaling decisions of {@link #concurrencyAutoscaling}, at least 100 ms.
+     */
+    private long concurrencyScaleIntervalMs = 5000;
+    /**
+     * Whether chunks of large messages are reassembled in a temporary file instead of on the heap.
+     * The assembled payload is delivered as read-only memory-mapped {@link java.nio.ByteBuffer}.
+     */
+    private boolean largeMessageSpillToDisk = false;
+    /**
+     * The directory for the temporary files of {@link #largeMessageSpillToDisk}, defaults to the system temp directory.
+     */
+    private String largeMessageSpillDirectory = null;
+    /**
+     * Maximum heap bytes held by all in-progress large message assemblies of the application, chunks spilled to disk
+     * are counted as well since the received chunks are held until they are acknowledged. Chunks starting a new
+     * assembly are requeued while the limit is exceeded. 0 means unlimited.
+     */
+    private long largeMessageMaxAssemblyBytes = 0;
+    /**
+     * How often a chunk is requeued because {@link #largeMessageMaxAssemblyBytes} is exceeded before it is rejected.
+     */
+    private int largeMessageMaxAssemblyRefusals = LargeMessageSupport.MAX_ASSEMBLY_REFUSALS;
+    /**
+     * Time in milliseconds after which an incomplete large message is rejected if no further chunk was received.
+     */
+    private long largeMessageReceiveTimeoutMs = 60000;
     // ------------------------
 
     /**
@@ -1,5 +1,6 @@
 package com.solace.spring.cloud.stream.binder.properties;
 
+import com.solace.spring.cloud.stream.binder.codec.JavaSerializationPayloadCodec;
 import com.solace.spring.cloud.stream.binder.util.DestinationType;
 import com.solacesystems.jcsmp.DeliveryMode;
 import lombok.Getter;
@@ -58,4 +59,77 @@ public class SolaceProducerProperties extends SolaceCommonProperties {
      * Indicated if messages should be sending fire and forget or producer has to wait for broker persistence ack.
      */
     private DeliveryMode deliveryMode = DeliveryMode.PERSISTENT;
+
+    /**
+     * Maximum number of messages which are grouped and published with a single call into the producer.
+     * A value of 1 disables batching and every message is published on its own.
+     * Values above 50, the maximum number of messages JCSMP accepts in a single call, are reduced to 50.
+     * The chunks of a large message are not batched.
+     */
+    private int publishBatchSize = 1;
+
+    /**
+     * Time in milliseconds a partially filled batch waits for further messages before it is published.
+     * Only applies when publishBatchSize is greater than 1.
+     */
+    private long publishBatchLingerTimeMs = 10;
+
+    /**
+     * Maximum number of published messages waiting for a broker acknowledgement.
+     * When reached, further messages are rejected with a SolacePublishBackpressureException instead of blocking the
+     * publishing thread. A producer flow then also takes no more messages than the session's pub-ack-window-size.
+     * A value of 0 disables the limit.
+     */
+    private int maxInFlightMessages = 0;
+
+    /**
+     * Maximum number of destinations resolved from the TARGET_DESTINATION header which are cached.
+     * When the cache is full, the least recently used destinations are evicted, a sixteenth of the cache at a time.
+     * A value of 0 disables the cache.
+     */
+    private int dynamicDestinationCacheSize = 1000;
+
+    /**
+     * Number of producer flows per binding. Messages with a partition key always use the same flow, all other
+     * messages are distributed round-robin. Ignored for deliveryMode DIRECT.
+     */
+    private int producerFlowCount = 1;
+
+    /**
+     * Version of the binder message format to publish. Version 2 stores serialized headers as raw byte arrays instead
+     * of Base64 encoded strings and can only be decoded by binder versions which support it. Header values of common
+     * types use a compact binary encoding, only other serializable values are Java serialized.
+     */
+    private int messageVersion = 1;
+
+    /**
+     * Id of the payload codec which encodes payloads that are not natively supported by PubSub+ messages:
+     * java, binary, jackson or the id of a custom SolacePayloadCodec bean. Serializable payloads which the codec cannot
+     * encode fall back to Java serialization. Consumers only decode types of the codec's trusted packages.
+     */
+    private String payloadCodec = JavaSerializationPayloadCodec.ID;
+
+    /**
+     * Maximum payload size in bytes of a chunk of a large message. Must leave room for the message headers within
+     * the broker's and the queues' maximum message size.
+     */
+    private int largeMessageChunkSize = 8 * 1024 * 1024;
+
+    /**
+     * Maximum number of chunks of one large message waiting for a broker acknowledgement. Publishing the next chunk
+     * waits until an earlier chunk was acknowledged. A value of 0 disables the limit.
+     * Only applies when deliveryMode is not DIRECT.
+     */
+    private int largeMessageChunkWindow = 0;
+
+    /**
+     * Whether the chunks of large messages carry CRC32C checksums, which consumers verify as the chunks arrive.
+     */
+    private boolean largeMessageChecksum = false;
+
+    /**
+     * The directory for the temporary files which InputStream payloads of large messages are spooled into, defaults to
+     * the system temp directory. A spool file is deleted once its chunks are published or publishing fails.
+     */
+    private String largeMessageSpillDirectory = null;
 }
@@ -112,6 +112,20 @@ public class SolaceEndpointProvisioner
             }
         }
 
+        if (properties.getExtension().getFlowCount() > 1) {
+            if (endpointProperties.getAccessType().equals(EndpointProperties.ACCESSTYPE_EXCLUSIVE)) {
+                String msg = "flowCount > 1 is not supported when using exclusive queues, " +
+                        "either configure a flowCount of 1 or use a non-exclusive queue";
+                log.warn(msg);
+                throw new ProvisioningException(msg);
+            } else if (!StringUtils.hasText(group)) {
+                String msg = "flowCount > 1 is not supported when using anonymous consumer groups, " +
+                        "either configure a flowCount of 1 or define a consumer group";
+                log.warn(msg);
+                throw new ProvisioningException(msg);
+            }
+        }
+
         log.info(isAnonEndpoint ?
                 String.format("Creating anonymous (temporary) queue %s", groupQueueName) :
                 String.format("Creating queue %s %s for consumer group %s",
@@ -64,6 +64,21 @@ public class SolaceProvisioningUtil {
         ConsumerFlowProperties consumerFlowProperties = new ConsumerFlowProperties();
         final String selector = properties.getExtension().getSelector();
         consumerFlowProperties.setSelector((selector == null || selector.isBlank()) ? null : selector);
+        // unset values keep the session defaults
+        try {
+            if (properties.getExtension().getFlowWindowSize() != null) {
+                consumerFlowProperties.setTransportWindowSize(properties.getExtension().getFlowWindowSize());
+            }
+            if (properties.getExtension().getFlowAckThreshold() != null) {
+                consumerFlowProperties.setAckThreshold(properties.getExtension().getFlowAckThreshold());
+            }
+            if (properties.getExtension().getFlowAckTimerMs() != null) {
+                consumerFlowProperties.setAckTimerInMsecs(properties.getExtension().getFlowAckTimerMs());
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("Invalid flow window property of destination %s: %s",
+                    destinationName, e.getMessage()), e);
+        }
         return consumerFlowProperties;
     }
 
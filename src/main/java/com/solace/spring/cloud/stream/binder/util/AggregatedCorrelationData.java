@@ -0,0 +1,103 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import org.springframework.messaging.MessagingException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publisher confirmation for a group of messages.
+ * <p>Every guaranteed message (non-{@code DIRECT} delivery mode) published by the current thread between
+ * {@link #open()} and {@link #close()} joins the group, no
+ * {@link com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders#CONFIRM_CORRELATION} header is needed.
+ * After {@link #close()}, the future completes when the broker acknowledged the last message of the group, or
+ * fails with the first publish failure.</p>
+ * <pre>{@code
+ * AggregatedCorrelationData confirmation;
+ * try (AggregatedCorrelationData group = AggregatedCorrelationData.open()) {
+ *     confirmation = group;
+ *     messages.forEach(m -> streamBridge.send("output-destination", m));
+ * }
+ * confirmation.getFuture().get(timeout, unit);
+ * }</pre>
+ * <p>Only messages published synchronously on the opening thread join the group.</p>
+ */
+public class AggregatedCorrelationData implements AutoCloseable {
+    private static final ThreadLocal<AggregatedCorrelationData> CURRENT = new ThreadLocal<>();
+
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    // starts at 1 for the open group itself, so that the future cannot complete before close()
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final AtomicInteger published = new AtomicInteger();
+    private boolean closed;
+
+    private AggregatedCorrelationData() {
+    }
+
+    /**
+     * Open a new group for the current thread.
+     *
+     * @return the group, which must be closed by the same thread
+     * @throws IllegalStateException if the current thread already has an open group
+     */
+    public static AggregatedCorrelationData open() {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("The current thread already has an open AggregatedCorrelationData");
+        }
+        AggregatedCorrelationData group = new AggregatedCorrelationData();
+        CURRENT.set(group);
+        return group;
+    }
+
+    /**
+     * @return the open group of the current thread, or {@code null} if there is none
+     */
+    public static AggregatedCorrelationData current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Return a future to check the success/failure of all publish operations of this group.
+     *
+     * @return the future.
+     */
+    public CompletableFuture<Void> getFuture() {
+        return future;
+    }
+
+    /**
+     * @return the number of messages which joined this group
+     */
+    public int getPublishedCount() {
+        return published.get();
+    }
+
+    /**
+     * Stop collecting messages. The future completes as soon as all collected messages are acknowledged.
+     */
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+        if (!closed) {
+            closed = true;
+            success();
+        }
+    }
+
+    void register() {
+        pending.incrementAndGet();
+        published.incrementAndGet();
+    }
+
+    void success() {
+        if (pending.decrementAndGet() == 0) {
+            future.complete(null);
+        }
+    }
+
+    void failed(MessagingException cause) {
+        future.completeExceptionally(cause);
+    }
+}
@@ -0,0 +1,67 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates the threads which run the message handlers of consumer bindings.
+ * <p>The binder is built for Java 17, virtual threads are therefore looked up at runtime and only used on a Java
+ * runtime which supports them.</p>
+ */
+@Slf4j
+public final class ConsumerThreadFactory {
+    private static final MethodHandle VIRTUAL_THREAD_FACTORY = lookupVirtualThreadFactory();
+
+    private ConsumerThreadFactory() {
+    }
+
+    /**
+     * @param virtual whether to create virtual threads
+     * @return a factory for virtual threads if requested and supported by the Java runtime, otherwise for platform
+     * threads
+     */
+    public static ThreadFactory create(boolean virtual) {
+        if (!virtual) {
+            return Executors.defaultThreadFactory();
+        }
+        if (VIRTUAL_THREAD_FACTORY == null) {
+            log.warn("Virtual threads are not supported by Java {}, using platform threads instead", Runtime.version().feature());
+            return Executors.defaultThreadFactory();
+        }
+        try {
+            return (ThreadFactory) VIRTUAL_THREAD_FACTORY.invoke();
+        } catch (Throwable e) {
+            log.warn("Failed to create a virtual thread factory, using platform threads instead", e);
+            return Executors.defaultThreadFactory();
+        }
+    }
+
+    /**
+     * @return {@code true} if the Java runtime supports virtual threads
+     */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_THREAD_FACTORY != null;
+    }
+
+    /**
+     * @return a handle of {@code Thread.ofVirtual().factory()}, {@code null} if not supported
+     */
+    private static MethodHandle lookupVirtualThreadFactory() {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            MethodHandle ofVirtual = lookup.findStatic(Thread.class, "ofVirtual",
+                    MethodType.methodType(Class.forName("java.lang.Thread$Builder$OfVirtual")));
+            MethodHandle factory = lookup.findVirtual(builderClass, "factory", MethodType.methodType(ThreadFactory.class));
+            return MethodHandles.filterReturnValue(ofVirtual, factory.asType(MethodType.methodType(ThreadFactory.class,
+                    ofVirtual.type().returnType())));
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
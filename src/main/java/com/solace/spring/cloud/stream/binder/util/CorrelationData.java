@@ -2,20 +2,21 @@ package com.solace.spring.cloud.stream.binder.util;
 
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
-import org.springframework.util.concurrent.ListenableFuture;
-import org.springframework.util.concurrent.SettableListenableFuture;
+
+import java.util.concurrent.CompletableFuture;
 
 public class CorrelationData {
-    private final SettableListenableFuture<Void> future = new SettableListenableFuture<>();
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
 
     private Message<?> message;
 
     /**
      * Return a future to check the success/failure of the publish operation.
+     * <p>For large messages the future completes when the broker acknowledged the last chunk.</p>
      *
      * @return the future.
      */
-    public ListenableFuture<Void> getFuture() {
+    public CompletableFuture<Void> getFuture() {
         return this.future;
     }
 
@@ -28,10 +29,10 @@ public class CorrelationData {
     }
 
     void success() {
-        this.future.set(null);
+        this.future.complete(null);
     }
 
     void failed(MessagingException cause) {
-        this.future.setException(cause);
+        this.future.completeExceptionally(cause);
     }
 }
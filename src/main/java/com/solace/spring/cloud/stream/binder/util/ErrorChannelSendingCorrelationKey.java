@@ -12,6 +12,9 @@ import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessagingException;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
 
 @Slf4j
 public class ErrorChannelSendingCorrelationKey {
@@ -20,11 +23,19 @@ public class ErrorChannelSendingCorrelationKey {
     private final MessageChannel errorChannel;
     private final ErrorMessageStrategy errorMessageStrategy;
     @Getter
-    @Setter
     private List<XMLMessage> rawMessages;
+    private final AtomicInteger pendingResponses = new AtomicInteger();
+    private final AtomicBoolean failed = new AtomicBoolean();
     @Getter
     @Setter
     private CorrelationData confirmCorrelation;
+    @Getter
+    private AggregatedCorrelationData aggregatedCorrelation;
+    @Setter
+    private Runnable inFlightRelease;
+    @Setter
+    private LongConsumer ackLatencyRecorder;
+    private long publishTimeNanos;
 
 
     public ErrorChannelSendingCorrelationKey(Message<?> inputMessage, MessageChannel errorChannel,
@@ -34,8 +45,68 @@ public class ErrorChannelSendingCorrelationKey {
         this.errorMessageStrategy = errorMessageStrategy;
     }
 
+    public void setRawMessages(List<XMLMessage> rawMessages) {
+        this.rawMessages = rawMessages;
+        this.pendingResponses.set(rawMessages != null ? rawMessages.size() : 0);
+    }
+
     /**
-     * Send the message to the error channel if defined.
+     * Add the message of this key to a group confirmation.
+     *
+     * @param aggregatedCorrelation the group to join
+     */
+    public void joinAggregatedCorrelation(AggregatedCorrelationData aggregatedCorrelation) {
+        aggregatedCorrelation.register();
+        this.aggregatedCorrelation = aggregatedCorrelation;
+    }
+
+    /**
+     * Count the broker response of one raw message.
+     *
+     * @return {@code true} if all raw messages of this key, e.g. all chunks of a large message, were acknowledged
+     */
+    boolean rawMessageAcknowledged() {
+        return pendingResponses.decrementAndGet() <= 0;
+    }
+
+    /**
+     * Count the failure of one raw message.
+     *
+     * @return {@code true} if this is the first failed raw message of this key, e.g. the first failed chunk of a
+     * large message, which is the only failure to report
+     */
+    boolean rawMessageFailed() {
+        return failed.compareAndSet(false, true);
+    }
+
+    /**
+     * Start measuring the publish-to-ack latency of this key's message.
+     */
+    public void markPublished() {
+        this.publishTimeNanos = System.nanoTime();
+    }
+
+    /**
+     * Record the publish-to-ack latency. Called once all raw messages of this key were acknowledged.
+     */
+    void recordAckLatency() {
+        if (ackLatencyRecorder != null) {
+            ackLatencyRecorder.accept(System.nanoTime() - publishTimeNanos);
+        }
+    }
+
+    /**
+     * Release the in-flight slot of one raw message.
+     * Called once per raw message, either when the broker responded or when the message could not be sent.
+     */
+    public void releaseInFlight() {
+        if (inFlightRelease != null) {
+            inFlightRelease.run();
+        }
+    }
+
+    /**
+     * Send the message to the error channel if defined and fail the group confirmation the message joined.
      *
      * @param msg   the failure description
      * @param cause the failure cause
@@ -53,6 +124,25 @@ public class ErrorChannelSendingCorrelationKey {
                     errorChannel));
             errorChannel.send(errorMessageStrategy.buildErrorMessage(exception, attributes));
         }
+        if (aggregatedCorrelation != null) {
+            aggregatedCorrelation.failed(exception);
+        }
+        return exception;
+    }
+
+    /**
+     * Like {@link #send(String, Exception)}, but also fails the publisher confirmation of a message which was
+     * rejected before it was published.
+     *
+     * @param msg   the failure description
+     * @param cause the failure cause
+     * @return the exception wrapper containing the rejected input message
+     */
+    public MessagingException reject(String msg, Exception cause) {
+        MessagingException exception = send(msg, cause);
+        if (confirmCorrelation != null) {
+            confirmCorrelation.failed(exception);
+        }
         return exception;
     }
 }
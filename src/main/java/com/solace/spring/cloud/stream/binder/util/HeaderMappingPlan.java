@@ -0,0 +1,113 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaderMeta;
+import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
+import com.solace.spring.cloud.stream.binder.messaging.SolaceHeaderMeta;
+import org.springframework.cloud.stream.binder.BinderHeaders;
+import org.springframework.integration.IntegrationMessageHeaderAccessor;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Header mapping decisions of {@link XMLMessageMapper} which only depend on the binding's header exclusions,
+ * resolved once per binding instead of for every message.
+ */
+final class HeaderMappingPlan {
+    /**
+     * Headers which are never copied into the user properties, matched case-insensitively.
+     */
+    private static final List<String> CASE_INSENSITIVE_SKIPPED_HEADERS = List.of(
+            IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK,
+            BinderHeaders.TARGET_DESTINATION,
+            SolaceBinderHeaders.CONFIRM_CORRELATION);
+    /**
+     * {@link #CASE_INSENSITIVE_SKIPPED_HEADERS} in lower case.
+     */
+    private static final Set<String> NORMALIZED_SKIPPED_HEADERS = CASE_INSENSITIVE_SKIPPED_HEADERS.stream()
+            .map(HeaderMappingPlan::normalize)
+            .collect(Collectors.toUnmodifiableSet());
+    /**
+     * The lengths of {@link #CASE_INSENSITIVE_SKIPPED_HEADERS}, a header of another length can't match any of them
+     * and is not lower-cased for the lookup.
+     */
+    private static final BitSet NORMALIZED_SKIPPED_HEADER_LENGTHS = new BitSet();
+
+    static {
+        CASE_INSENSITIVE_SKIPPED_HEADERS.forEach(header -> NORMALIZED_SKIPPED_HEADER_LENGTHS.set(header.length()));
+    }
+
+    private final Collection<String> source;
+    private final Set<String> excludedHeaders;
+    private final Set<String> skippedOutboundHeaders;
+    private final Set<String> skippedInboundHeaders;
+    private final List<Map.Entry<String, SolaceHeaderMeta<?>>> writableSolaceHeaders;
+    private final List<Map.Entry<String, SolaceHeaderMeta<?>>> readableSolaceHeaders;
+
+    private HeaderMappingPlan(Collection<String> excludedHeaders) {
+        this.source = excludedHeaders;
+        this.excludedHeaders = excludedHeaders != null ? new HashSet<>(excludedHeaders) : Set.of();
+
+        Set<String> solaceHeaders = new HashSet<>(SolaceHeaderMeta.META.keySet());
+        solaceHeaders.addAll(SolaceBinderHeaderMeta.META.keySet());
+
+        this.skippedOutboundHeaders = new HashSet<>(solaceHeaders);
+        this.skippedOutboundHeaders.addAll(this.excludedHeaders);
+        this.skippedOutboundHeaders.addAll(CASE_INSENSITIVE_SKIPPED_HEADERS);
+        this.skippedOutboundHeaders.add(IntegrationMessageHeaderAccessor.SOURCE_DATA);
+
+        this.skippedInboundHeaders = new HashSet<>(solaceHeaders);
+        this.skippedInboundHeaders.addAll(this.excludedHeaders);
+
+        this.writableSolaceHeaders = SolaceHeaderMeta.META.entrySet().stream()
+                .filter(header -> header.getValue().isWritable())
+                .toList();
+        this.readableSolaceHeaders = SolaceHeaderMeta.META.entrySet().stream()
+                .filter(header -> header.getValue().isReadable())
+                .filter(header -> !this.excludedHeaders.contains(header.getKey()))
+                .toList();
+    }
+
+    static HeaderMappingPlan compile(Collection<String> excludedHeaders) {
+        return new HeaderMappingPlan(excludedHeaders);
+    }
+
+    /**
+     * @return {@code true} if this plan was compiled for the given exclusions instance
+     */
+    boolean isCompiledFor(Collection<String> excludedHeaders) {
+        return source == excludedHeaders;
+    }
+
+    boolean isExcluded(String header) {
+        return excludedHeaders.contains(header);
+    }
+
+    /**
+     * @return {@code true} if a Spring header must not be copied into the SMF user properties
+     */
+    boolean isSkippedOutbound(String header) {
+        return skippedOutboundHeaders.contains(header) ||
+                (NORMALIZED_SKIPPED_HEADER_LENGTHS.get(header.length()) &&
+                        NORMALIZED_SKIPPED_HEADERS.contains(normalize(header)));
+    }
+
+    /**
+     * @return {@code true} if an SMF user property must not be copied into the Spring headers
+     */
+    boolean isSkippedInbound(String header) {
+        return skippedInboundHeaders.contains(header);
+    }
+
+    List<Map.Entry<String, SolaceHeaderMeta<?>>> getWritableSolaceHeaders() {
+        return writableSolaceHeaders;
+    }
+
+    List<Map.Entry<String, SolaceHeaderMeta<?>>> getReadableSolaceHeaders() {
+        return readableSolaceHeaders;
+    }
+
+    private static String normalize(String header) {
+        return header.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,53 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The threads parked while waiting for work, so that the thread adding work wakes up one of them instead of every
+ * idle thread polling on a timer.
+ * <p>A thread registers itself before it checks for work a last time, and the thread adding work wakes up a
+ * registered thread after adding it. So either the check sees the work or the waiting thread is woken up.</p>
+ */
+public final class IdleThreads {
+    private final Queue<Thread> parked = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Park the calling thread until it is woken up, unless there is work.
+     *
+     * @param hasWork  whether the calling thread has work, also for example to stop
+     * @param maxNanos the maximum time to park
+     */
+    public void park(BooleanSupplier hasWork, long maxNanos) {
+        Thread thread = Thread.currentThread();
+        parked.add(thread);
+        try {
+            if (!hasWork.getAsBoolean()) {
+                LockSupport.parkNanos(this, maxNanos);
+            }
+        } finally {
+            parked.remove(thread);
+        }
+    }
+
+    /**
+     * Wake up one of the parked threads, if any.
+     */
+    public void wakeUpOne() {
+        Thread thread = parked.poll();
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Wake up all parked threads, for example to stop them.
+     */
+    public void wakeUpAll() {
+        for (Thread thread = parked.poll(); thread != null; thread = parked.poll()) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
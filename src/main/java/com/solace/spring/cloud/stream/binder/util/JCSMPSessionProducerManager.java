@@ -42,9 +42,17 @@ public class JCSMPSessionProducerManager extends SharedResourceManager<XMLMessag
                     log.trace("Producer received response for message " +
                             StaticMessageHeaderAccessor.getId(key.getInputMessage()));
                 }
+                key.releaseInFlight();
+                if (!key.rawMessageAcknowledged()) {
+                    return; // wait for the remaining chunks
+                }
+                key.recordAckLatency();
                 if (key.getConfirmCorrelation() != null) {
                     key.getConfirmCorrelation().success();
                 }
+                if (key.getAggregatedCorrelation() != null) {
+                    key.getAggregatedCorrelation().success();
+                }
             } else if (correlationKey instanceof ErrorQueueRepublishCorrelationKey key) {
                 try {
                     key.handleSuccess();
@@ -67,6 +75,10 @@ public class JCSMPSessionProducerManager extends SharedResourceManager<XMLMessag
                         .map(Message::getHeaders)
                         .map(MessageHeaders::getId)
                         .orElse(null);
+                key.releaseInFlight();
+                if (!key.rawMessageFailed()) {
+                    return; // already reported for an earlier chunk
+                }
                 String msg = String.format("Producer received error during publishing (Spring message %s) at %s",
                         springMessageId, timestamp);
                 log.warn(msg, cause);
@@ -0,0 +1,137 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Expires the incomplete large message assemblies of all bindings of a binder on a single thread.
+ * <p>Hashed timer wheel: an entry is put into the bucket of its deadline's tick, and the thread visits one bucket per
+ * tick. A deadline which moved forward is only re-evaluated when its bucket is visited, so that moving a deadline is
+ * a single write by the {@link Expirable}. Entries whose deadline lies more than one revolution ahead stay in their
+ * bucket for further revolutions.</p>
+ */
+@Slf4j
+public class LargeMessageExpiryService implements AutoCloseable {
+    public static final long DEFAULT_TICK_MS = 1000;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final long tickMs;
+    private final Queue<Expirable>[] wheel;
+    private final int mask;
+    private final ScheduledExecutorService executorService;
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private volatile long lastTick;
+
+    public LargeMessageExpiryService() {
+        this(DEFAULT_TICK_MS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * @param tickMs    the resolution of the deadlines
+     * @param wheelSize the number of buckets, a power of two
+     */
+    @SuppressWarnings("unchecked")
+    LargeMessageExpiryService(long tickMs, int wheelSize) {
+        if (tickMs <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize a power of two");
+        }
+        this.tickMs = tickMs;
+        this.wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            this.wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = wheelSize - 1;
+        this.lastTick = tick(System.currentTimeMillis());
+        this.executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "solace-large-message-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Expire the given entry once its deadline has passed, the expiry thread is started with the first entry.
+     */
+    public void schedule(Expirable expirable) {
+        if (executorService.isShutdown()) {
+            log.warn("Large message expiry service is closed, {} will not expire", expirable);
+            return;
+        }
+        if (started.compareAndSet(false, true)) {
+            executorService.scheduleAtFixedRate(this::advance, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        }
+        // never into a bucket which was visited for the current revolution already
+        long tick = Math.max(tick(expirable.getDeadline()), lastTick + 1);
+        wheel[(int) (tick & mask)].add(expirable);
+    }
+
+    private void advance() {
+        advance(System.currentTimeMillis());
+    }
+
+    /**
+     * Visit the buckets of all ticks up to the given time.
+     */
+    synchronized void advance(long now) {
+        long currentTick = tick(now);
+        // a full revolution visits every bucket
+        for (long tick = Math.max(lastTick + 1, currentTick - mask); tick <= currentTick; tick++) {
+            lastTick = tick;
+            expire(wheel[(int) (tick & mask)], now);
+        }
+    }
+
+    private void expire(Queue<Expirable> bucket, long now) {
+        // entries rescheduled into this bucket are visited with the next revolution
+        for (int remaining = bucket.size(); remaining > 0; remaining--) {
+            Expirable expirable = bucket.poll();
+            if (expirable == null) {
+                return;
+            }
+            try {
+                if (expirable.isDone()) {
+                    continue;
+                }
+                if (expirable.getDeadline() > now) {
+                    schedule(expirable);
+                } else {
+                    expirable.expire();
+                }
+            } catch (Exception ex) {
+                log.error("Error during large message expiry of {}", expirable, ex);
+            }
+        }
+    }
+
+    private long tick(long timeMillis) {
+        return Math.floorDiv(timeMillis, tickMs);
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdownNow();
+        for (Queue<Expirable> bucket : wheel) {
+            bucket.clear();
+        }
+    }
+
+    public interface Expirable {
+        /**
+         * @return the time in epoch milliseconds after which this entry expires, may move forward
+         */
+        long getDeadline();
+
+        /**
+         * @return {@code true} if this entry does not need to expire anymore
+         */
+        boolean isDone();
+
+        void expire();
+    }
+}
@@ -1,68 +1,191 @@
 package com.solace.spring.cloud.stream.binder.util;
 
 import com.solace.spring.cloud.stream.binder.inbound.acknowledge.NestedAcknowledgementCallback;
+import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
 import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
 import com.solacesystems.jcsmp.*;
 import com.solacesystems.jcsmp.impl.BytesMessageImpl;
 import com.solacesystems.jcsmp.impl.JCSMPGenericXMLMessage;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.integration.acks.AcknowledgmentCallback;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.CRC32C;
 
 @Slf4j
 public class LargeMessageSupport {
+    /**
+     * The default time after which an incomplete large message is dropped if no further chunk was received.
+     */
     public static final long RECEIVE_TIMEOUT = TimeUnit.SECONDS.toMillis(60);
+    /**
+     * The default size of the chunks a large message is split into.
+     */
     public static final int CHUNK_SIZE = 1024 * 1024 * 8;
+    /**
+     * The default number of times a chunk is requeued for an exhausted assembly budget before it is rejected.
+     */
+    public static final int MAX_ASSEMBLY_REFUSALS = 10;
+    /**
+     * Chunks whose refusals are tracked at most, the least recently refused are forgotten beyond.
+     */
+    private static final int MAX_TRACKED_REFUSALS = 1024;
+    /**
+     * Bytes held by the in-progress assemblies of all instances.
+     */
+    private static final AtomicLong ASSEMBLY_BYTES = new AtomicLong();
+    /**
+     * Marks the chunk slots of an assembly which was expired or completed.
+     */
+    private static final MessageContextBytes RELEASED = new MessageContextBytes(null, null, null);
+    private final AtomicLong assemblyBytes;
     private final SecureRandom secureRandom = new SecureRandom();
-    private final Map<Long, MessageContextBytes[]> context = new HashMap<>();
-    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Map<Long, Assembly> context = new ConcurrentHashMap<>();
+    private final AtomicInteger partialAssemblies = new AtomicInteger();
+    private final AtomicLong heldBytes = new AtomicLong();
+    private final Map<ChunkKey, Integer> refusals = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ChunkKey, Integer> eldest) {
+                    return size() > MAX_TRACKED_REFUSALS;
+                }
+            });
+    /**
+     * Whether chunks are assembled in a temporary file, the assembled payload is then delivered as
+     * {@link MessageContext#payload()}.
+     */
+    @Setter
+    private boolean spillToDisk;
+    /**
+     * The directory of the temporary assembly files and of the spool files of streamed payloads, {@code null} for the
+     * system temp directory.
+     */
+    @Setter
+    private Path spillDirectory;
+    /**
+     * Limit of the heap bytes held by in-progress assemblies for starting new assemblies, 0 for unlimited. Chunks
+     * {@link #setSpillToDisk(boolean) spilled to disk} are counted as well, their received messages are held by
+     * their acknowledgment callbacks until the assembled message is settled.
+     */
+    @Setter
+    private long maxAssemblyBytes;
+    /**
+     * How often a chunk is requeued for an exhausted {@link #setMaxAssemblyBytes(long) assembly budget} before it is
+     * rejected, so that it is not redelivered in a tight loop for as long as the budget stays exhausted.
+     */
+    @Setter
+    private int maxAssemblyRefusals = MAX_ASSEMBLY_REFUSALS;
+    /**
+     * Expires incomplete assemblies, without it these are held until all their chunks are received.
+     */
+    @Setter
+    private LargeMessageExpiryService expiryService;
+    /**
+     * The time after which an incomplete assembly expires if no further chunk was received.
+     */
+    @Setter
+    private long receiveTimeoutMs = RECEIVE_TIMEOUT;
+    /**
+     * The maximum payload size of a chunk created by {@link #split(XMLMessage)}.
+     */
+    private int chunkSize = CHUNK_SIZE;
+    /**
+     * Whether the chunks created by {@link #split(XMLMessage)} carry CRC32C checksums.
+     */
+    @Setter
+    private boolean checksum;
+    private SolaceMeterAccessor solaceMeterAccessor;
+    private String bindingName;
 
-    public void startHousekeeping() {
-        synchronized (running) {
-            if (running.get()) {
-                return;
-            }
-            running.set(true);
-            Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(this::housekeeping, 60, 30, TimeUnit.SECONDS);
+    public LargeMessageSupport() {
+        this(ASSEMBLY_BYTES);
+    }
+
+    /**
+     * @param assemblyBytes the counter of the bytes held by in-progress assemblies, shared with other instances
+     */
+    LargeMessageSupport(AtomicLong assemblyBytes) {
+        this.assemblyBytes = assemblyBytes;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
         }
+        this.chunkSize = chunkSize;
     }
 
-    public void housekeeping() {
-        try {
-            Set<Map.Entry<Long, MessageContextBytes[]>> outdated;
-            synchronized (context) {
-                var entries = context.entrySet();
-                outdated = entries.stream().filter(e -> tooOld(e.getValue())).collect(Collectors.toSet());
-            }
-            for (var o : outdated) {
-                synchronized (context) {
-                    context.remove(o.getKey());
-                }
-                for (int i = 0; i < o.getValue().length; i++) {
-                    var msg = o.getValue()[i];
-                    if (msg != null) {
-                        msg.acknowledgmentCallback().acknowledge(AcknowledgmentCallback.Status.REJECT);
-                        log.warn("Check if Queue is partitioned correctly!");
-                        log.warn("Incomplete large message dropped/rejected, no message received within 1 Minute. Dropped chunk {} index {} of {}", o.getKey(), i, o.getValue().length);
-                    }
+    public void setSolaceMeterAccessor(SolaceMeterAccessor solaceMeterAccessor, String bindingName) {
+        this.solaceMeterAccessor = solaceMeterAccessor;
+        this.bindingName = bindingName;
+        solaceMeterAccessor.registerLargeMessageAssemblyGauges(bindingName, partialAssemblies, heldBytes);
+    }
+
+    /**
+     * Drop an incomplete assembly and reject its chunks.
+     */
+    private void expire(Assembly assembly) {
+        if (!release(assembly.chunkId, assembly)) {
+            return;
+        }
+        log.warn("Check if Queue is partitioned correctly!");
+        reject(assembly, String.format("no message received within %s ms", receiveTimeoutMs));
+    }
+
+    /**
+     * Reject the chunks of a released assembly.
+     */
+    private void reject(Assembly assembly, String reason) {
+        for (int i = 0; i < assembly.chunks.length(); i++) {
+            var msg = assembly.chunks.getAndSet(i, RELEASED);
+            if (msg != null) {
+                if (msg.acknowledgmentCallback() != null) {
+                    msg.acknowledgmentCallback().acknowledge(AcknowledgmentCallback.Status.REJECT);
                 }
+                log.warn("Incomplete large message dropped/rejected, {}. Dropped chunk {} index {} of {}", reason, assembly.chunkId, i, assembly.chunks.length());
             }
-        } catch (Exception ex) {
-            log.error("Error during housekeeping", ex);
+        }
+        if (assembly.spillFile != null) {
+            assembly.spillFile.release();
         }
     }
 
-    boolean tooOld(MessageContextBytes[] messages) {
-        return Arrays.stream(messages).filter(Objects::nonNull).mapToLong(messageContextBytes -> messageContextBytes.timestamp().toEpochMilli()).max().orElse(0) < Instant.now().toEpochMilli() - RECEIVE_TIMEOUT;
+    /**
+     * @return the bytes held by the in-progress assemblies of all instances
+     */
+    public static long getAssemblyBytes() {
+        return ASSEMBLY_BYTES.get();
     }
 
+    /**
+     * Collect a chunk of a large message.
+     * <p>Chunks are collected without locking: every chunk claims its slot of the assembly, and the chunk which
+     * completes the received count assembles the message.</p>
+     * <p>Chunks which start a new assembly are refused while the heap bytes of all in-progress assemblies exceed the
+     * {@link #setMaxAssemblyBytes(long) assembly budget}: they are requeued, rejected once they were refused
+     * {@link #setMaxAssemblyRefusals(int) too often}, or dropped if they have no acknowledgment callback. Chunks of
+     * assemblies in progress are always accepted so that these can complete.</p>
+     *
+     * @return the message, the assembled large message if this was its last chunk, otherwise {@code null}
+     */
     public MessageContext assemble(BytesXMLMessage smfMessage, AcknowledgmentCallback acknowledgmentCallback) {
         try {
             if (smfMessage.getProperties() == null || !smfMessage.getProperties().containsKey(SolaceBinderHeaders.CHUNK_ID)) {
@@ -81,118 +204,707 @@ public class LargeMessageSupport {
             if (chunkCount == null) {
                 throw new RuntimeException("Missing chunkCount");
             }
-            if (!(smfMessage instanceof BytesMessage)) {
+            if (!(smfMessage instanceof BytesMessage bytesMessage)) {
                 throw new RuntimeException("LargeMessageSupport is only available for BytesMessages");
             }
 
-            MessageContextBytes[] chunkArray;
-            synchronized (context) {
-                chunkArray = context.computeIfAbsent(chunkId, k -> new MessageContextBytes[chunkCount]);
+            Assembly assembly = context.get(chunkId);
+            if (assembly == null) {
+                if (!isAssemblyBudgetAvailable()) {
+                    refuse(chunkId, chunkIndex, chunkCount, acknowledgmentCallback);
+                    return null;
+                }
+                if (!refusals.isEmpty()) {
+                    refusals.remove(new ChunkKey(chunkId, chunkIndex));
+                }
+                Assembly created = new Assembly(chunkId, chunkCount, spillToDisk ? new SpillFile(spillDirectory) : null);
+                assembly = context.putIfAbsent(chunkId, created);
+                if (assembly == null) {
+                    assembly = created;
+                    partialAssemblies.incrementAndGet();
+                    if (expiryService != null) {
+                        expiryService.schedule(created);
+                    }
+                } else if (created.spillFile != null) {
+                    created.spillFile.release();
+                }
             }
-            if (chunkArray[chunkIndex] == null) {
-                chunkArray[chunkIndex] = new MessageContextBytes((BytesMessage) smfMessage, acknowledgmentCallback, Instant.now());
-            } else {
-                log.warn("Duplicate chunk id={} index={} of {} received, drop it", chunkId, chunkIndex, chunkCount);
+
+            MessageContextBytes chunk = new MessageContextBytes(bytesMessage, acknowledgmentCallback, Instant.now());
+            if (!assembly.chunks.compareAndSet(chunkIndex, null, chunk)) {
+                if (assembly.chunks.get(chunkIndex) == RELEASED) {
+                    log.warn("Incomplete large message dropped/rejected, no message received within {} ms. Dropped chunk {} index {} of {}", receiveTimeoutMs, chunkId, chunkIndex, chunkCount);
+                    if (acknowledgmentCallback != null) {
+                        acknowledgmentCallback.acknowledge(AcknowledgmentCallback.Status.REJECT);
+                    }
+                } else {
+                    log.warn("Duplicate chunk id={} index={} of {} received, drop it", chunkId, chunkIndex, chunkCount);
+                }
                 return null;
             }
-            int length = 0;
-            for (int i = chunkArray.length - 1; i >= 0; i--) {
-                MessageContextBytes messageContextBytes = chunkArray[i];
-                if (messageContextBytes == null) {
-                    // not all chunks received yet
-                    return null;
+
+            if (!verifyChecksum(assembly, bytesMessage, chunkIndex)) {
+                if (release(chunkId, assembly)) {
+                    reject(assembly, String.format("checksum mismatch of chunk index %s", chunkIndex));
                 }
-                length += messageContextBytes.bytesMessage().getData().length;
+                return null;
             }
-            byte[] data = new byte[length];
-            int offset = 0;
-            NestedAcknowledgementCallback nestedAcknowledgementCallback = new NestedAcknowledgementCallback();
-            for (MessageContextBytes messageContext : chunkArray) {
-                byte[] msgBytes = messageContext.bytesMessage().getData();
-                System.arraycopy(msgBytes, 0, data, offset, msgBytes.length);
-                offset += msgBytes.length;
-                if (messageContext.acknowledgmentCallback() != null) {
-                    nestedAcknowledgementCallback.addAcknowledgmentCallback(messageContext.acknowledgmentCallback());
+
+            int length = bytesMessage.getAttachmentContentLength();
+            long offset = assembly.size.getAndAdd(length);
+            if (assembly.spillFile != null) {
+                try {
+                    assembly.spillFile.write(offset, bytesMessage.getAttachmentByteBuffer());
+                } catch (IOException e) {
+                    if (assembly.released.get()) {
+                        // the assembly expired, its expiry owns the chunk
+                        return null;
+                    }
+                    throw e;
                 }
+                // the assembly only needs the acknowledgment of a spilled chunk, not its payload
+                assembly.chunks.compareAndSet(chunkIndex, chunk,
+                        new MessageContextBytes(null, acknowledgmentCallback, chunk.timestamp()));
             }
-            BytesMessage bytesMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
-            bytesMessage.setData(data);
-            bytesMessage.setHTTPContentType(smfMessage.getHTTPContentType());
-            bytesMessage.setDeliveryMode(smfMessage.getDeliveryMode());
-            bytesMessage.setPriority(smfMessage.getPriority());
-            bytesMessage.setCorrelationKey(smfMessage.getCorrelationKey());
-            if (((BytesMessageImpl) bytesMessage).getWrappedMessage() instanceof JCSMPGenericXMLMessage msg) {
-                msg.setDestinationReceived(smfMessage.getDestination());
+            assembly.offsets[chunkIndex] = offset;
+            assembly.lengths[chunkIndex] = length;
+            assembly.lastUpdate = Instant.now().toEpochMilli();
+            hold(assembly, length);
+
+            if (assembly.received.incrementAndGet() < chunkCount || !release(chunkId, assembly)) {
+                // not all chunks received yet
+                return null;
             }
-            SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
-            metadata.putAll(smfMessage.getProperties());
-            metadata.remove(SolaceBinderHeaders.CHUNK_ID);
-            metadata.remove(SolaceBinderHeaders.CHUNK_INDEX);
-            metadata.remove(SolaceBinderHeaders.CHUNK_COUNT);
-            bytesMessage.setProperties(metadata);
-            bytesMessage.setReadOnly();
-            synchronized (context) {
-                context.remove(chunkId);
+            if (!assembly.isMessageChecksumValid()) {
+                reject(assembly, "message checksum mismatch");
+                return null;
             }
-            return new MessageContext(bytesMessage, nestedAcknowledgementCallback, Instant.now());
+            return complete(assembly, bytesMessage);
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
     }
 
+    /**
+     * Verify the {@link SolaceBinderHeaders#CHUNK_CHECKSUM} of a chunk, chunks without checksum are accepted.
+     *
+     * @return {@code false} if the chunk's data does not match its checksum
+     */
+    private static boolean verifyChecksum(Assembly assembly, BytesMessage chunk, int chunkIndex) throws SDTException {
+        Integer expected = chunk.getProperties().getInteger(SolaceBinderHeaders.CHUNK_CHECKSUM);
+        if (expected == null) {
+            return true;
+        }
+        int actual = checksum(chunk.getAttachmentByteBuffer());
+        if (actual != expected) {
+            return false;
+        }
+        assembly.checksums[chunkIndex] = actual;
+        assembly.checksummed[chunkIndex] = true;
+        Integer messageChecksum = chunk.getProperties().getInteger(SolaceBinderHeaders.CHUNK_MESSAGE_CHECKSUM);
+        if (messageChecksum != null) {
+            assembly.messageChecksum = messageChecksum;
+        }
+        return true;
+    }
+
+    private static int checksum(ByteBuffer data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * @return the CRC32C checksum over the chunk checksums in index order
+     */
+    private static int messageChecksum(int[] checksums) {
+        ByteBuffer buffer = ByteBuffer.allocate(checksums.length * Integer.BYTES);
+        buffer.asIntBuffer().put(checksums);
+        return checksum(buffer);
+    }
+
+    private MessageContext complete(Assembly assembly, BytesMessage lastChunk) throws IOException, SDTException {
+        NestedAcknowledgementCallback nestedAcknowledgementCallback = new NestedAcknowledgementCallback();
+        for (int i = 0; i < assembly.chunks.length(); i++) {
+            AcknowledgmentCallback callback = assembly.chunks.get(i).acknowledgmentCallback();
+            if (callback != null) {
+                nestedAcknowledgementCallback.addAcknowledgmentCallback(callback);
+            }
+        }
+        BytesMessage bytesMessage = createAssembledMessage(lastChunk);
+        ByteBuffer payload = null;
+        if (assembly.spillFile != null) {
+            payload = assembly.spillFile.map(assembly.offsets, assembly.lengths, assembly.size.get());
+        } else {
+            byte[] data = new byte[Math.toIntExact(assembly.size.get())];
+            int offset = 0;
+            for (int i = 0; i < assembly.chunks.length(); i++) {
+                assembly.chunks.get(i).bytesMessage().getAttachmentByteBuffer().duplicate()
+                        .get(data, offset, assembly.lengths[i]);
+                offset += assembly.lengths[i];
+            }
+            bytesMessage.setData(data);
+        }
+        bytesMessage.setReadOnly();
+        for (int i = 0; i < assembly.chunks.length(); i++) {
+            // the expiry service may still reference the assembly
+            assembly.chunks.set(i, RELEASED);
+        }
+        if (solaceMeterAccessor != null) {
+            solaceMeterAccessor.recordLargeMessageAssemblyTime(bindingName, System.nanoTime() - assembly.startNanos);
+        }
+        return new MessageContext(bytesMessage, nestedAcknowledgementCallback, Instant.now(), payload);
+    }
+
+    /**
+     * Account the bytes of a chunk which was added to the assembly.
+     */
+    private void hold(Assembly assembly, long length) {
+        assembly.heldBytes.addAndGet(length);
+        assemblyBytes.addAndGet(length);
+        heldBytes.addAndGet(length);
+        if (assembly.released.get()) {
+            // released concurrently, the release may not have seen this chunk's bytes
+            unhold(assembly);
+        }
+    }
+
+    private void unhold(Assembly assembly) {
+        long length = assembly.heldBytes.getAndSet(0);
+        assemblyBytes.addAndGet(-length);
+        heldBytes.addAndGet(-length);
+    }
+
+    /**
+     * Take the ownership of an assembly to complete or expire it.
+     *
+     * @return {@code false} if the assembly was released before
+     */
+    private boolean release(long chunkId, Assembly assembly) {
+        if (!assembly.released.compareAndSet(false, true)) {
+            return false;
+        }
+        context.remove(chunkId, assembly);
+        partialAssemblies.decrementAndGet();
+        unhold(assembly);
+        return true;
+    }
+
+    private boolean isAssemblyBudgetAvailable() {
+        return maxAssemblyBytes <= 0 || assemblyBytes.get() < maxAssemblyBytes;
+    }
+
+    private void refuse(long chunkId, int chunkIndex, int chunkCount, AcknowledgmentCallback acknowledgmentCallback) {
+        if (acknowledgmentCallback == null) {
+            log.warn("Large message assembly budget exhausted, drop chunk id={} index={} of {}", chunkId, chunkIndex, chunkCount);
+            return;
+        }
+        ChunkKey key = new ChunkKey(chunkId, chunkIndex);
+        int refused = refusals.merge(key, 1, Integer::sum);
+        if (refused > maxAssemblyRefusals) {
+            refusals.remove(key);
+            log.warn("Large message assembly budget exhausted, reject chunk id={} index={} of {} after {} requeues", chunkId, chunkIndex, chunkCount, refused - 1);
+            acknowledgmentCallback.acknowledge(AcknowledgmentCallback.Status.REJECT);
+        } else {
+            log.debug("Large message assembly budget exhausted, requeue chunk id={} index={} of {}", chunkId, chunkIndex, chunkCount);
+            acknowledgmentCallback.acknowledge(AcknowledgmentCallback.Status.REQUEUE);
+        }
+    }
+
+    /**
+     * @return a message with the metadata of the given chunk but without its chunk properties and data
+     */
+    private static BytesMessage createAssembledMessage(BytesXMLMessage smfMessage) throws SDTException {
+        BytesMessage bytesMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        bytesMessage.setHTTPContentType(smfMessage.getHTTPContentType());
+        bytesMessage.setDeliveryMode(smfMessage.getDeliveryMode());
+        bytesMessage.setPriority(smfMessage.getPriority());
+        bytesMessage.setCorrelationKey(smfMessage.getCorrelationKey());
+        if (((BytesMessageImpl) bytesMessage).getWrappedMessage() instanceof JCSMPGenericXMLMessage msg) {
+            msg.setDestinationReceived(smfMessage.getDestination());
+        }
+        SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
+        metadata.putAll(smfMessage.getProperties());
+        metadata.remove(SolaceBinderHeaders.CHUNK_ID);
+        metadata.remove(SolaceBinderHeaders.CHUNK_INDEX);
+        metadata.remove(SolaceBinderHeaders.CHUNK_COUNT);
+        metadata.remove(SolaceBinderHeaders.CHUNK_CHECKSUM);
+        metadata.remove(SolaceBinderHeaders.CHUNK_MESSAGE_CHECKSUM);
+        bytesMessage.setProperties(metadata);
+        return bytesMessage;
+    }
+
+    /**
+     * Split a message into chunks of the {@link #setChunkSize(int) chunk size}.
+     * <p>The chunks are created on demand by {@link List#get(int)} from the original message's data without copying
+     * it, so that a publisher only holds the original payload and the chunk which it is currently publishing.</p>
+     *
+     * @param smfMessage the message to split
+     * @return the chunk messages, or the original message if it does not exceed the chunk size
+     */
     public List<XMLMessage> split(XMLMessage smfMessage) {
         if (!(smfMessage instanceof BytesMessage)) {
             throw new RuntimeException("LargeMessageSupport is only available for BytesMessage");
         }
         byte[] data = ((BytesMessage) smfMessage).getData();
-        if (data.length <= CHUNK_SIZE) {
+        if (data.length <= chunkSize) {
             return List.of(smfMessage);
         }
+        return new ChunkList(smfMessage, new ByteArrayChunkSource(data), secureRandom.nextLong(), chunkSize, checksum);
+    }
 
-        long rest = data.length % CHUNK_SIZE;
-        int chunks = data.length / CHUNK_SIZE;
-        int chunkCount = chunks + (rest > 0 ? 1 : 0);
+    /**
+     * @param payload a message payload
+     * @return {@code true} if the payload can be published in chunks by {@link #split(XMLMessage, Object)}
+     */
+    public static boolean isStreamable(Object payload) {
+        return payload instanceof InputStream || payload instanceof Path || payload instanceof ByteBuffer;
+    }
 
-        long chunkId = secureRandom.nextLong();
-        List<XMLMessage> result = new ArrayList<>();
-        for (int i = 0; i < chunks; i++) {
-            int from = i * CHUNK_SIZE;
-            int to = (i + 1) * CHUNK_SIZE;
-            result.add(createChunkMessage(smfMessage, data, from, to, chunkId, i, chunkCount));
+    /**
+     * Split a payload which is not held on heap as a single {@code byte[]} into chunks of the
+     * {@link #setChunkSize(int) chunk size}.
+     * <ul>
+     *     <li>{@link Path}: every chunk is memory-mapped from the file when it is created.</li>
+     *     <li>{@link ByteBuffer}: every chunk is read from the buffer's remaining bytes when it is created.</li>
+     *     <li>{@link InputStream}: the stream is consumed and closed, it is spooled into a temporary file of the
+     *     {@link #setSpillDirectory(Path) spill directory} first because the chunk count must be known up front. The
+     *     file is deleted by {@link #release(List)}.</li>
+     * </ul>
+     *
+     * @param template a {@link BytesMessage} without data, holding the properties of the chunks
+     * @param payload  the payload, see {@link #isStreamable(Object)}
+     * @return the chunk messages, created on demand by {@link List#get(int)}, or the template with the payload as
+     * data if the payload does not exceed the chunk size
+     * @throws IOException if the payload cannot be read
+     */
+    public List<XMLMessage> split(XMLMessage template, Object payload) throws IOException {
+        if (!(template instanceof BytesMessage)) {
+            throw new RuntimeException("LargeMessageSupport is only available for BytesMessage");
         }
-        if (rest > 0) {
-            result.add(createChunkMessage(smfMessage, data, chunks * CHUNK_SIZE, data.length, chunkId, chunkCount - 1, chunkCount));
+
+        Path spoolFile = null;
+        ChunkSource source;
+        if (payload instanceof ByteBuffer byteBuffer) {
+            source = new ByteBufferChunkSource(byteBuffer);
+        } else if (payload instanceof Path path) {
+            source = new PathChunkSource(path, Files.size(path), false);
+        } else if (payload instanceof InputStream inputStream) {
+            spoolFile = spool(inputStream);
+            source = new PathChunkSource(spoolFile, Files.size(spoolFile), true);
+        } else {
+            throw new IllegalArgumentException(String.format("Payload of type %s cannot be streamed",
+                    payload.getClass().getName()));
         }
-        return result;
+
+        if (source.size() <= chunkSize) {
+            try {
+                byte[] data = new byte[(int) source.size()];
+                source.read(0, data);
+                ((BytesMessage) template).setData(data);
+                return List.of(template);
+            } finally {
+                if (spoolFile != null) {
+                    Files.deleteIfExists(spoolFile);
+                }
+            }
+        }
+
+        return new ChunkList(template, source, secureRandom.nextLong(), chunkSize, checksum);
     }
 
-    private static BytesMessage createChunkMessage(XMLMessage original, byte[] data, int from, int to, long chunkId, int index, int chunkCount) {
-        byte[] dataChunk = Arrays.copyOfRange(data, from, to);
-        BytesMessage bytesMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
-        bytesMessage.setData(dataChunk);
-        bytesMessage.setHTTPContentType(original.getHTTPContentType());
-        bytesMessage.setDeliveryMode(original.getDeliveryMode());
-        bytesMessage.setPriority(original.getPriority());
-        bytesMessage.setCorrelationKey(original.getCorrelationKey());
-        SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
+    /**
+     * Release the resources of the chunks created by {@link #split(XMLMessage, Object)}, such as the spool file of an
+     * {@link InputStream} payload, once all chunks were published or publishing failed.
+     * <p>Chunks requested afterwards only carry the chunk's properties but no data, so that they can still be
+     * reported as the raw message of a failed publish.</p>
+     *
+     * @param chunks the chunks, other lists are ignored
+     */
+    public static void release(List<XMLMessage> chunks) {
+        if (chunks instanceof ChunkList chunkList) {
+            chunkList.release();
+        }
+    }
+
+    private Path spool(InputStream inputStream) throws IOException {
+        Path spoolFile = spillDirectory == null ? Files.createTempFile("solace-large-message-", ".spool")
+                : Files.createTempFile(spillDirectory, "solace-large-message-", ".spool");
+        try (inputStream) {
+            Files.copy(inputStream, spoolFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            deleteSpoolFile(spoolFile);
+            throw e;
+        }
+        return spoolFile;
+    }
+
+    private static void deleteSpoolFile(Path spoolFile) {
         try {
-            metadata.putAll(original.getProperties());
-            if (!metadata.containsKey(SolaceBinderHeaders.PARTITION_KEY)) {
-                metadata.putString(SolaceBinderHeaders.PARTITION_KEY, chunkId + "");
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            log.warn("Failed to delete large message spool file {}", spoolFile, e);
+        }
+    }
+
+    /**
+     * The payload of a large message, read chunk by chunk.
+     */
+    private interface ChunkSource {
+        long size();
+
+        /**
+         * Fill {@code buffer} with the payload bytes starting at {@code offset}.
+         */
+        void read(long offset, byte[] buffer) throws IOException;
+
+        default void writeChunk(BytesMessage chunk, long offset, int length) throws IOException {
+            byte[] buffer = new byte[length];
+            read(offset, buffer);
+            chunk.writeAttachment(buffer);
+        }
+
+        /**
+         * Release the resources of the source, it is not read afterwards.
+         */
+        default void release() {
+        }
+    }
+
+    private record ByteArrayChunkSource(byte[] data) implements ChunkSource {
+        @Override
+        public long size() {
+            return data.length;
+        }
+
+        @Override
+        public void read(long offset, byte[] buffer) {
+            System.arraycopy(data, (int) offset, buffer, 0, buffer.length);
+        }
+
+        @Override
+        public void writeChunk(BytesMessage chunk, long offset, int length) {
+            // only JCSMP's own message buffer holds a copy of the chunk
+            chunk.writeAttachment(data, (int) offset, length);
+        }
+    }
+
+    private static final class ByteBufferChunkSource implements ChunkSource {
+        private final ByteBuffer data;
+
+        private ByteBufferChunkSource(ByteBuffer data) {
+            this.data = data.slice();
+        }
+
+        @Override
+        public long size() {
+            return data.limit();
+        }
+
+        @Override
+        public void read(long offset, byte[] buffer) {
+            data.get((int) offset, buffer);
+        }
+
+        @Override
+        public void writeChunk(BytesMessage chunk, long offset, int length) throws IOException {
+            if (data.hasArray()) {
+                chunk.writeAttachment(data.array(), data.arrayOffset() + (int) offset, length);
+            } else {
+                ChunkSource.super.writeChunk(chunk, offset, length);
+            }
+        }
+    }
+
+    /**
+     * @param spooled whether the file is a spool file of the binder which is deleted on release
+     */
+    private record PathChunkSource(Path path, long size, boolean spooled) implements ChunkSource {
+        @Override
+        public void read(long offset, byte[] buffer) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                channel.map(FileChannel.MapMode.READ_ONLY, offset, buffer.length).get(buffer);
+            }
+        }
+
+        @Override
+        public void release() {
+            if (spooled) {
+                deleteSpoolFile(path);
+            }
+        }
+    }
+
+    /**
+     * Chunks of a large message, each created when it is requested.
+     * <p>With checksums, the checksum of every created chunk is kept so that the message checksum of the last chunk
+     * does not need another pass over the payload when the chunks are requested in order.</p>
+     */
+    private static final class ChunkList extends AbstractList<XMLMessage> implements RandomAccess {
+        private final XMLMessage original;
+        private final ChunkSource source;
+        private final SDTMap chunkMetadata;
+        private final int chunkCount;
+        private final int chunkSize;
+        private final int[] checksums;
+        private final BitSet checksummed;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ChunkList(XMLMessage original, ChunkSource source, long chunkId, int chunkSize, boolean checksum) {
+            this.original = original;
+            this.source = source;
+            this.chunkSize = chunkSize;
+            this.chunkCount = Math.toIntExact(source.size() / chunkSize + (source.size() % chunkSize > 0 ? 1 : 0));
+            this.chunkMetadata = createChunkMetadata(original, chunkId, chunkCount);
+            this.checksums = checksum ? new int[chunkCount] : null;
+            this.checksummed = checksum ? new BitSet(chunkCount) : null;
+        }
+
+        private static SDTMap createChunkMetadata(XMLMessage original, long chunkId, int chunkCount) {
+            SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
+            try {
+                metadata.putAll(original.getProperties());
+                if (!metadata.containsKey(SolaceBinderHeaders.PARTITION_KEY)) {
+                    metadata.putString(SolaceBinderHeaders.PARTITION_KEY, chunkId + "");
+                }
+                metadata.putLong(SolaceBinderHeaders.CHUNK_ID, chunkId);
+                metadata.putInteger(SolaceBinderHeaders.CHUNK_COUNT, chunkCount);
+            } catch (SDTException e) {
+                throw new RuntimeException(e);
+            }
+            return metadata;
+        }
+
+        /**
+         * @throws UncheckedIOException if the chunk cannot be read from the payload
+         */
+        @Override
+        public XMLMessage get(int index) {
+            Objects.checkIndex(index, chunkCount);
+            BytesMessage bytesMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+            boolean withData = !released.get();
+            if (withData) {
+                try {
+                    source.writeChunk(bytesMessage, offset(index), length(index));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            bytesMessage.setHTTPContentType(original.getHTTPContentType());
+            bytesMessage.setDeliveryMode(original.getDeliveryMode());
+            bytesMessage.setPriority(original.getPriority());
+            bytesMessage.setCorrelationKey(original.getCorrelationKey());
+            SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
+            try {
+                metadata.putAll(chunkMetadata);
+                metadata.putInteger(SolaceBinderHeaders.CHUNK_INDEX, index);
+                if (checksums != null && withData) {
+                    checksums[index] = checksum(bytesMessage.getAttachmentByteBuffer());
+                    checksummed.set(index);
+                    metadata.putInteger(SolaceBinderHeaders.CHUNK_CHECKSUM, checksums[index]);
+                    if (index == chunkCount - 1) {
+                        metadata.putInteger(SolaceBinderHeaders.CHUNK_MESSAGE_CHECKSUM, messageChecksum());
+                    }
+                }
+            } catch (SDTException e) {
+                throw new RuntimeException(e);
+            }
+            bytesMessage.setProperties(metadata);
+            return bytesMessage;
+        }
+
+        /**
+         * @throws UncheckedIOException if a chunk which was not requested before cannot be read from the payload
+         */
+        private int messageChecksum() {
+            for (int i = checksummed.nextClearBit(0); i < chunkCount; i = checksummed.nextClearBit(i + 1)) {
+                byte[] buffer = new byte[length(i)];
+                try {
+                    source.read(offset(i), buffer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                checksums[i] = checksum(ByteBuffer.wrap(buffer));
+                checksummed.set(i);
+            }
+            return LargeMessageSupport.messageChecksum(checksums);
+        }
+
+        private long offset(int index) {
+            return (long) index * chunkSize;
+        }
+
+        private int length(int index) {
+            return (int) Math.min(chunkSize, source.size() - offset(index));
+        }
+
+        @Override
+        public int size() {
+            return chunkCount;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                source.release();
             }
-            metadata.putLong(SolaceBinderHeaders.CHUNK_ID, chunkId);
-            metadata.putInteger(SolaceBinderHeaders.CHUNK_INDEX, index);
-            metadata.putInteger(SolaceBinderHeaders.CHUNK_COUNT, chunkCount);
-        } catch (SDTException e) {
-            throw new RuntimeException(e);
         }
-        bytesMessage.setProperties(metadata);
-        return bytesMessage;
+    }
+
+    private record ChunkKey(long chunkId, int chunkIndex) {
     }
 
     public record MessageContextBytes(BytesMessage bytesMessage, AcknowledgmentCallback acknowledgmentCallback, Instant timestamp) {
     }
 
-    public record MessageContext(BytesXMLMessage bytesMessage, AcknowledgmentCallback acknowledgmentCallback, Instant timestamp) {
+    /**
+     * The chunks of a large message received so far.
+     * <p>Every slot of {@link #chunks} is claimed once, its offset, length and checksum are published to the
+     * completing thread by {@link #received}.</p>
+     */
+    private final class Assembly implements LargeMessageExpiryService.Expirable {
+        private final long chunkId;
+        private final long startNanos = System.nanoTime();
+        private final AtomicReferenceArray<MessageContextBytes> chunks;
+        private final long[] offsets;
+        private final int[] lengths;
+        private final int[] checksums;
+        private final boolean[] checksummed;
+        /**
+         * The expected {@link SolaceBinderHeaders#CHUNK_MESSAGE_CHECKSUM}, {@code null} until the last chunk was
+         * received or if the message has no checksum.
+         */
+        private Integer messageChecksum;
+        private final AtomicInteger received = new AtomicInteger();
+        /**
+         * Running byte total of the received chunks, the offset of the next chunk.
+         */
+        private final AtomicLong size = new AtomicLong();
+        private final AtomicLong heldBytes = new AtomicLong();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private final SpillFile spillFile;
+        private volatile long lastUpdate = Instant.now().toEpochMilli();
+
+        private Assembly(long chunkId, int chunkCount, SpillFile spillFile) {
+            this.chunkId = chunkId;
+            this.chunks = new AtomicReferenceArray<>(chunkCount);
+            this.offsets = new long[chunkCount];
+            this.lengths = new int[chunkCount];
+            this.checksums = new int[chunkCount];
+            this.checksummed = new boolean[chunkCount];
+            this.spillFile = spillFile;
+        }
+
+        /**
+         * @return {@code false} if the chunks do not belong to the message of the last chunk's message checksum
+         */
+        private boolean isMessageChecksumValid() {
+            if (messageChecksum == null) {
+                return true;
+            }
+            for (boolean chunkChecksummed : checksummed) {
+                if (!chunkChecksummed) {
+                    return false;
+                }
+            }
+            return messageChecksum == messageChecksum(checksums);
+        }
+
+        @Override
+        public long getDeadline() {
+            return lastUpdate + receiveTimeoutMs;
+        }
+
+        @Override
+        public boolean isDone() {
+            return released.get();
+        }
+
+        @Override
+        public void expire() {
+            LargeMessageSupport.this.expire(this);
+        }
+
+        @Override
+        public String toString() {
+            return "large message " + chunkId;
+        }
+    }
+
+    /**
+     * Temporary file holding the chunks of a large message in arrival order.
+     */
+    private static final class SpillFile {
+        private final Path file;
+        private final FileChannel channel;
+
+        private SpillFile(Path directory) throws IOException {
+            this.file = directory == null ? Files.createTempFile("solace-large-message-", ".assembly")
+                    : Files.createTempFile(directory, "solace-large-message-", ".assembly");
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        private void write(long offset, ByteBuffer data) throws IOException {
+            ByteBuffer chunk = data.duplicate();
+            long position = offset;
+            while (chunk.hasRemaining()) {
+                position += channel.write(chunk, position);
+            }
+        }
+
+        /**
+         * Map the assembled payload and release the file, the mapping stays valid until it is garbage collected.
+         */
+        private ByteBuffer map(long[] offsets, int[] lengths, long size) throws IOException {
+            try {
+                boolean inOrder = true;
+                for (int i = 1; i < offsets.length; i++) {
+                    inOrder &= offsets[i] == offsets[i - 1] + lengths[i - 1];
+                }
+                if (inOrder) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                Path ordered = Files.createTempFile(file.getParent(), "solace-large-message-", ".assembly");
+                try (FileChannel orderedChannel = FileChannel.open(ordered, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    for (int i = 0; i < offsets.length; i++) {
+                        long transferred = 0;
+                        while (transferred < lengths[i]) {
+                            transferred += channel.transferTo(offsets[i] + transferred, lengths[i] - transferred, orderedChannel);
+                        }
+                    }
+                    return orderedChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                } finally {
+                    delete(ordered);
+                }
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close large message assembly file {}", file, e);
+            }
+            delete(file);
+        }
+
+        private static void delete(Path file) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // a mapped file cannot be deleted on some platforms
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * @param payload the assembled payload if it is not held by {@link #bytesMessage()}, otherwise {@code null}
+     */
+    public record MessageContext(BytesXMLMessage bytesMessage, AcknowledgmentCallback acknowledgmentCallback, Instant timestamp, ByteBuffer payload) {
+        public MessageContext(BytesXMLMessage bytesMessage, AcknowledgmentCallback acknowledgmentCallback, Instant timestamp) {
+            this(bytesMessage, acknowledgmentCallback, timestamp, null);
+        }
     }
 }
@@ -0,0 +1,11 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+/**
+ * Signals that a producer binding has reached its {@code maxInFlightMessages} and the message was not published.
+ * The message can be published again once the broker acknowledged some of the in-flight messages.
+ */
+public class SolacePublishBackpressureException extends RuntimeException {
+    public SolacePublishBackpressureException(String message) {
+        super(message);
+    }
+}
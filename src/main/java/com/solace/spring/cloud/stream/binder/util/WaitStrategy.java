@@ -0,0 +1,79 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * How a thread waits for a bounded queue to get an element or free capacity.
+ */
+public enum WaitStrategy {
+    /**
+     * Busy spin, lowest latency but every waiting thread occupies a CPU core.
+     */
+    SPIN {
+        @Override
+        public void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+    /**
+     * Yield the CPU to other threads between the attempts.
+     */
+    YIELD {
+        @Override
+        public void idle(int attempt) {
+            Thread.yield();
+        }
+    },
+    /**
+     * Spin and yield briefly, then park with an exponential backoff of up to 1 ms, or until woken up by the thread
+     * adding work for the {@link IdleThreads} parked in {@link #idle(int, IdleThreads, BooleanSupplier)}.
+     */
+    PARK {
+        private static final int SPINS = 64;
+        private static final int YIELDS = 64;
+        private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+        private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+        @Override
+        public void idle(int attempt) {
+            if (attempt < SPINS) {
+                Thread.onSpinWait();
+            } else if (attempt < SPINS + YIELDS) {
+                Thread.yield();
+            } else {
+                int shift = Math.min(attempt - SPINS - YIELDS, 20);
+                LockSupport.parkNanos(Math.min(1000L << shift, MAX_PARK_NANOS));
+            }
+        }
+
+        @Override
+        public void idle(int attempt, IdleThreads idleThreads, BooleanSupplier hasWork) {
+            if (attempt < SPINS + YIELDS) {
+                idle(attempt);
+            } else {
+                // woken up by the thread adding work, the timeout only bounds a missed wake up
+                idleThreads.park(hasWork, MAX_IDLE_PARK_NANOS);
+            }
+        }
+    };
+
+    /**
+     * Wait before the next attempt.
+     *
+     * @param attempt the number of failed attempts so far
+     */
+    public abstract void idle(int attempt);
+
+    /**
+     * Wait before the next attempt, parking among the given idle threads instead of on a timer if the strategy parks.
+     *
+     * @param attempt     the number of failed attempts so far
+     * @param idleThreads the threads woken up when work is added
+     * @param hasWork     whether the calling thread has work, checked after it registered as idle
+     */
+    public void idle(int attempt, IdleThreads idleThreads, BooleanSupplier hasWork) {
+        idle(attempt);
+    }
+}
@@ -4,7 +4,10 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
-import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaderMeta;
+import com.solace.spring.cloud.stream.binder.codec.BinaryValueEncoding;
+import com.solace.spring.cloud.stream.binder.codec.JavaSerializationPayloadCodec;
+import com.solace.spring.cloud.stream.binder.codec.SolacePayloadCodec;
+import com.solace.spring.cloud.stream.binder.codec.SolacePayloadCodecRegistry;
 import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
 import com.solace.spring.cloud.stream.binder.messaging.SolaceHeaderMeta;
 import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
@@ -13,7 +16,6 @@ import com.solacesystems.jcsmp.*;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.stream.binder.BinderHeaders;
 import org.springframework.integration.IntegrationMessageHeaderAccessor;
 import org.springframework.integration.acks.AcknowledgmentCallback;
 import org.springframework.integration.support.AbstractIntegrationMessageBuilder;
@@ -24,7 +26,9 @@ import org.springframework.messaging.MessageHeaders;
 import org.springframework.util.MimeType;
 import org.springframework.util.SerializationUtils;
 
+import java.io.ObjectStreamConstants;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -35,6 +39,10 @@ public class XMLMessageMapper {
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private static final MessageBuilderFactory MESSAGE_BUILDER_FACTORY = new DefaultMessageBuilderFactory();
     static final int MESSAGE_VERSION = 1;
+    /**
+     * Serialized headers are stored as raw byte arrays in a nested SDT map, see {@link #setMessageVersion(int)}.
+     */
+    static final int MESSAGE_VERSION_2 = 2;
     static final Encoder DEFAULT_ENCODING = Encoder.BASE64;
 
     private final ObjectWriter stringSetWriter = OBJECT_MAPPER.writerFor(new TypeReference<Set<String>>() {
@@ -42,6 +50,49 @@ public class XMLMessageMapper {
     private final ObjectReader stringSetReader = OBJECT_MAPPER.readerFor(new TypeReference<Set<String>>() {
     });
     private final Set<String> ignoredHeaderProperties = ConcurrentHashMap.newKeySet();
+    private volatile HeaderMappingPlan mappingPlan;
+    private int messageVersion = MESSAGE_VERSION;
+    private SolacePayloadCodecRegistry payloadCodecRegistry = SolacePayloadCodecRegistry.getDefault();
+    private SolacePayloadCodec payloadCodec = payloadCodecRegistry.getRequired(JavaSerializationPayloadCodec.ID);
+
+    /**
+     * Set the message version written by {@link #map(Message, Collection, boolean, DeliveryMode)}.
+     * <ul>
+     *     <li>{@code 1}: serialized headers are Base64 encoded and listed as a JSON array in
+     *     {@link SolaceBinderHeaders#SERIALIZED_HEADERS}.</li>
+     *     <li>{@code 2}: serialized headers are stored as raw byte arrays in an SDT map under
+     *     {@link SolaceBinderHeaders#SERIALIZED_HEADERS}.</li>
+     * </ul>
+     * <p>Both versions are always decoded.</p>
+     *
+     * @param messageVersion the message version
+     */
+    public void setMessageVersion(int messageVersion) {
+        if (messageVersion != MESSAGE_VERSION && messageVersion != MESSAGE_VERSION_2) {
+            throw new IllegalArgumentException(String.format("Unsupported message version %s, expected [ %s|%s ]",
+                    messageVersion, MESSAGE_VERSION, MESSAGE_VERSION_2));
+        }
+        this.messageVersion = messageVersion;
+    }
+
+    /**
+     * Set the codecs used to decode payloads flagged with {@link SolaceBinderHeaders#PAYLOAD_CODEC}.
+     *
+     * @param payloadCodecRegistry the codec registry
+     */
+    public void setPayloadCodecRegistry(SolacePayloadCodecRegistry payloadCodecRegistry) {
+        this.payloadCodecRegistry = payloadCodecRegistry;
+    }
+
+    /**
+     * Set the codec used to encode payloads which are not natively supported by PubSub+ messages.
+     * Payloads which this codec cannot encode fall back to Java serialization if they are {@link Serializable}.
+     *
+     * @param payloadCodec the payload codec
+     */
+    public void setPayloadCodec(SolacePayloadCodec payloadCodec) {
+        this.payloadCodec = payloadCodec;
+    }
 
     public BytesXMLMessage mapError(BytesXMLMessage inputMessage, SolaceConsumerProperties consumerProperties) {
         BytesXMLMessage errorMessage = JCSMPFactory.onlyInstance().createMessage(inputMessage);
@@ -65,8 +116,9 @@ public class XMLMessageMapper {
     @SneakyThrows
     XMLMessage map(Object payload, Map<String, Object> headers, UUID messageId, Collection<String> excludedHeaders, boolean convertNonSerializableHeadersToString, DeliveryMode deliveryMode) {
         XMLMessage xmlMessage;
-        SDTMap metadata = map(headers, excludedHeaders, convertNonSerializableHeadersToString);
-        metadata.putInteger(SolaceBinderHeaders.MESSAGE_VERSION, MESSAGE_VERSION);
+        HeaderMappingPlan plan = getMappingPlan(excludedHeaders);
+        SDTMap metadata = map(headers, plan, convertNonSerializableHeadersToString);
+        metadata.putInteger(SolaceBinderHeaders.MESSAGE_VERSION, messageVersion);
         if (payload instanceof byte[]) {
             BytesMessage bytesMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
             bytesMessage.setData((byte[]) payload);
@@ -83,16 +135,8 @@ public class XMLMessageMapper {
             MapMessage mapMessage = JCSMPFactory.onlyInstance().createMessage(MapMessage.class);
             mapMessage.setMap((SDTMap) payload);
             xmlMessage = mapMessage;
-        } else if (payload instanceof Serializable) {
-            BytesMessage bytesMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
-            bytesMessage.setData(SerializationUtils.serialize(payload));
-            metadata.putBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD, true);
-            xmlMessage = bytesMessage;
         } else {
-            String msg = String.format("Invalid payload received. Expected %s. Received: %s", String.join(", ", byte[].class.getSimpleName(), String.class.getSimpleName(), SDTStream.class.getSimpleName(), SDTMap.class.getSimpleName(), Serializable.class.getSimpleName()), payload.getClass().getName());
-            SolaceMessageConversionException exception = new SolaceMessageConversionException(msg);
-            log.warn(msg, exception);
-            throw exception;
+            xmlMessage = encodePayload(payload, metadata);
         }
 
         Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
@@ -102,11 +146,7 @@ public class XMLMessageMapper {
         }
 
         // Copy Solace properties from Spring Message to JCSMP XMLMessage
-        for (Map.Entry<String, SolaceHeaderMeta<?>> header : SolaceHeaderMeta.META.entrySet()) {
-            if (!header.getValue().isWritable()) {
-                continue;
-            }
-
+        for (Map.Entry<String, SolaceHeaderMeta<?>> header : plan.getWritableSolaceHeaders()) {
             Object value = headers.get(header.getKey());
             if (value != null) {
                 if (!header.getValue().getType().isInstance(value)) {
@@ -142,24 +182,61 @@ public class XMLMessageMapper {
     }
 
     public Message<?> map(XMLMessage xmlMessage, AcknowledgmentCallback acknowledgmentCallback, boolean setRawMessageHeader, SolaceConsumerProperties solaceConsumerProperties) {
+        return map(xmlMessage, null, acknowledgmentCallback, setRawMessageHeader, solaceConsumerProperties);
+    }
+
+    /**
+     * Map a {@link BytesMessage} whose payload is not held in its binary attachment, e.g. a large message which was
+     * reassembled on disk.
+     *
+     * @param data the payload replacing the message's binary attachment, or {@code null} to use the attachment
+     */
+    public Message<?> map(XMLMessage xmlMessage, ByteBuffer data, AcknowledgmentCallback acknowledgmentCallback, boolean setRawMessageHeader, SolaceConsumerProperties solaceConsumerProperties) {
         try {
-            return injectRootMessageHeaders(mapInternal(xmlMessage, solaceConsumerProperties), acknowledgmentCallback, setRawMessageHeader ? xmlMessage : null).build();
+            return injectRootMessageHeaders(mapInternal(xmlMessage, data, solaceConsumerProperties), acknowledgmentCallback, setRawMessageHeader ? xmlMessage : null).build();
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
     }
 
+    private BytesMessage encodePayload(Object payload, SDTMap metadata) throws SDTException {
+        SolacePayloadCodec codec;
+        if (payloadCodec.canEncode(payload)) {
+            codec = payloadCodec;
+        } else if (payload instanceof Serializable) {
+            codec = payloadCodecRegistry.getRequired(JavaSerializationPayloadCodec.ID);
+        } else {
+            String msg = String.format("Invalid payload received. Expected %s. Received: %s", String.join(", ", byte[].class.getSimpleName(), String.class.getSimpleName(), SDTStream.class.getSimpleName(), SDTMap.class.getSimpleName(), Serializable.class.getSimpleName()), payload.getClass().getName());
+            SolaceMessageConversionException exception = new SolaceMessageConversionException(msg);
+            log.warn(msg, exception);
+            throw exception;
+        }
+
+        BytesMessage bytesMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        bytesMessage.setData(codec.encode(payload));
+        if (JavaSerializationPayloadCodec.ID.equals(codec.getId())) {
+            metadata.putBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD, true);
+        } else {
+            metadata.putString(SolaceBinderHeaders.PAYLOAD_CODEC, codec.getId());
+            metadata.putString(SolaceBinderHeaders.PAYLOAD_TYPE, payload.getClass().getName());
+        }
+        return bytesMessage;
+    }
+
     @SneakyThrows
-    private AbstractIntegrationMessageBuilder<?> mapInternal(XMLMessage xmlMessage, SolaceConsumerProperties solaceConsumerProperties) {
+    private AbstractIntegrationMessageBuilder<?> mapInternal(XMLMessage xmlMessage, ByteBuffer data, SolaceConsumerProperties solaceConsumerProperties) {
         SDTMap metadata = xmlMessage.getProperties();
-        List<String> excludedHeaders = solaceConsumerProperties.getHeaderExclusions();
+        HeaderMappingPlan plan = getMappingPlan(solaceConsumerProperties.getHeaderExclusions());
 
         Object payload;
         if (xmlMessage instanceof BytesMessage) {
-            payload = ((BytesMessage) xmlMessage).getData();
-            if (metadata != null && metadata.containsKey(SolaceBinderHeaders.SERIALIZED_PAYLOAD)) {
+            payload = data != null ? data : ((BytesMessage) xmlMessage).getData();
+            if (metadata != null && payload != null && metadata.containsKey(SolaceBinderHeaders.PAYLOAD_CODEC)) {
+                payload = payloadCodecRegistry.getRequired(metadata.getString(SolaceBinderHeaders.PAYLOAD_CODEC))
+                        .decode(toByteArray(payload), metadata.getString(SolaceBinderHeaders.PAYLOAD_TYPE));
+            } else if (metadata != null && metadata.containsKey(SolaceBinderHeaders.SERIALIZED_PAYLOAD)) {
                 if (metadata.getBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD)) {
-                    payload = SerializationUtils.deserialize((byte[]) payload);
+                    payload = SerializationUtils.deserialize(toByteArray(payload));
                 }
             }
         } else if (xmlMessage instanceof TextMessage) {
@@ -191,7 +268,7 @@ public class XMLMessageMapper {
             }
         }
 
-        AbstractIntegrationMessageBuilder<?> builder = MESSAGE_BUILDER_FACTORY.withPayload(payload).copyHeaders(map(metadata, excludedHeaders)).setHeaderIfAbsent(MessageHeaders.CONTENT_TYPE, xmlMessage.getHTTPContentType());
+        AbstractIntegrationMessageBuilder<?> builder = MESSAGE_BUILDER_FACTORY.withPayload(payload).copyHeaders(map(metadata, plan)).setHeaderIfAbsent(MessageHeaders.CONTENT_TYPE, xmlMessage.getHTTPContentType());
 
         if (isNullPayload) {
             if (log.isDebugEnabled()) {
@@ -200,13 +277,7 @@ public class XMLMessageMapper {
             builder.setHeader(SolaceBinderHeaders.NULL_PAYLOAD, isNullPayload);
         }
 
-        for (Map.Entry<String, SolaceHeaderMeta<?>> header : SolaceHeaderMeta.META.entrySet()) {
-            if (!header.getValue().isReadable()) {
-                continue;
-            }
-            if (excludedHeaders != null && excludedHeaders.contains(header.getKey())) {
-                continue;
-            }
+        for (Map.Entry<String, SolaceHeaderMeta<?>> header : plan.getReadableSolaceHeaders()) {
             if (ignoredHeaderProperties.contains(header.getKey())) {
                 continue;
             }
@@ -223,23 +294,42 @@ public class XMLMessageMapper {
         return builder;
     }
 
+    private static byte[] toByteArray(Object payload) {
+        if (payload instanceof ByteBuffer byteBuffer) {
+            byte[] bytes = new byte[byteBuffer.remaining()];
+            byteBuffer.duplicate().get(bytes);
+            return bytes;
+        }
+        return (byte[]) payload;
+    }
+
     private <T> AbstractIntegrationMessageBuilder<T> injectRootMessageHeaders(AbstractIntegrationMessageBuilder<T> builder, AcknowledgmentCallback acknowledgmentCallback, Object sourceData) {
         return builder.setHeader(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK, acknowledgmentCallback).setHeaderIfAbsent(IntegrationMessageHeaderAccessor.DELIVERY_ATTEMPT, new AtomicInteger(0)).setHeader(IntegrationMessageHeaderAccessor.SOURCE_DATA, sourceData);
     }
 
-    @SneakyThrows
+    /**
+     * Return the mapping plan for the given header exclusions.
+     * Bindings pass the same exclusions instance for every message, so the plan is compiled once per binding.
+     */
+    HeaderMappingPlan getMappingPlan(Collection<String> excludedHeaders) {
+        HeaderMappingPlan plan = mappingPlan;
+        if (plan == null || !plan.isCompiledFor(excludedHeaders)) {
+            plan = HeaderMappingPlan.compile(excludedHeaders);
+            mappingPlan = plan;
+        }
+        return plan;
+    }
+
     SDTMap map(Map<String, Object> headers, Collection<String> excludedHeaders, boolean convertNonSerializableHeadersToString) {
+        return map(headers, getMappingPlan(excludedHeaders), convertNonSerializableHeadersToString);
+    }
+
+    @SneakyThrows
+    private SDTMap map(Map<String, Object> headers, HeaderMappingPlan plan, boolean convertNonSerializableHeadersToString) {
         SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
-        Set<String> serializedHeaders = new HashSet<>();
+        Map<String, byte[]> serializedHeaders = new LinkedHashMap<>();
         for (Map.Entry<String, Object> header : headers.entrySet()) {
-            if (header.getKey().equalsIgnoreCase(IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK) || header.getKey().equalsIgnoreCase(BinderHeaders.TARGET_DESTINATION) || header.getKey().equalsIgnoreCase(SolaceBinderHeaders.CONFIRM_CORRELATION) || SolaceHeaderMeta.META.containsKey(header.getKey()) || SolaceBinderHeaderMeta.META.containsKey(header.getKey())) {
-                continue;
-            }
-            if (excludedHeaders != null && excludedHeaders.contains(header.getKey())) {
-                continue;
-            }
-            if (IntegrationMessageHeaderAccessor.SOURCE_DATA.equals(header.getKey()) ||
-                    IntegrationMessageHeaderAccessor.ACKNOWLEDGMENT_CALLBACK.equals(header.getKey())) {
+            if (plan.isSkippedOutbound(header.getKey())) {
                 continue;
             }
 
@@ -259,25 +349,44 @@ public class XMLMessageMapper {
         }
 
         if (!serializedHeaders.isEmpty()) {
-            String var1 = stringSetWriter.writeValueAsString(serializedHeaders);
-            metadata.putString(SolaceBinderHeaders.SERIALIZED_HEADERS, var1);
-            metadata.putString(SolaceBinderHeaders.SERIALIZED_HEADERS_ENCODING, DEFAULT_ENCODING.getName());
+            if (messageVersion >= MESSAGE_VERSION_2) {
+                SDTMap serializedHeaderMap = JCSMPFactory.onlyInstance().createMap();
+                for (Map.Entry<String, byte[]> serializedHeader : serializedHeaders.entrySet()) {
+                    serializedHeaderMap.putBytes(serializedHeader.getKey(), serializedHeader.getValue());
+                }
+                metadata.putMap(SolaceBinderHeaders.SERIALIZED_HEADERS, serializedHeaderMap);
+            } else {
+                for (Map.Entry<String, byte[]> serializedHeader : serializedHeaders.entrySet()) {
+                    metadata.putString(serializedHeader.getKey(), DEFAULT_ENCODING.encode(serializedHeader.getValue()));
+                }
+                String var1 = stringSetWriter.writeValueAsString(serializedHeaders.keySet());
+                metadata.putString(SolaceBinderHeaders.SERIALIZED_HEADERS, var1);
+                metadata.putString(SolaceBinderHeaders.SERIALIZED_HEADERS_ENCODING, DEFAULT_ENCODING.getName());
+            }
         }
         return metadata;
     }
 
-    @SneakyThrows
     MessageHeaders map(SDTMap metadata, Collection<String> excludedHeaders) {
+        return map(metadata, getMappingPlan(excludedHeaders));
+    }
+
+    @SneakyThrows
+    private MessageHeaders map(SDTMap metadata, HeaderMappingPlan plan) {
         if (metadata == null) {
             return new MessageHeaders(Collections.emptyMap());
         }
 
-        final Collection<String> exclusionList = excludedHeaders != null ? excludedHeaders : Collections.emptyList();
-
         Map<String, Object> headers = new HashMap<>();
 
         // Deserialize headers
-        if (!exclusionList.contains(SolaceBinderHeaders.SERIALIZED_HEADERS) && metadata.containsKey(SolaceBinderHeaders.SERIALIZED_HEADERS)) {
+        Object serializedHeadersValue = plan.isExcluded(SolaceBinderHeaders.SERIALIZED_HEADERS) ? null :
+                metadata.get(SolaceBinderHeaders.SERIALIZED_HEADERS);
+        if (serializedHeadersValue instanceof SDTMap serializedHeaderMap) { // message version 2
+            for (String headerName : serializedHeaderMap.keySet()) {
+                headers.put(headerName, decodeHeaderValue(serializedHeaderMap.getBytes(headerName)));
+            }
+        } else if (serializedHeadersValue != null) {
             Encoder encoder = null;
             if (metadata.containsKey(SolaceBinderHeaders.SERIALIZED_HEADERS_ENCODING)) {
                 String encoding = metadata.getString(SolaceBinderHeaders.SERIALIZED_HEADERS_ENCODING);
@@ -309,20 +418,18 @@ public class XMLMessageMapper {
             }
         }
 
-        metadata.keySet().stream().filter(h -> !exclusionList.contains(h)).filter(h -> !headers.containsKey(h)).filter(h -> !SolaceBinderHeaderMeta.META.containsKey(h)).filter(h -> !SolaceHeaderMeta.META.containsKey(h)).forEach(h -> {
-            Object value = null;
-            try {
-                value = metadata.get(h);
-            } catch (SDTException e) {
-                throw new RuntimeException(e);
+        for (String h : metadata.keySet()) {
+            if (plan.isSkippedInbound(h) || headers.containsKey(h)) {
+                continue;
             }
+            Object value = metadata.get(h);
             if (value instanceof ByteArray byteArray) {
                 value = byteArray.asBytes();
             }
             headers.put(h, value);
-        });
+        }
 
-        if (!exclusionList.contains(SolaceBinderHeaders.MESSAGE_VERSION) && metadata.containsKey(SolaceBinderHeaders.MESSAGE_VERSION)) {
+        if (!plan.isExcluded(SolaceBinderHeaders.MESSAGE_VERSION) && metadata.containsKey(SolaceBinderHeaders.MESSAGE_VERSION)) {
             int messageVersion = metadata.getInteger(SolaceBinderHeaders.MESSAGE_VERSION);
             headers.put(SolaceBinderHeaders.MESSAGE_VERSION, messageVersion);
         }
@@ -333,14 +440,14 @@ public class XMLMessageMapper {
      * Wrapper function which converts Serializable objects to byte[] if they aren't naturally supported by the SDTMap
      */
     @SneakyThrows
-    private void addSDTMapObject(SDTMap sdtMap, Set<String> serializedHeaders, String key, Object object, boolean convertNonSerializableHeadersToString) {
+    private void addSDTMapObject(SDTMap sdtMap, Map<String, byte[]> serializedHeaders, String key, Object object, boolean convertNonSerializableHeadersToString) {
         try {
             sdtMap.putObject(key, object);
         } catch (IllegalArgumentException | SDTException e) {
-            if (object instanceof Serializable) {
-                String var1 = DEFAULT_ENCODING.encode(SerializationUtils.serialize(object));
-                sdtMap.putString(key, var1);
-                serializedHeaders.add(key);
+            if (messageVersion >= MESSAGE_VERSION_2 && BinaryValueEncoding.canEncode(object)) {
+                serializedHeaders.put(key, BinaryValueEncoding.encode(object));
+            } else if (object instanceof Serializable) {
+                serializedHeaders.put(key, SerializationUtils.serialize(object));
             } else if (convertNonSerializableHeadersToString && object != null) {
                 if (log.isDebugEnabled()) {
                     log.debug(String.format("Irreversibly converting header %s to String", key));
@@ -352,6 +459,23 @@ public class XMLMessageMapper {
         }
     }
 
+    /**
+     * Decode a serialized header value of message version 2, which is Java serialized only if
+     * {@link BinaryValueEncoding} does not support its type.
+     */
+    private static Object decodeHeaderValue(byte[] serializedValue) {
+        if (isJavaSerialized(serializedValue)) {
+            Object value = SerializationUtils.deserialize(serializedValue);
+            return value instanceof ByteArray byteArray ? byteArray.asBytes() : value;
+        }
+        return BinaryValueEncoding.decode(serializedValue);
+    }
+
+    private static boolean isJavaSerialized(byte[] serializedValue) {
+        return serializedValue.length >= 2 &&
+                (short) (((serializedValue[0] & 0xFF) << 8) | (serializedValue[1] & 0xFF)) == ObjectStreamConstants.STREAM_MAGIC;
+    }
+
     enum Encoder {
         BASE64("base64", Base64.getEncoder()::encodeToString, Base64.getDecoder()::decode);
 
@@ -0,0 +1,88 @@
+package com.solace.spring.cloud.stream.binder.codec;
+
+import com.solace.spring.cloud.stream.binder.test.util.SerializableFoo;
+import com.solace.spring.cloud.stream.binder.util.SolaceMessageConversionException;
+import com.solacesystems.jcsmp.DeliveryMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryPayloadCodecTest {
+    private final BinaryPayloadCodec codec = new BinaryPayloadCodec();
+
+    static Stream<Object> payloads() {
+        return Stream.of(true, (byte) -7, (short) 1234, Integer.MIN_VALUE, Long.MAX_VALUE, 1.5f, -2.25d, 'x',
+                UUID.randomUUID(), new BigInteger("-123456789012345678901234567890"), new BigDecimal("-1234.5678"),
+                Instant.ofEpochSecond(1_700_000_000L, 123_456_789), List.of("a", 1), Map.of("key", 2L));
+    }
+
+    @ParameterizedTest
+    @MethodSource("payloads")
+    void roundTrip(Object payload) {
+        assertThat(codec.canEncode(payload)).isTrue();
+        byte[] encoded = codec.encode(payload);
+        assertThat(codec.decode(encoded, payload.getClass().getName())).isEqualTo(payload);
+    }
+
+    @Test
+    void neverSerializes() {
+        SerializableFoo payload = new SerializableFoo("a", "b");
+        assertThat(codec.canEncode(List.of(payload))).isFalse();
+    }
+
+    @Test
+    void unsupportedPayload() {
+        SerializableFoo payload = new SerializableFoo("a", "b");
+        assertThat(codec.canEncode(payload)).isFalse();
+        assertThatThrownBy(() -> codec.encode(payload)).isInstanceOf(SolaceMessageConversionException.class);
+    }
+
+    @Test
+    void roundTripRecord() {
+        codec.addTrustedPackages(Point.class.getPackageName());
+        Line payload = new Line(new Point(1, -2, "start"), new Point(3, 4, null), List.of(DeliveryMode.DIRECT));
+        assertThat(codec.canEncode(payload)).isTrue();
+        byte[] encoded = codec.encode(payload);
+        assertThat(codec.decode(encoded, payload.getClass().getName())).isEqualTo(payload);
+    }
+
+    @Test
+    void rejectsUntrustedRecord() {
+        byte[] encoded = codec.encode(new Point(1, 2, "a"));
+        assertThatThrownBy(() -> codec.decode(encoded, Point.class.getName()))
+                .isInstanceOf(SolaceMessageConversionException.class)
+                .hasMessageContaining("trusted packages");
+        assertThat(new BinaryPayloadCodec().addTrustedPackages("*").decode(encoded, Point.class.getName()))
+                .isEqualTo(new Point(1, 2, "a"));
+    }
+
+    @Test
+    void unsupportedRecordComponent() {
+        record Holder(SerializableFoo foo) {
+        }
+        assertThat(codec.canEncode(new Holder(new SerializableFoo("a", "b")))).isFalse();
+    }
+
+    @Test
+    void unknownTypeTag() {
+        assertThatThrownBy(() -> codec.decode(new byte[]{Byte.MAX_VALUE}, null))
+                .isInstanceOf(SolaceMessageConversionException.class);
+    }
+
+    record Point(int x, int y, String label) {
+    }
+
+    record Line(Point from, Point to, List<DeliveryMode> modes) {
+    }
+}
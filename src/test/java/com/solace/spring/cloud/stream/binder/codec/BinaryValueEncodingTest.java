@@ -0,0 +1,86 @@
+package com.solace.spring.cloud.stream.binder.codec;
+
+import com.solace.spring.cloud.stream.binder.test.util.SerializableFoo;
+import com.solace.spring.cloud.stream.binder.util.SolaceMessageConversionException;
+import com.solacesystems.jcsmp.DeliveryMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryValueEncodingTest {
+
+    static Stream<Object> values() {
+        return Stream.of(true, (byte) -7, (short) 1234, Integer.MIN_VALUE, Long.MAX_VALUE, 1.5f, -2.25d, 'x',
+                "some text äöü", UUID.randomUUID(), new BigInteger("-123456789012345678901234567890"),
+                new BigDecimal("-1234.5678"), Instant.ofEpochSecond(1_700_000_000L, 123_456_789),
+                Duration.ofMillis(1500), new Date(1_700_000_000_000L), MimeTypeUtils.APPLICATION_JSON,
+                DeliveryMode.PERSISTENT, List.of("a", 1, UUID.randomUUID()), Set.of(1L, 2L),
+                Map.of("key", List.of(Map.of("nested", true))), new ArrayList<>());
+    }
+
+    @ParameterizedTest
+    @MethodSource("values")
+    void roundTrip(Object value) {
+        assertThat(BinaryValueEncoding.canEncode(value)).isTrue();
+        assertThat(BinaryValueEncoding.decode(BinaryValueEncoding.encode(value))).isEqualTo(value);
+    }
+
+    @Test
+    void roundTripNullAndBytes() {
+        assertThat(BinaryValueEncoding.decode(BinaryValueEncoding.encode(null))).isNull();
+        List<Object> list = new ArrayList<>();
+        list.add(null);
+        list.add(new byte[]{1, 2, 3});
+        List<?> decoded = (List<?>) BinaryValueEncoding.decode(BinaryValueEncoding.encode(list));
+        assertThat(decoded).hasSize(2);
+        assertThat(decoded.get(0)).isNull();
+        assertThat((byte[]) decoded.get(1)).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void uuidIsCompact() {
+        assertThat(BinaryValueEncoding.encode(UUID.randomUUID())).hasSize(17);
+    }
+
+    @Test
+    void unsupportedValue() {
+        List<Object> value = List.of("a", new SerializableFoo("a", "b"));
+        assertThat(BinaryValueEncoding.canEncode(value)).isFalse();
+        assertThatThrownBy(() -> BinaryValueEncoding.encode(value)).isInstanceOf(SolaceMessageConversionException.class);
+    }
+
+    @Test
+    void rejectsNonEnumType() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(BinaryValueEncoding.encode(DeliveryMode.PERSISTENT)[0]); // enum type tag
+            out.writeInt(SerializableFoo.class.getName().length());
+            out.writeBytes(SerializableFoo.class.getName());
+            out.writeInt(1);
+            out.writeBytes("a");
+        }
+        assertThatThrownBy(() -> BinaryValueEncoding.decode(bytes.toByteArray()))
+                .isInstanceOf(SolaceMessageConversionException.class)
+                .hasMessageContaining("is not an enum type");
+    }
+
+    @Test
+    void rejectsInvalidLength() {
+        byte[] encoded = BinaryValueEncoding.encode("some text");
+        assertThatThrownBy(() -> BinaryValueEncoding.decode(Arrays.copyOf(encoded, encoded.length - 1)))
+                .isInstanceOf(SolaceMessageConversionException.class);
+    }
+}
@@ -0,0 +1,43 @@
+package com.solace.spring.cloud.stream.binder.codec;
+
+import com.solace.spring.cloud.stream.binder.util.SolaceMessageConversionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JacksonPayloadCodecTest {
+    private final JacksonPayloadCodec codec = new JacksonPayloadCodec();
+
+    @Test
+    void roundTripDefaultTrustedType() {
+        HashMap<String, Object> payload = new HashMap<>(Map.of("foo", "abc123", "bar", 42));
+        assertThat(codec.decode(codec.encode(payload), payload.getClass().getName())).isEqualTo(payload);
+    }
+
+    @Test
+    void rejectsUntrustedType() {
+        byte[] encoded = codec.encode(new Point(1, 2));
+        assertThatThrownBy(() -> codec.decode(encoded, Point.class.getName()))
+                .isInstanceOf(SolaceMessageConversionException.class)
+                .hasMessageContaining("trusted packages");
+        assertThatThrownBy(() -> codec.decode(encoded, "javax.naming.InitialContext[]"))
+                .isInstanceOf(SolaceMessageConversionException.class)
+                .hasMessageContaining("trusted packages");
+    }
+
+    @Test
+    void decodesTrustedPackage() {
+        codec.addTrustedPackages(Point.class.getPackageName());
+        byte[] encoded = codec.encode(new Point(1, 2));
+        assertThat(codec.decode(encoded, Point.class.getName())).isEqualTo(new Point(1, 2));
+        assertThat(codec.decode(codec.encode(new Point[]{new Point(3, 4)}), Point[].class.getName()))
+                .isEqualTo(new Point[]{new Point(3, 4)});
+    }
+
+    record Point(int x, int y) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.solace.spring.cloud.stream.binder.codec;
+
+import com.solace.spring.cloud.stream.binder.util.SolaceMessageConversionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JavaSerializationPayloadCodecTest {
+    private final JavaSerializationPayloadCodec codec = new JavaSerializationPayloadCodec();
+
+    @Test
+    void roundTrip() {
+        HashMap<String, Object> payload = new HashMap<>(Map.of("foo", "abc123", "bar", 42));
+        assertThat(codec.canEncode(payload)).isTrue();
+        assertThat(codec.decode(codec.encode(payload), null)).isEqualTo(payload);
+    }
+
+    @Test
+    void rejectsInvalidData() {
+        assertThatThrownBy(() -> codec.decode(new byte[]{1, 2, 3}, null))
+                .isInstanceOf(SolaceMessageConversionException.class);
+    }
+}
@@ -0,0 +1,125 @@
+package com.solace.spring.cloud.stream.binder.inbound.acknowledge;
+
+import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
+import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.XMLMessage;
+import org.junit.jupiter.api.Test;
+import org.junitpioneer.jupiter.cartesian.CartesianTest;
+import org.mockito.InOrder;
+import org.springframework.integration.acks.AcknowledgmentCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SettlementQueueTest {
+
+    @Test
+    void testSettle_SettlesInEnqueueOrder() throws Exception {
+        List<BytesXMLMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 3 * SettlementQueue.MAX_BATCH_SIZE; i++) {
+            messages.add(mock(BytesXMLMessage.class));
+        }
+        try (SettlementQueue settlementQueue = new SettlementQueue("testSettle_SettlesInEnqueueOrder")) {
+            for (int i = 0; i < messages.size(); i++) {
+                settlementQueue.settle(messages.get(i), i % 2 == 0 ? XMLMessage.Outcome.ACCEPTED : XMLMessage.Outcome.FAILED);
+            }
+            await().atMost(5, TimeUnit.SECONDS).until(() -> settlementQueue.getPendingSettlements() == 0);
+        }
+
+        InOrder inOrder = inOrder(messages.toArray());
+        for (int i = 0; i < messages.size(); i++) {
+            if (i % 2 == 0) {
+                inOrder.verify(messages.get(i)).ackMessage();
+            } else {
+                inOrder.verify(messages.get(i)).settle(XMLMessage.Outcome.FAILED);
+            }
+        }
+    }
+
+    @Test
+    void testClose_SettlesPendingAndLaterMessages() throws Exception {
+        SettlementQueue settlementQueue = new SettlementQueue("testClose_SettlesPendingAndLaterMessages");
+        BytesXMLMessage pending = mock(BytesXMLMessage.class);
+        settlementQueue.settle(pending, XMLMessage.Outcome.REJECTED);
+        settlementQueue.close();
+        verify(pending).settle(XMLMessage.Outcome.REJECTED);
+
+        BytesXMLMessage late = mock(BytesXMLMessage.class);
+        AtomicReference<Thread> settlingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            settlingThread.set(Thread.currentThread());
+            return null;
+        }).when(late).ackMessage();
+        settlementQueue.settle(late, XMLMessage.Outcome.ACCEPTED);
+        verify(late).ackMessage();
+        assertThat(settlingThread).hasValue(Thread.currentThread());
+        assertThat(settlementQueue.getPendingSettlements()).isZero();
+    }
+
+    @Test
+    void testSettle_WakesUpIdleSettler() throws Exception {
+        try (SettlementQueue settlementQueue = new SettlementQueue("testSettle_WakesUpIdleSettler")) {
+            // the settler parks until a settlement is enqueued
+            Thread.sleep(500);
+            BytesXMLMessage message = mock(BytesXMLMessage.class);
+            settlementQueue.settle(message, XMLMessage.Outcome.ACCEPTED);
+            verify(message, timeout(5000)).ackMessage();
+        }
+    }
+
+    @Test
+    void testSettle_ContinuesAfterFailedSettlement() throws Exception {
+        BytesXMLMessage failing = mock(BytesXMLMessage.class);
+        doThrow(new IllegalStateException("closed")).when(failing).ackMessage();
+        BytesXMLMessage next = mock(BytesXMLMessage.class);
+        try (SettlementQueue settlementQueue = new SettlementQueue("testSettle_ContinuesAfterFailedSettlement")) {
+            settlementQueue.settle(failing, XMLMessage.Outcome.ACCEPTED);
+            settlementQueue.settle(next, XMLMessage.Outcome.ACCEPTED);
+            verify(next, timeout(5000)).ackMessage();
+            assertThat(settlementQueue.getPendingSettlements()).isZero();
+        }
+    }
+
+    @Test
+    void testSettle_RecordsLag() {
+        SolaceMeterAccessor solaceMeterAccessor = mock(SolaceMeterAccessor.class);
+        try (SettlementQueue settlementQueue = new SettlementQueue("testSettle_RecordsLag")) {
+            settlementQueue.setSolaceMeterAccessor(solaceMeterAccessor, "binding");
+            verify(solaceMeterAccessor).registerSettlementPendingGauge(eq("binding"), any(AtomicInteger.class));
+
+            settlementQueue.settle(mock(BytesXMLMessage.class), XMLMessage.Outcome.ACCEPTED);
+            verify(solaceMeterAccessor, timeout(5000)).recordSettlementLag(eq("binding"), anyLong());
+        }
+    }
+
+    @CartesianTest(name = "[{index}] status={0}")
+    void testAcknowledgementCallback_EnqueuesSettlement(@CartesianTest.Enum AcknowledgmentCallback.Status status)
+            throws Exception {
+        BytesXMLMessage message = mock(BytesXMLMessage.class);
+        SettlementQueue settlementQueue = mock(SettlementQueue.class);
+        JCSMPAcknowledgementCallback acknowledgementCallback = new JCSMPAcknowledgementCallback(message,
+                Optional.empty(), Optional.of(settlementQueue));
+
+        acknowledgementCallback.acknowledge(status);
+
+        XMLMessage.Outcome outcome = switch (status) {
+            case ACCEPT -> XMLMessage.Outcome.ACCEPTED;
+            case REJECT -> XMLMessage.Outcome.REJECTED;
+            case REQUEUE -> XMLMessage.Outcome.FAILED;
+        };
+        verify(settlementQueue).settle(message, outcome);
+        verify(message, never()).ackMessage();
+        verify(message, never()).settle(any());
+        assertThat(acknowledgementCallback.isAcknowledged()).isTrue();
+    }
+}
@@ -0,0 +1,128 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
+import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.SDTException;
+import com.solacesystems.jcsmp.SDTMap;
+import com.solacesystems.jcsmp.XMLMessage;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DispatchLanesTest {
+    private static final String KEY = XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY;
+
+    @Test
+    void lane_isStableForKey() throws SDTException {
+        DispatchLanes dispatchLanes = new DispatchLanes(4, 64, KEY);
+        for (int i = 0; i < 100; i++) {
+            String key = "key-" + i;
+            assertThat(dispatchLanes.lane(message(key))).isEqualTo(dispatchLanes.lane(message(key)));
+        }
+    }
+
+    @Test
+    void lane_isStableForArrayKeyContent() throws SDTException {
+        DispatchLanes dispatchLanes = new DispatchLanes(1024, 1024, KEY);
+        for (int i = 0; i < 100; i++) {
+            byte[] key = ("key-" + i).getBytes();
+            assertThat(dispatchLanes.lane(messageWithBytesKey(key))).isEqualTo(dispatchLanes.lane(messageWithBytesKey(key.clone())));
+        }
+        assertThat(DispatchLanes.hash(new String[]{"a", "b"})).isEqualTo(DispatchLanes.hash(new String[]{"a", "b"}));
+    }
+
+    @Test
+    void lane_isRoundRobinWithoutKey() throws SDTException {
+        DispatchLanes dispatchLanes = new DispatchLanes(4, 64, KEY);
+        for (int i = 0; i < 8; i++) {
+            assertThat(dispatchLanes.lane(message(null))).isEqualTo(i % 4);
+        }
+    }
+
+    @Test
+    void poll_onlyReturnsMessagesOfItsLane() throws SDTException {
+        DispatchLanes dispatchLanes = new DispatchLanes(2, 64, KEY);
+        BytesXMLMessage message = message("a");
+        int lane = dispatchLanes.lane(message);
+        dispatchLanes.offer(message);
+        assertThat(dispatchLanes.size()).isEqualTo(1);
+
+        assertThat(dispatchLanes.poll(1 - lane)).isNull();
+        assertThat(dispatchLanes.poll(lane)).isSameAs(message);
+        assertThat(dispatchLanes.size()).isZero();
+    }
+
+    @Test
+    void offer_overflowsFullLaneInOrder() throws SDTException {
+        // 8 divided between 2 lanes
+        DispatchLanes dispatchLanes = new DispatchLanes(2, 8, KEY);
+        List<BytesXMLMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            BytesXMLMessage message = message("a");
+            messages.add(message);
+            dispatchLanes.offer(message);
+            assertThat(dispatchLanes.isOverflowed()).isEqualTo(i >= 4);
+        }
+        assertThat(dispatchLanes.size()).isEqualTo(6);
+
+        int lane = dispatchLanes.lane(messages.get(0));
+        assertThat(dispatchLanes.poll(lane)).isSameAs(messages.get(0));
+        // a message offered while the lane overflows follows the overflow, although the lane has free capacity again
+        BytesXMLMessage next = message("a");
+        messages.add(next);
+        dispatchLanes.offer(next);
+        List<BytesXMLMessage> polled = new ArrayList<>();
+        for (BytesXMLMessage message = dispatchLanes.poll(lane); message != null; message = dispatchLanes.poll(lane)) {
+            polled.add(message);
+        }
+        assertThat(polled).containsExactlyElementsOf(messages.subList(1, messages.size()));
+        assertThat(dispatchLanes.isOverflowed()).isFalse();
+        assertThat(dispatchLanes.size()).isZero();
+    }
+
+    @Test
+    void meters_trackLaneSizeAndWaitTime() throws SDTException {
+        SolaceMeterAccessor solaceMeterAccessor = mock(SolaceMeterAccessor.class);
+        DispatchLanes dispatchLanes = new DispatchLanes(2, 64, KEY);
+        ArgumentCaptor<AtomicInteger> laneSize = ArgumentCaptor.forClass(AtomicInteger.class);
+        dispatchLanes.setSolaceMeterAccessor(solaceMeterAccessor, "binding");
+        BytesXMLMessage message = message("a");
+        int lane = dispatchLanes.lane(message);
+        verify(solaceMeterAccessor).registerDispatchLaneGauge(eq("binding"), eq(lane), laneSize.capture());
+
+        dispatchLanes.offer(message);
+        assertThat(laneSize.getValue()).hasValue(1);
+        dispatchLanes.poll(lane);
+        assertThat(laneSize.getValue()).hasValue(0);
+        verify(solaceMeterAccessor).recordDispatchLaneWaitTime(eq("binding"), eq(lane), anyLong());
+    }
+
+    private static BytesXMLMessage messageWithBytesKey(byte[] key) throws SDTException {
+        SDTMap properties = mock(SDTMap.class);
+        when(properties.get(KEY)).thenReturn(key);
+        BytesXMLMessage message = mock(BytesXMLMessage.class);
+        when(message.getProperties()).thenReturn(properties);
+        return message;
+    }
+
+    static BytesXMLMessage message(String key) throws SDTException {
+        SDTMap properties = JCSMPFactory.onlyInstance().createMap();
+        if (key != null) {
+            properties.putString(KEY, key);
+        }
+        BytesXMLMessage message = mock(BytesXMLMessage.class);
+        when(message.getProperties()).thenReturn(properties);
+        return message;
+    }
+}
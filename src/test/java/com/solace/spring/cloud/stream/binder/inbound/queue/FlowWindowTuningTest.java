@@ -0,0 +1,33 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlowWindowTuningTest {
+
+    @ParameterizedTest(name = "[{index}] rate={0} ackTimerMs={1} max={2} highWatermark={3} concurrency={4} flows={5}")
+    @CsvSource({
+            // not measured yet
+            "0,1000,255,0,1,1,255",
+            "0,1000,255,100,1,1,100",
+            "0,1000,255,100,1,4,25",
+            "0,1000,50,100,1,1,50",
+            // one ack timer interval of messages
+            "40,1000,255,0,1,1,40",
+            "40,500,255,0,1,1,20",
+            "40,1000,255,0,1,2,20",
+            "10000,1000,255,0,1,1,255",
+            "10000,1000,255,100,1,2,50",
+            // at least a message per consumer thread
+            "1,1000,255,0,8,1,8",
+            "1,1000,255,0,8,3,3",
+            "1,1000,255,4,8,1,4",
+    })
+    void testWindowSize(double rate, int ackTimerMs, int maxWindowSize, int highWatermarkMessages, int concurrency,
+                        int flowCount, int expected) {
+        assertThat(FlowWindowTuning.windowSize(rate, ackTimerMs, maxWindowSize, highWatermarkMessages, concurrency,
+                flowCount)).isEqualTo(expected);
+    }
+}
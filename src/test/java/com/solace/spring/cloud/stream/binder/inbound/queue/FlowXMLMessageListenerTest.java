@@ -1,18 +1,32 @@
 package com.solace.spring.cloud.stream.binder.inbound.queue;
 
+import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
+import com.solace.spring.cloud.stream.binder.util.WaitStrategy;
 import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.XMLMessage;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junitpioneer.jupiter.cartesian.CartesianTest;
 import org.mockito.Mockito;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.*;
 
@@ -109,6 +123,471 @@ class FlowXMLMessageListenerTest {
         );
     }
 
+    @CartesianTest(name = "[{index}] waitStrategy={0}")
+    void testOnReceive_OverflowsFullQueueWithoutWaiting(@CartesianTest.Enum WaitStrategy waitStrategy) throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        FlowXMLMessageListener.FlowControl flowControl = mock(FlowXMLMessageListener.FlowControl.class);
+        listener.setFlowControl(flowControl, new FlowXMLMessageListener.Watermarks(0, 0, 0, 0));
+        CountDownLatch inProgress = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<BytesXMLMessage> results = Collections.synchronizedList(new ArrayList<>());
+        Consumer<BytesXMLMessage> messageConsumer = message -> {
+            inProgress.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            results.add(message);
+        };
+
+        listener.startReceiverThreads(1, "testOnReceive_OverflowsFullQueueWithoutWaiting-" + waitStrategy, messageConsumer, 1000,
+                2, waitStrategy);
+        try {
+            List<BytesXMLMessage> messages = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                messages.add(mock(BytesXMLMessage.class));
+            }
+            // one message in progress and two queued
+            listener.onReceive(messages.get(0));
+            assertThat(inProgress.await(2, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < 3; i++) {
+                listener.onReceive(messages.get(i));
+            }
+            verify(flowControl, never()).stopFlow();
+
+            // the flow's dispatcher thread does not wait for the receiver thread
+            assertThat(CompletableFuture.runAsync(() -> {
+                listener.onReceive(messages.get(3));
+                listener.onReceive(messages.get(4));
+            })).succeedsWithin(2, TimeUnit.SECONDS);
+            assertThat(listener.isFlowStopped()).isTrue();
+            verify(flowControl).stopFlow();
+
+            release.countDown();
+            await().atMost(2, TimeUnit.SECONDS).until(() -> results.size() == 5);
+            assertThat(results).containsExactlyElementsOf(messages);
+            assertThat(listener.isFlowStopped()).isFalse();
+            verify(flowControl).startFlow();
+        } finally {
+            release.countDown();
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testOnReceive_FailsMessageWhenStopped() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        CountDownLatch release = new CountDownLatch(1);
+        listener.startReceiverThreads(1, "testOnReceive_FailsMessageWhenStopped", message -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1000, 2, WaitStrategy.PARK);
+        try {
+            for (int i = 0; i < 3; i++) {
+                listener.onReceive(mock(BytesXMLMessage.class));
+            }
+            listener.stopReceiverThreads();
+
+            BytesXMLMessage refused = mock(BytesXMLMessage.class);
+            listener.onReceive(refused);
+            verify(refused).settle(XMLMessage.Outcome.FAILED);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testOnReceive_StopsAndStartsFlowAtWatermarks() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        FlowXMLMessageListener.FlowControl flowControl = mock(FlowXMLMessageListener.FlowControl.class);
+        listener.setFlowControl(flowControl, new FlowXMLMessageListener.Watermarks(3, 1, 0, 0));
+        CountDownLatch release = new CountDownLatch(1);
+        listener.startReceiverThreads(1, "testOnReceive_StopsAndStartsFlowAtWatermarks", message -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1000);
+        try {
+            listener.onReceive(mock(BytesXMLMessage.class));
+            // the receiver thread took the first message
+            await().atMost(2, TimeUnit.SECONDS).until(() -> {
+                listener.onReceive(mock(BytesXMLMessage.class));
+                return listener.isFlowStopped();
+            });
+            verify(flowControl).stopFlow();
+            verify(flowControl, never()).startFlow();
+
+            release.countDown();
+            await().atMost(2, TimeUnit.SECONDS).until(() -> !listener.isFlowStopped());
+            verify(flowControl).startFlow();
+        } finally {
+            release.countDown();
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testWatchdog_RecordsQueueSizeWithOverflow() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        SolaceMeterAccessor solaceMeterAccessor = mock(SolaceMeterAccessor.class);
+        listener.setSolaceMeterAccessor(solaceMeterAccessor, "binding");
+        CountDownLatch inProgress = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        listener.startReceiverThreads(1, "testWatchdog_RecordsQueueSizeWithOverflow", message -> {
+            inProgress.countDown();
+            awaitRelease(release);
+        }, 1000, 2, WaitStrategy.PARK);
+        try {
+            listener.onReceive(mock(BytesXMLMessage.class));
+            assertThat(inProgress.await(2, TimeUnit.SECONDS)).isTrue();
+            // two messages in the receive queue and two in its overflow
+            for (int i = 0; i < 4; i++) {
+                listener.onReceive(mock(BytesXMLMessage.class));
+            }
+            verify(solaceMeterAccessor, timeout(2000).atLeastOnce()).recordQueueSize("binding", 4);
+        } finally {
+            release.countDown();
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testStartReceiverThreads_RestartResetsFlowControl() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        FlowXMLMessageListener.FlowControl flowControl = mock(FlowXMLMessageListener.FlowControl.class);
+        listener.setFlowControl(flowControl, new FlowXMLMessageListener.Watermarks(3, 1, 0, 0));
+        String threadNamePrefix = "testStartReceiverThreads_RestartResetsFlowControl";
+        CountDownLatch firstRelease = new CountDownLatch(1);
+        CountDownLatch secondRelease = new CountDownLatch(1);
+        listener.startReceiverThreads(1, threadNamePrefix, message -> awaitRelease(firstRelease), 1000);
+        try {
+            await().atMost(2, TimeUnit.SECONDS).until(() -> {
+                listener.onReceive(mock(BytesXMLMessage.class));
+                return listener.isFlowStopped();
+            });
+            verify(flowControl).stopFlow();
+
+            // the messages buffered for the stopped receiver threads are redelivered by the broker
+            listener.stopReceiverThreads();
+            assertThat(listener.isFlowStopped()).isFalse();
+            firstRelease.countDown();
+
+            listener.startReceiverThreads(1, threadNamePrefix, message -> awaitRelease(secondRelease), 1000);
+            listener.onReceive(mock(BytesXMLMessage.class));
+            assertThat(listener.isFlowStopped()).isFalse();
+            await().atMost(2, TimeUnit.SECONDS).until(() -> {
+                listener.onReceive(mock(BytesXMLMessage.class));
+                return listener.isFlowStopped();
+            });
+            verify(flowControl, times(2)).stopFlow();
+            verify(flowControl, never()).startFlow();
+
+            secondRelease.countDown();
+            await().atMost(2, TimeUnit.SECONDS).until(() -> !listener.isFlowStopped());
+            verify(flowControl).startFlow();
+        } finally {
+            firstRelease.countDown();
+            secondRelease.countDown();
+            listener.stopReceiverThreads();
+        }
+    }
+
+    private static void awaitRelease(CountDownLatch release) {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testOnReceive_StopsFlowAtBytesWatermark() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        FlowXMLMessageListener.FlowControl flowControl = mock(FlowXMLMessageListener.FlowControl.class);
+        listener.setFlowControl(flowControl, new FlowXMLMessageListener.Watermarks(0, 0, 250, 100));
+
+        // no receiver threads, so that the messages stay buffered
+        for (int i = 0; i < 2; i++) {
+            BytesXMLMessage message = mock(BytesXMLMessage.class);
+            when(message.getAttachmentContentLength()).thenReturn(100);
+            listener.onReceive(message);
+        }
+        verify(flowControl, never()).stopFlow();
+
+        BytesXMLMessage message = mock(BytesXMLMessage.class);
+        when(message.getAttachmentContentLength()).thenReturn(100);
+        listener.onReceive(message);
+        assertThat(listener.isFlowStopped()).isTrue();
+        verify(flowControl).stopFlow();
+    }
+
+    @Test
+    void testWatermarks_LowMustBeLessThanHigh() {
+        assertThatThrownBy(() -> new FlowXMLMessageListener.Watermarks(10, 10, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FlowXMLMessageListener.Watermarks(0, 0, 100, 200))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new FlowXMLMessageListener.Watermarks(0, 0, 0, 0).isEnabled()).isFalse();
+    }
+
+    @Test
+    void testKeyOrderedDispatch_ProcessesSameKeyInOrder() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.setKeyOrderedDispatch(XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY);
+        Map<BytesXMLMessage, String> keys = new ConcurrentHashMap<>();
+        Map<String, List<BytesXMLMessage>> processed = new ConcurrentHashMap<>();
+        Set<String> activeKeys = ConcurrentHashMap.newKeySet();
+        AtomicInteger concurrentSameKey = new AtomicInteger();
+        listener.startReceiverThreads(4, "testKeyOrderedDispatch_ProcessesSameKeyInOrder", message -> {
+            String key = keys.get(message);
+            if (!activeKeys.add(key)) {
+                concurrentSameKey.incrementAndGet();
+            }
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>())).add(message);
+            activeKeys.remove(key);
+        }, 1000);
+        try {
+            Map<String, List<BytesXMLMessage>> sent = new HashMap<>();
+            for (int i = 0; i < 200; i++) {
+                String key = "key-" + (i % 8);
+                BytesXMLMessage message = DispatchLanesTest.message(key);
+                keys.put(message, key);
+                sent.computeIfAbsent(key, k -> new ArrayList<>()).add(message);
+                listener.onReceive(message);
+            }
+
+            await().atMost(10, TimeUnit.SECONDS)
+                    .until(() -> processed.values().stream().mapToInt(List::size).sum() == 200);
+            assertThat(processed).containsExactlyInAnyOrderEntriesOf(sent);
+            assertThat(concurrentSameKey).hasValue(0);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testKeyOrderedDispatch_OverflowsFullLaneWithoutWaiting() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.setKeyOrderedDispatch(XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY);
+        FlowXMLMessageListener.FlowControl flowControl = mock(FlowXMLMessageListener.FlowControl.class);
+        listener.setFlowControl(flowControl, new FlowXMLMessageListener.Watermarks(0, 0, 0, 0));
+        CountDownLatch inProgress = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<BytesXMLMessage> results = Collections.synchronizedList(new ArrayList<>());
+        listener.startReceiverThreads(2, "testKeyOrderedDispatch_OverflowsFullLaneWithoutWaiting", message -> {
+            inProgress.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            results.add(message);
+        }, 1000, 4, WaitStrategy.PARK);
+        try {
+            List<BytesXMLMessage> messages = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                messages.add(DispatchLanesTest.message("a"));
+            }
+            // one message in progress and two queued in the lane of the key
+            listener.onReceive(messages.get(0));
+            assertThat(inProgress.await(2, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(CompletableFuture.runAsync(() -> messages.subList(1, 5).forEach(listener::onReceive)))
+                    .succeedsWithin(2, TimeUnit.SECONDS);
+            assertThat(listener.isFlowStopped()).isTrue();
+            verify(flowControl).stopFlow();
+
+            release.countDown();
+            await().atMost(2, TimeUnit.SECONDS).until(() -> results.size() == 5);
+            assertThat(results).containsExactlyElementsOf(messages);
+            assertThat(listener.isFlowStopped()).isFalse();
+            verify(flowControl).startFlow();
+        } finally {
+            release.countDown();
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testStartReceiverThreads_RestartRetiresPreviousThreads() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.setKeyOrderedDispatch(XMLMessage.MessageUserPropertyConstants.QUEUE_PARTITION_KEY);
+        String threadNamePrefix = "testStartReceiverThreads_RestartRetiresPreviousThreads";
+        CountDownLatch inProgress = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<BytesXMLMessage> processed = Collections.synchronizedList(new ArrayList<>());
+        Consumer<BytesXMLMessage> messageConsumer = message -> {
+            inProgress.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.add(message);
+        };
+        listener.startReceiverThreads(2, threadNamePrefix, messageConsumer, 1000);
+        try {
+            // a receiver thread of the first start is still processing when the binding is restarted
+            listener.onReceive(DispatchLanesTest.message("a"));
+            assertThat(inProgress.await(2, TimeUnit.SECONDS)).isTrue();
+            listener.stopReceiverThreads();
+            listener.startReceiverThreads(2, threadNamePrefix, messageConsumer, 1000);
+            release.countDown();
+
+            for (int i = 0; i < 10; i++) {
+                listener.onReceive(DispatchLanesTest.message("key-" + i));
+            }
+            await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == 11);
+            await().atMost(5, TimeUnit.SECONDS).until(() -> listener.getReceiverThreadCount() == 2 &&
+                    Thread.getAllStackTraces().keySet().stream()
+                            .filter(thread -> thread.getName().startsWith(threadNamePrefix))
+                            .count() == 3); // including the watchdog thread
+        } finally {
+            release.countDown();
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testAutoscaling_AddsAndRetiresReceiverThreads() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        listener.setAutoscaling(new FlowXMLMessageListener.Autoscaling(1, 4, 100));
+        AtomicInteger processed = new AtomicInteger();
+        listener.startReceiverThreads(1, "testAutoscaling_AddsAndRetiresReceiverThreads", message -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.incrementAndGet();
+        }, 1000);
+        try {
+            assertThat(listener.getReceiverThreadCount()).isEqualTo(1);
+            for (int i = 0; i < 200; i++) {
+                listener.onReceive(mock(BytesXMLMessage.class));
+            }
+            await().atMost(5, TimeUnit.SECONDS).until(() -> listener.getReceiverThreadCount() == 4);
+
+            await().atMost(10, TimeUnit.SECONDS).until(() -> processed.get() == 200);
+            await().atMost(5, TimeUnit.SECONDS).until(() -> listener.getReceiverThreadCount() == 1);
+
+            BytesXMLMessage message = mock(BytesXMLMessage.class);
+            listener.onReceive(message);
+            await().atMost(2, TimeUnit.SECONDS).until(() -> processed.get() == 201);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @ParameterizedTest(name = "[{index}] threads={0} backlog={1} utilization={2}")
+    @CsvSource({
+            "1,10,1.0,2",
+            "4,10,1.0,6",
+            "4,1,1.0,5",
+            "8,100,1.0,10",
+            "4,10,0.6,4",
+            "4,0,0.6,4",
+            "8,0,0.1,6",
+            "8,0,0.45,6",
+            "2,0,0.0,1",
+            "1,0,0.0,1",
+    })
+    void testAutoscaling_TargetThreads(int threads, int backlog, double utilization, int expected) {
+        FlowXMLMessageListener.Autoscaling autoscaling = new FlowXMLMessageListener.Autoscaling(1, 10, 1000);
+        assertThat(autoscaling.targetThreads(threads, backlog, utilization)).isEqualTo(expected);
+    }
+
+    @Test
+    void testAutoscaling_Bounds() {
+        assertThatThrownBy(() -> new FlowXMLMessageListener.Autoscaling(0, 4, 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FlowXMLMessageListener.Autoscaling(4, 2, 1000))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FlowXMLMessageListener.Autoscaling(1, 4, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new FlowXMLMessageListener.Autoscaling(2, 4, 1000).bound(8)).isEqualTo(4);
+    }
+
+    @Test
+    void testOnReceive_MergesMessagesOfConcurrentFlows() throws Exception {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        Set<BytesXMLMessage> processed = ConcurrentHashMap.newKeySet();
+        listener.startReceiverThreads(2, "testOnReceive_MergesMessagesOfConcurrentFlows", processed::add, 1000, 16, WaitStrategy.PARK);
+        try {
+            int flows = 3;
+            int perFlow = 100;
+            List<CompletableFuture<Void>> dispatchers = new ArrayList<>();
+            for (int f = 0; f < flows; f++) {
+                dispatchers.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < perFlow; i++) {
+                        listener.onReceive(mock(BytesXMLMessage.class));
+                    }
+                }));
+            }
+            CompletableFuture.allOf(dispatchers.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+            await().atMost(5, TimeUnit.SECONDS).until(() -> processed.size() == flows * perFlow);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testGetProcessingRatePerThread() {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        assertThat(listener.getProcessingRatePerThread()).isZero();
+        AtomicInteger processed = new AtomicInteger();
+        listener.startReceiverThreads(2, "testGetProcessingRatePerThread", message -> {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            processed.incrementAndGet();
+        }, 1000);
+        try {
+            for (int i = 0; i < 10; i++) {
+                listener.onReceive(mock(BytesXMLMessage.class));
+            }
+            await().atMost(5, TimeUnit.SECONDS).until(() -> processed.get() == 10);
+            // at most 100 messages per second with 10 ms per message
+            await().atMost(1, TimeUnit.SECONDS).until(() -> listener.getProcessingRatePerThread() > 0);
+            assertThat(listener.getProcessingRatePerThread()).isBetween(1.0, 100.0);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
+    @Test
+    void testStartReceiverThreads_UsesThreadFactory() {
+        FlowXMLMessageListener listener = new FlowXMLMessageListener();
+        AtomicInteger createdThreads = new AtomicInteger();
+        listener.setThreadFactory(runnable -> {
+            createdThreads.incrementAndGet();
+            return new Thread(runnable);
+        });
+        Consumer<BytesXMLMessage> messageConsumer = Mockito.mock(Consumer.class);
+        listener.startReceiverThreads(3, "testStartReceiverThreads_UsesThreadFactory", messageConsumer, 1000);
+        try {
+            assertThat(createdThreads).hasValue(3);
+            BytesXMLMessage mockMessage = mock(BytesXMLMessage.class);
+            listener.onReceive(mockMessage);
+            verify(messageConsumer, timeout(2000)).accept(mockMessage);
+        } finally {
+            listener.stopReceiverThreads();
+        }
+    }
+
     @Test
     void testStartReceiverThreads_WatchdogLogsWarningForLongProcessing() throws NoSuchFieldException, IllegalAccessException {
         FlowXMLMessageListener listener = new FlowXMLMessageListener();
@@ -0,0 +1,189 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@Timeout(30)
+class RetrySchedulerTest {
+
+    @Test
+    void testExecute_RetriesWithoutBlockingTheCaller() {
+        try (RetryScheduler retryScheduler = retryScheduler(3, 200, 10)) {
+            TestAttempt attempt = new TestAttempt(1);
+            long start = System.nanoTime();
+            retryScheduler.execute(attempt);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(200);
+            assertThat(attempt.attempts).hasValue(1);
+            assertThat(retryScheduler.getPendingRetries()).isEqualTo(1);
+
+            await().atMost(5, TimeUnit.SECONDS).until(() -> attempt.succeeded.get() == 1);
+            assertThat(attempt.attempts).hasValue(2);
+            assertThat(attempt.recovered).hasValue(0);
+            assertThat(retryScheduler.getPendingRetries()).isZero();
+        }
+    }
+
+    @Test
+    void testExecute_RecoversOnceAttemptsAreExhausted() {
+        try (RetryScheduler retryScheduler = retryScheduler(3, 10, 10)) {
+            TestAttempt attempt = new TestAttempt(Integer.MAX_VALUE);
+            retryScheduler.execute(attempt);
+
+            await().atMost(5, TimeUnit.SECONDS).until(() -> attempt.recovered.get() == 1);
+            assertThat(attempt.attempts).hasValue(3);
+            assertThat(attempt.lastRetryCount).hasValue(3);
+            assertThat(attempt.succeeded).hasValue(0);
+        }
+    }
+
+    @Test
+    void testExecute_RecoversNonRetryableRightAway() {
+        SimpleRetryPolicy retryPolicy = new SimpleRetryPolicy(3, Map.of(IllegalStateException.class, false), true, true);
+        try (RetryScheduler retryScheduler = new RetryScheduler(retryPolicy, 10, 1, 10, 10, 1,
+                Executors.defaultThreadFactory())) {
+            TestAttempt attempt = new TestAttempt(Integer.MAX_VALUE);
+            retryScheduler.execute(attempt);
+            assertThat(attempt.attempts).hasValue(1);
+            assertThat(attempt.recovered).hasValue(1);
+        }
+    }
+
+    @Test
+    void testExecute_RequeuesWithoutFreeRetrySlot() {
+        try (RetryScheduler retryScheduler = retryScheduler(2, 300, 1)) {
+            TestAttempt first = new TestAttempt(2);
+            retryScheduler.execute(first);
+
+            // returns right away instead of waiting for the slot of the first retry
+            TestAttempt second = new TestAttempt(1);
+            retryScheduler.execute(second);
+            assertThat(second.attempts).hasValue(1);
+            assertThat(second.cancelled).hasValue(1);
+            assertThat(second.recovered).hasValue(0);
+
+            // the slot is freed before the exhausted first message is recovered
+            await().atMost(5, TimeUnit.SECONDS).until(() -> first.recovered.get() == 1);
+            TestAttempt third = new TestAttempt(1);
+            retryScheduler.execute(third);
+            await().atMost(5, TimeUnit.SECONDS).until(() -> third.succeeded.get() == 1);
+            assertThat(third.cancelled).hasValue(0);
+        }
+    }
+
+    @Test
+    void testExecute_RecoversErrorAndReleasesRetrySlot() {
+        try (RetryScheduler retryScheduler = retryScheduler(3, 10, 1)) {
+            TestAttempt attempt = new TestAttempt(1) {
+                @Override
+                public void run(RetryContext context) {
+                    super.run(context);
+                    throw new StackOverflowError("retry failed");
+                }
+            };
+            retryScheduler.execute(attempt);
+
+            // the Error of the retry is not retryable by the retry policy
+            await().atMost(5, TimeUnit.SECONDS).until(() -> attempt.recovered.get() == 1);
+            assertThat(attempt.attempts).hasValue(2);
+            assertThat(retryScheduler.getPendingRetries()).isZero();
+
+            // the slot of the retry is free again
+            TestAttempt next = new TestAttempt(1);
+            retryScheduler.execute(next);
+            await().atMost(5, TimeUnit.SECONDS).until(() -> next.succeeded.get() == 1);
+            assertThat(next.cancelled).hasValue(0);
+        }
+    }
+
+    @Test
+    void testExecute_CancelsMessageWhenRecoveryFails() {
+        try (RetryScheduler retryScheduler = retryScheduler(1, 10, 1)) {
+            TestAttempt attempt = new TestAttempt(Integer.MAX_VALUE) {
+                @Override
+                public void recover(RetryContext context) {
+                    super.recover(context);
+                    throw new OutOfMemoryError("recovery failed");
+                }
+            };
+            retryScheduler.execute(attempt);
+            assertThat(attempt.recovered).hasValue(1);
+            assertThat(attempt.cancelled).hasValue(1);
+        }
+    }
+
+    @Test
+    void testClose_CancelsPendingRetries() {
+        RetryScheduler retryScheduler = retryScheduler(3, 10_000, 10);
+        TestAttempt attempt = new TestAttempt(Integer.MAX_VALUE);
+        retryScheduler.execute(attempt);
+        assertThat(retryScheduler.getPendingRetries()).isEqualTo(1);
+
+        retryScheduler.close();
+        assertThat(attempt.cancelled).hasValue(1);
+        assertThat(attempt.recovered).hasValue(0);
+        assertThat(retryScheduler.getPendingRetries()).isZero();
+
+        // a failure after close is not retried
+        TestAttempt late = new TestAttempt(Integer.MAX_VALUE);
+        retryScheduler.execute(late);
+        assertThat(late.cancelled).hasValue(1);
+    }
+
+    @ParameterizedTest(name = "[{index}] retryCount={0}")
+    @CsvSource({"1,100", "2,200", "3,400", "4,500", "10,500"})
+    void testBackOffMs(int retryCount, long expected) {
+        try (RetryScheduler retryScheduler = new RetryScheduler(new SimpleRetryPolicy(3), 100, 2, 500, 10, 1,
+                Executors.defaultThreadFactory())) {
+            assertThat(retryScheduler.backOffMs(retryCount)).isEqualTo(expected);
+        }
+    }
+
+    private static RetryScheduler retryScheduler(int maxAttempts, long backOffMs, int maxRetries) {
+        return new RetryScheduler(new SimpleRetryPolicy(maxAttempts), backOffMs, 1, backOffMs, maxRetries, 1,
+                Executors.defaultThreadFactory());
+    }
+
+    private static class TestAttempt implements RetryScheduler.Attempt {
+        private final int failures;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger recovered = new AtomicInteger();
+        private final AtomicInteger cancelled = new AtomicInteger();
+        private final AtomicInteger lastRetryCount = new AtomicInteger();
+
+        private TestAttempt(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public void run(RetryContext context) {
+            if (attempts.incrementAndGet() <= failures) {
+                throw new IllegalStateException("attempt " + attempts.get() + " failed");
+            }
+            succeeded.incrementAndGet();
+        }
+
+        @Override
+        public void recover(RetryContext context) {
+            lastRetryCount.set(context.getRetryCount());
+            recovered.incrementAndGet();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.solace.spring.cloud.stream.binder.inbound.queue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Timeout(30)
+class RingBufferTest {
+
+    @ParameterizedTest
+    @CsvSource({"1,2", "2,2", "3,4", "1000,1024", "1024,1024"})
+    void capacity_isRoundedUpToPowerOfTwo(int capacity, int expected) {
+        assertThat(new RingBuffer<>(capacity).capacity()).isEqualTo(expected);
+    }
+
+    @Test
+    void capacity_mustBePositive() {
+        assertThatThrownBy(() -> new RingBuffer<>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void offer_isRefusedWhenFull() {
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ringBuffer.offer(i)).isTrue();
+        }
+        assertThat(ringBuffer.offer(4)).isFalse();
+        assertThat(ringBuffer.size()).isEqualTo(4);
+
+        assertThat(ringBuffer.poll()).isZero();
+        assertThat(ringBuffer.offer(4)).isTrue();
+    }
+
+    @Test
+    void poll_isFifoAcrossRevolutions() {
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(4);
+        assertThat(ringBuffer.poll()).isNull();
+        List<Integer> polled = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ringBuffer.offer(2 * i);
+            ringBuffer.offer(2 * i + 1);
+            polled.add(ringBuffer.poll());
+            polled.add(ringBuffer.poll());
+        }
+        assertThat(polled).containsExactlyElementsOf(IntStream.range(0, 20).boxed().toList());
+        assertThat(ringBuffer.poll()).isNull();
+        assertThat(ringBuffer.size()).isZero();
+    }
+
+    @Test
+    void concurrentProducersAndConsumers_deliverEveryElementOnce() throws Exception {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 20_000;
+        RingBuffer<Integer> ringBuffer = new RingBuffer<>(64);
+        ConcurrentHashMap<Integer, Boolean> received = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(producers + consumers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!ringBuffer.offer(producer * perProducer + i)) {
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+            for (int c = 0; c < consumers; c++) {
+                futures.add(executorService.submit(() -> {
+                    while (received.size() < producers * perProducer) {
+                        Integer element = ringBuffer.poll();
+                        if (element == null) {
+                            Thread.yield();
+                        } else if (received.put(element, true) != null) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        assertThat(received).hasSize(producers * perProducer);
+        assertThat(duplicates).hasValue(0);
+        assertThat(ringBuffer.poll()).isNull();
+    }
+}
@@ -3,14 +3,18 @@ package com.solace.spring.cloud.stream.binder.meter;
 import com.solacesystems.jcsmp.BytesMessage;
 import com.solacesystems.jcsmp.JCSMPFactory;
 import com.solacesystems.jcsmp.XMLMessage;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Measurement;
 import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Statistic;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.core.instrument.binder.BaseUnits;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.assertj.core.api.ThrowingConsumer;
+import org.junit.jupiter.api.Test;
 import org.junitpioneer.jupiter.cartesian.CartesianTest;
 import org.junitpioneer.jupiter.cartesian.CartesianTest.Values;
 import org.mockito.Mockito;
@@ -20,6 +24,10 @@ import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.InstanceOfAssertFactories.DOUBLE;
@@ -66,6 +74,176 @@ public class SolaceMessageMeterBinderTest {
                         message.getContentLength() + message.getAttachmentContentLength()));
     }
 
+    @Test
+    public void testPublishAckLatencyMeter(@Autowired SolaceMessageMeterBinder solaceMessageMeterBinder,
+                                           @Autowired MeterRegistry meterRegistry) {
+        String bindingName = RandomStringUtils.randomAlphanumeric(100);
+        solaceMessageMeterBinder.recordPublishAckLatency(bindingName, "TOPIC", TimeUnit.MILLISECONDS.toNanos(2));
+        solaceMessageMeterBinder.recordPublishAckLatency(bindingName, "TOPIC", TimeUnit.MILLISECONDS.toNanos(4));
+        solaceMessageMeterBinder.recordPublishAckLatency(bindingName, "QUEUE", TimeUnit.MILLISECONDS.toNanos(8));
+
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_PUBLISH_ACK_LATENCY)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .tag(SolaceMessageMeterBinder.TAG_DESTINATION_TYPE, "TOPIC")
+                .timer())
+                .isNotNull()
+                .satisfies(
+                        timer -> assertThat(timer.count()).isEqualTo(2),
+                        timer -> assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(6),
+                        timer -> assertThat(timer.takeSnapshot().percentileValues()).hasSize(3)
+                );
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_PUBLISH_ACK_LATENCY)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .tag(SolaceMessageMeterBinder.TAG_DESTINATION_TYPE, "QUEUE")
+                .timer())
+                .isNotNull()
+                .extracting(Timer::count)
+                .isEqualTo(1L);
+    }
+
+    @Test
+    public void testLargeMessageAssemblyMeters(@Autowired SolaceMessageMeterBinder solaceMessageMeterBinder,
+                                               @Autowired MeterRegistry meterRegistry) {
+        String bindingName = RandomStringUtils.randomAlphanumeric(100);
+        AtomicInteger partialAssemblies = new AtomicInteger(2);
+        AtomicLong assemblyBytes = new AtomicLong(1024);
+        solaceMessageMeterBinder.registerLargeMessageAssemblyGauges(bindingName, partialAssemblies, assemblyBytes);
+        solaceMessageMeterBinder.recordLargeMessageAssemblyTime(bindingName, TimeUnit.MILLISECONDS.toNanos(3));
+
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_ASSEMBLY_PARTIAL)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .gauge())
+                .isNotNull()
+                .extracting(Gauge::value)
+                .isEqualTo(2.0);
+        assemblyBytes.set(2048);
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_ASSEMBLY_BYTES)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .gauge())
+                .isNotNull()
+                .satisfies(
+                        gauge -> assertThat(gauge.value()).isEqualTo(2048.0),
+                        gauge -> assertThat(gauge.getId().getBaseUnit()).isEqualTo(BaseUnits.BYTES)
+                );
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_ASSEMBLY_TIME)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .timer())
+                .isNotNull()
+                .satisfies(
+                        timer -> assertThat(timer.count()).isEqualTo(1),
+                        timer -> assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(3)
+                );
+    }
+
+    @Test
+    public void testReceiverThreadMeters(@Autowired SolaceMessageMeterBinder solaceMessageMeterBinder,
+                                         @Autowired MeterRegistry meterRegistry) {
+        String bindingName = RandomStringUtils.randomAlphanumeric(100);
+        AtomicInteger receiverThreads = new AtomicInteger(3);
+        LongAdder scaleUps = new LongAdder();
+        LongAdder scaleDowns = new LongAdder();
+        solaceMessageMeterBinder.registerReceiverThreadMeters(bindingName, receiverThreads, scaleUps, scaleDowns);
+        scaleUps.add(2);
+        scaleDowns.increment();
+
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_RECEIVER_THREADS)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .gauge())
+                .isNotNull()
+                .satisfies(gauge -> assertThat(gauge.getId().getBaseUnit()).isEqualTo(BaseUnits.THREADS))
+                .extracting(Gauge::value)
+                .isEqualTo(3.0);
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_RECEIVER_SCALING)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .tag(SolaceMessageMeterBinder.TAG_DIRECTION, "up")
+                .functionCounter())
+                .isNotNull()
+                .extracting(FunctionCounter::count)
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_RECEIVER_SCALING)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .tag(SolaceMessageMeterBinder.TAG_DIRECTION, "down")
+                .functionCounter())
+                .isNotNull()
+                .extracting(FunctionCounter::count)
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    public void testSettlementMeters(@Autowired SolaceMessageMeterBinder solaceMessageMeterBinder,
+                                     @Autowired MeterRegistry meterRegistry) {
+        String bindingName = RandomStringUtils.randomAlphanumeric(100);
+        AtomicInteger pendingSettlements = new AtomicInteger(7);
+        solaceMessageMeterBinder.registerSettlementPendingGauge(bindingName, pendingSettlements);
+        solaceMessageMeterBinder.recordSettlementLag(bindingName, TimeUnit.MILLISECONDS.toNanos(2));
+
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_SETTLEMENT_PENDING)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .gauge())
+                .isNotNull()
+                .extracting(Gauge::value)
+                .isEqualTo(7.0);
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_SETTLEMENT_LAG)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .timer())
+                .isNotNull()
+                .satisfies(
+                        timer -> assertThat(timer.count()).isEqualTo(1),
+                        timer -> assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(2)
+                );
+    }
+
+    @Test
+    public void testDispatchLaneMeters(@Autowired SolaceMessageMeterBinder solaceMessageMeterBinder,
+                                       @Autowired MeterRegistry meterRegistry) {
+        String bindingName = RandomStringUtils.randomAlphanumeric(100);
+        AtomicInteger laneSize = new AtomicInteger(5);
+        solaceMessageMeterBinder.registerDispatchLaneGauge(bindingName, 1, laneSize);
+        solaceMessageMeterBinder.recordDispatchLaneWaitTime(bindingName, 1, TimeUnit.MILLISECONDS.toNanos(4));
+
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_DISPATCH_LANE_SIZE)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .tag(SolaceMessageMeterBinder.TAG_LANE, "1")
+                .gauge())
+                .isNotNull()
+                .extracting(Gauge::value)
+                .isEqualTo(5.0);
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_DISPATCH_LANE_WAIT)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .tag(SolaceMessageMeterBinder.TAG_LANE, "1")
+                .timer())
+                .isNotNull()
+                .satisfies(
+                        timer -> assertThat(timer.count()).isEqualTo(1),
+                        timer -> assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(4)
+                );
+    }
+
+    @Test
+    public void testReceiveBufferMeters(@Autowired SolaceMessageMeterBinder solaceMessageMeterBinder,
+                                        @Autowired MeterRegistry meterRegistry) {
+        String bindingName = RandomStringUtils.randomAlphanumeric(100);
+        AtomicInteger bufferedMessages = new AtomicInteger(3);
+        AtomicLong bufferedBytes = new AtomicLong(1024);
+        solaceMessageMeterBinder.registerReceiveBufferGauges(bindingName, bufferedMessages, bufferedBytes);
+
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_RECEIVE_BUFFER_MESSAGES)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .gauge())
+                .isNotNull()
+                .extracting(Gauge::value)
+                .isEqualTo(3.0);
+        bufferedBytes.set(2048);
+        assertThat(meterRegistry.find(SolaceMessageMeterBinder.METER_NAME_RECEIVE_BUFFER_BYTES)
+                .tag(SolaceMessageMeterBinder.TAG_NAME, bindingName)
+                .gauge())
+                .isNotNull()
+                .satisfies(
+                        gauge -> assertThat(gauge.value()).isEqualTo(2048.0),
+                        gauge -> assertThat(gauge.getId().getBaseUnit()).isEqualTo(BaseUnits.BYTES)
+                );
+    }
+
     private BytesMessage createTestMessage(boolean writeAttachment, boolean writeXmlContent, boolean writeMetadata) {
         BytesMessage message = Mockito.spy(JCSMPFactory.onlyInstance().createMessage(BytesMessage.class));
         int expectedAttachmentLength = 0;
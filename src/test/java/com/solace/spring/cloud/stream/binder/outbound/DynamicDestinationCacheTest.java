@@ -0,0 +1,79 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import com.solace.spring.cloud.stream.binder.util.DestinationType;
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.Queue;
+import com.solacesystems.jcsmp.Topic;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DynamicDestinationCacheTest {
+
+    @Test
+    void testHitAndMiss() {
+        DynamicDestinationCache cache = new DynamicDestinationCache(10);
+        Destination topic = cache.get("some/destination", DestinationType.TOPIC);
+        Destination queue = cache.get("some/destination", DestinationType.QUEUE);
+
+        assertThat(topic).isInstanceOf(Topic.class);
+        assertThat(queue).isInstanceOf(Queue.class);
+        assertThat(cache.get("some/destination", DestinationType.TOPIC)).isSameAs(topic);
+        assertThat(cache.get("some/destination", DestinationType.QUEUE)).isSameAs(queue);
+
+        assertThat(cache.getMisses().sum()).isEqualTo(2);
+        assertThat(cache.getHits().sum()).isEqualTo(2);
+        assertThat(cache.getEvictions().sum()).isZero();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testEvictLeastRecentlyUsed() {
+        DynamicDestinationCache cache = new DynamicDestinationCache(2);
+        Destination a = cache.get("a", DestinationType.TOPIC);
+        Destination b = cache.get("b", DestinationType.TOPIC);
+        assertThat(cache.get("a", DestinationType.TOPIC)).isSameAs(a);
+
+        cache.get("c", DestinationType.TOPIC); // evicts b
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictions().sum()).isEqualTo(1);
+        assertThat(cache.get("a", DestinationType.TOPIC)).isSameAs(a);
+        assertThat(cache.get("b", DestinationType.TOPIC)).isNotSameAs(b);
+    }
+
+    @Test
+    void testEvictInBatches() {
+        DynamicDestinationCache cache = new DynamicDestinationCache(32);
+        for (int i = 0; i < 32; i++) {
+            cache.get("destination-" + i, DestinationType.TOPIC);
+        }
+        Destination recent = cache.get("destination-31", DestinationType.TOPIC);
+
+        cache.get("destination-32", DestinationType.TOPIC); // evicts the excess and a sixteenth of the cache
+
+        assertThat(cache.getEvictions().sum()).isEqualTo(3);
+        assertThat(cache.size()).isEqualTo(30);
+        assertThat(cache.get("destination-31", DestinationType.TOPIC)).isSameAs(recent);
+    }
+
+    @Test
+    void testConcurrentAccess() {
+        DynamicDestinationCache cache = new DynamicDestinationCache(10);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(CompletableFuture.runAsync(() -> IntStream.range(0, 10_000)
+                    .forEach(i -> assertThat(cache.get("destination-" + (i % 20), DestinationType.TOPIC))
+                            .isInstanceOf(Topic.class))));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(cache.getHits().sum() + cache.getMisses().sum()).isEqualTo(40_000);
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+    }
+}
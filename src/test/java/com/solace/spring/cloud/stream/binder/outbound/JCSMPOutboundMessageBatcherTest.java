@@ -0,0 +1,39 @@
+package com.solace.spring.cloud.stream.binder.outbound;
+
+import com.solace.spring.cloud.stream.binder.util.ClosedChannelBindingException;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.JCSMPStreamingPublishCorrelatingEventHandler;
+import com.solacesystems.jcsmp.TextMessage;
+import com.solacesystems.jcsmp.Topic;
+import com.solacesystems.jcsmp.XMLMessageProducer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+
+@ExtendWith(MockitoExtension.class)
+public class JCSMPOutboundMessageBatcherTest {
+    @Mock
+    private XMLMessageProducer producer;
+    @Mock
+    private JCSMPStreamingPublishCorrelatingEventHandler errorHandler;
+
+    @Test
+    public void test_add_afterClose() throws Exception {
+        JCSMPOutboundMessageBatcher batcher = new JCSMPOutboundMessageBatcher(producer, 10, 1000,
+                "binding", Optional.empty(), errorHandler);
+        batcher.close();
+
+        Topic topic = JCSMPFactory.onlyInstance().createTopic("fake/topic");
+        assertThatThrownBy(() -> batcher.add(JCSMPFactory.onlyInstance().createMessage(TextMessage.class), topic))
+                .isInstanceOf(ClosedChannelBindingException.class);
+        Mockito.verify(producer, Mockito.never()).sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt());
+        Mockito.verifyNoInteractions(errorHandler);
+    }
+}
@@ -13,11 +13,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.junitpioneer.jupiter.cartesian.CartesianTest;
 import org.junitpioneer.jupiter.cartesian.CartesianTest.Values;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -30,15 +32,24 @@ import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.MessageBuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -115,6 +126,20 @@ public class JCSMPOutboundMessageHandlerTest {
         Mockito.verify(sessionProducerManager).release(Mockito.any());
     }
 
+    @Test
+    public void test_stoppedWhilePublishing() throws Exception {
+        messageHandler.start();
+        messageHandler.stop();
+        // the handler is stopped right after a publishing thread checked isRunning()
+        JCSMPOutboundMessageHandler racingHandler = Mockito.spy(messageHandler);
+        Mockito.doReturn(true).when(racingHandler).isRunning();
+
+        assertThatThrownBy(() -> racingHandler.handleMessage(MessageBuilder.withPayload("the payload").build()))
+                .isInstanceOf(MessagingException.class)
+                .hasCauseInstanceOf(ClosedFacilityException.class);
+        Mockito.verify(messageProducer, Mockito.never()).send(any(XMLMessage.class), any(Destination.class));
+    }
+
     @CartesianTest(name = "[{index}] payloadType={0}")
     public void test_responseReceived_withInTimeout(
             @Values(classes = {String.class, List.class}) Class<?> payloadType) throws Exception {
@@ -136,9 +161,13 @@ public class JCSMPOutboundMessageHandlerTest {
 
         AtomicInteger timesSuccessResolved = new AtomicInteger(0);
         AtomicInteger timesFailureResolved = new AtomicInteger(0);
-        correlationData.getFuture().addCallback(
-                v -> timesSuccessResolved.incrementAndGet(),
-                e -> timesFailureResolved.incrementAndGet());
+        correlationData.getFuture().whenComplete((v, e) -> {
+            if (e == null) {
+                timesSuccessResolved.incrementAndGet();
+            } else {
+                timesFailureResolved.incrementAndGet();
+            }
+        });
 
         getCorrelationKeys().forEach(pubEventHandlerCaptor.getValue()::responseReceivedEx);
         assertThat(xmlMessageCaptor.getAllValues())
@@ -165,9 +194,13 @@ public class JCSMPOutboundMessageHandlerTest {
                 .build());
         AtomicInteger timesSuccessResolved = new AtomicInteger(0);
         AtomicInteger timesFailureResolved = new AtomicInteger(0);
-        correlationData.getFuture().addCallback(
-                v -> timesSuccessResolved.incrementAndGet(),
-                e -> timesFailureResolved.incrementAndGet());
+        correlationData.getFuture().whenComplete((v, e) -> {
+            if (e == null) {
+                timesSuccessResolved.incrementAndGet();
+            } else {
+                timesFailureResolved.incrementAndGet();
+            }
+        });
         JCSMPException exception = new JCSMPException("ooooops");
         getCorrelationKeys().forEach(k -> pubEventHandlerCaptor.getValue()
                 .handleErrorEx(k, exception, 1111));
@@ -221,6 +254,256 @@ public class JCSMPOutboundMessageHandlerTest {
         assertThat(correlationDataC.getFuture()).succeedsWithin(100, TimeUnit.MILLISECONDS);
     }
 
+    @Test
+    public void test_responseReceived_largeMessage_confirmedByLastChunk() throws Exception {
+        messageHandler.start();
+        CorrelationData correlationData = new CorrelationData();
+        messageHandler.handleMessage(MessageBuilder.withPayload(new byte[LargeMessageSupport.CHUNK_SIZE * 2 + 1])
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .setHeader(SolaceBinderHeaders.CONFIRM_CORRELATION, correlationData)
+                .build());
+
+        List<Object> correlationKeys = getCorrelationKeys();
+        assertThat(correlationKeys).hasSize(3);
+        JCSMPStreamingPublishCorrelatingEventHandler pubEventHandler = pubEventHandlerCaptor.getValue();
+        pubEventHandler.responseReceivedEx(correlationKeys.get(0));
+        pubEventHandler.responseReceivedEx(correlationKeys.get(1));
+        assertThat(correlationData.getFuture()).isNotDone();
+
+        pubEventHandler.responseReceivedEx(correlationKeys.get(2));
+        assertThat(correlationData.getFuture()).succeedsWithin(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void test_largeMessage_chunkSize() throws Exception {
+        producerProperties.getExtension().setLargeMessageChunkSize(1024);
+        messageHandler.start();
+        messageHandler.handleMessage(MessageBuilder.withPayload(new byte[3000])
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .build());
+
+        Mockito.verify(messageProducer, Mockito.times(3)).send(xmlMessageCaptor.capture(), any(Destination.class));
+        assertThat(xmlMessageCaptor.getAllValues())
+                .extracting(m -> ((BytesMessage) m).getData().length)
+                .containsExactly(1024, 1024, 952);
+    }
+
+    @Test
+    public void test_largeMessage_chunkSizeExceedsMaxMessageSize() throws Exception {
+        producerProperties.getExtension().setQueueMaxMsgSize(1024);
+        producerProperties.getExtension().setLargeMessageChunkSize(2048);
+        messageHandler.start();
+        Message<byte[]> message = MessageBuilder.withPayload(new byte[3000])
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .build();
+
+        assertThatThrownBy(() -> messageHandler.handleMessage(message))
+                .isInstanceOf(MessagingException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+        Mockito.verify(messageProducer, Mockito.never()).send(any(XMLMessage.class), any(Destination.class));
+    }
+
+    @Test
+    public void test_largeMessage_chunkWindow() throws Exception {
+        producerProperties.getExtension().setLargeMessageChunkSize(1024);
+        producerProperties.getExtension().setLargeMessageChunkWindow(1);
+        messageHandler.start();
+        CorrelationData correlationData = new CorrelationData();
+        CompletableFuture<Void> publish = CompletableFuture.runAsync(() ->
+                messageHandler.handleMessage(MessageBuilder.withPayload(new byte[3000])
+                        .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                        .setHeader(SolaceBinderHeaders.CONFIRM_CORRELATION, correlationData)
+                        .build()));
+
+        JCSMPStreamingPublishCorrelatingEventHandler pubEventHandler = pubEventHandlerCaptor.getValue();
+        for (int chunk = 1; chunk <= 3; chunk++) {
+            Mockito.verify(messageProducer, Mockito.timeout(5000).times(chunk))
+                    .send(xmlMessageCaptor.capture(), any(Destination.class));
+            Thread.sleep(200);
+            Mockito.verify(messageProducer, Mockito.times(chunk)).send(any(XMLMessage.class), any(Destination.class));
+            pubEventHandler.responseReceivedEx(xmlMessageCaptor.getValue().getCorrelationKey());
+        }
+
+        assertThat(publish).succeedsWithin(5, TimeUnit.SECONDS);
+        assertThat(correlationData.getFuture()).succeedsWithin(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void test_aggregatedCorrelation_responseReceived() throws Exception {
+        messageHandler.start();
+        AggregatedCorrelationData confirmation;
+        try (AggregatedCorrelationData group = AggregatedCorrelationData.open()) {
+            confirmation = group;
+            for (int i = 0; i < 3; i++) {
+                messageHandler.handleMessage(MessageBuilder.withPayload("the payload").build());
+            }
+        }
+        assertThat(AggregatedCorrelationData.current()).isNull();
+        assertThat(confirmation.getPublishedCount()).isEqualTo(3);
+
+        List<Object> correlationKeys = getCorrelationKeys();
+        JCSMPStreamingPublishCorrelatingEventHandler pubEventHandler = pubEventHandlerCaptor.getValue();
+        pubEventHandler.responseReceivedEx(correlationKeys.get(2));
+        pubEventHandler.responseReceivedEx(correlationKeys.get(0));
+        assertThat(confirmation.getFuture()).isNotDone();
+
+        pubEventHandler.responseReceivedEx(correlationKeys.get(1));
+        assertThat(confirmation.getFuture()).succeedsWithin(100, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void test_aggregatedCorrelation_handleError() throws Exception {
+        messageHandler.start();
+        AggregatedCorrelationData confirmation;
+        try (AggregatedCorrelationData group = AggregatedCorrelationData.open()) {
+            confirmation = group;
+            messageHandler.handleMessage(MessageBuilder.withPayload("the payload").build());
+            messageHandler.handleMessage(MessageBuilder.withPayload("the payload").build());
+        }
+
+        List<Object> correlationKeys = getCorrelationKeys();
+        JCSMPStreamingPublishCorrelatingEventHandler pubEventHandler = pubEventHandlerCaptor.getValue();
+        JCSMPException exception = new JCSMPException("ooooops");
+        pubEventHandler.responseReceivedEx(correlationKeys.get(0));
+        pubEventHandler.handleErrorEx(correlationKeys.get(1), exception, 1111);
+
+        assertThat(confirmation.getFuture())
+                .failsWithin(100, TimeUnit.MILLISECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .havingCause()
+                .isInstanceOf(MessagingException.class)
+                .withCause(exception);
+    }
+
+    @Test
+    public void test_aggregatedCorrelation_notCompletedBeforeClose() throws Exception {
+        messageHandler.start();
+        try (AggregatedCorrelationData group = AggregatedCorrelationData.open()) {
+            messageHandler.handleMessage(MessageBuilder.withPayload("the payload").build());
+            getCorrelationKeys().forEach(pubEventHandlerCaptor.getValue()::responseReceivedEx);
+            assertThat(group.getFuture()).isNotDone();
+            assertThatThrownBy(AggregatedCorrelationData::open).isInstanceOf(IllegalStateException.class);
+            group.close();
+            assertThat(group.getFuture()).succeedsWithin(100, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @CartesianTest(name = "[{index}] payloadType={0}")
+    public void test_largeMessage_streamedPayload(@Values(strings = {"Path", "ByteBuffer", "InputStream"}) String payloadType,
+                                                  @TempDir Path tempDir) throws Exception {
+        byte[] data = new byte[LargeMessageSupport.CHUNK_SIZE * 2 + 1];
+        ThreadLocalRandom.current().nextBytes(data);
+        Object payload = switch (payloadType) {
+            case "Path" -> Files.write(tempDir.resolve("payload"), data);
+            case "ByteBuffer" -> ByteBuffer.allocateDirect(data.length).put(data).flip();
+            case "InputStream" -> new ByteArrayInputStream(data);
+            default -> throw new IllegalArgumentException(payloadType);
+        };
+        messageHandler.start();
+        messageHandler.handleMessage(MessageBuilder.withPayload(payload)
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .setHeader("foo", "bar")
+                .build());
+
+        Mockito.verify(messageProducer, Mockito.times(3)).send(xmlMessageCaptor.capture(), any(Destination.class));
+        ByteArrayOutputStream published = new ByteArrayOutputStream();
+        for (XMLMessage chunk : xmlMessageCaptor.getAllValues()) {
+            assertThat(chunk).isInstanceOf(BytesMessage.class);
+            assertThat(chunk.getProperties().getInteger(SolaceBinderHeaders.CHUNK_COUNT)).isEqualTo(3);
+            assertThat(chunk.getProperties().getString("foo")).isEqualTo("bar");
+            published.write(((BytesMessage) chunk).getData());
+        }
+        assertThat(published.toByteArray()).isEqualTo(data);
+    }
+
+    @Test
+    public void test_largeMessage_streamedPayload_spoolFileDeleted(@TempDir Path spillDirectory) throws Exception {
+        producerProperties.getExtension().setLargeMessageSpillDirectory(spillDirectory.toString());
+        messageHandler.start();
+        Mockito.doAnswer(invocation -> {
+            try (Stream<Path> files = Files.list(spillDirectory)) {
+                assertThat(files).hasSize(1);
+            }
+            return null;
+        }).when(messageProducer).send(any(XMLMessage.class), any(Destination.class));
+
+        messageHandler.handleMessage(MessageBuilder.withPayload(
+                        new ByteArrayInputStream(new byte[LargeMessageSupport.CHUNK_SIZE * 2 + 1]))
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .build());
+
+        Mockito.verify(messageProducer, Mockito.times(3)).send(any(XMLMessage.class), any(Destination.class));
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    public void test_largeMessage_streamedPayload_spoolFileDeletedOnFailure(@TempDir Path spillDirectory)
+            throws Exception {
+        producerProperties.getExtension().setLargeMessageSpillDirectory(spillDirectory.toString());
+        messageHandler.start();
+        Mockito.doNothing()
+                .doThrow(new JCSMPException("send failed"))
+                .when(messageProducer).send(any(XMLMessage.class), any(Destination.class));
+        Message<ByteArrayInputStream> message = MessageBuilder.withPayload(
+                        new ByteArrayInputStream(new byte[LargeMessageSupport.CHUNK_SIZE * 2 + 1]))
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .build();
+
+        assertThatThrownBy(() -> messageHandler.handleMessage(message)).isInstanceOf(MessagingException.class);
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    public void test_largeMessage_streamedPayload_small() throws Exception {
+        messageHandler.start();
+        messageHandler.handleMessage(MessageBuilder.withPayload(new ByteArrayInputStream(new byte[]{1, 2, 3}))
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .build());
+
+        Mockito.verify(messageProducer).send(xmlMessageCaptor.capture(), any(Destination.class));
+        assertThat(xmlMessageCaptor.getValue())
+                .asInstanceOf(InstanceOfAssertFactories.type(BytesMessage.class))
+                .satisfies(m -> assertThat(m.getData()).containsExactly(1, 2, 3))
+                .satisfies(m -> assertThat(m.getProperties().containsKey(SolaceBinderHeaders.CHUNK_ID)).isFalse());
+    }
+
+    @Test
+    public void test_largeMessage_streamedPayload_unreadable(@TempDir Path tempDir) throws Exception {
+        messageHandler.start();
+        Message<Path> message = MessageBuilder.withPayload(tempDir.resolve("missing"))
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .build();
+
+        assertThatThrownBy(() -> messageHandler.handleMessage(message))
+                .isInstanceOf(MessagingException.class)
+                .hasRootCauseInstanceOf(NoSuchFileException.class);
+        Mockito.verify(messageProducer, Mockito.never()).send(any(XMLMessage.class), any(Destination.class));
+    }
+
+    @Test
+    public void test_responseReceived_recordsAckLatency() throws Exception {
+        messageHandler.start();
+        messageHandler.handleMessage(MessageBuilder.withPayload(new byte[LargeMessageSupport.CHUNK_SIZE + 1])
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .build());
+
+        List<Object> correlationKeys = getCorrelationKeys();
+        assertThat(correlationKeys).hasSize(2);
+        pubEventHandlerCaptor.getValue().responseReceivedEx(correlationKeys.get(0));
+        Mockito.verify(solaceMeterAccessor, Mockito.never())
+                .recordPublishAckLatency(any(), any(), Mockito.anyLong());
+
+        pubEventHandlerCaptor.getValue().responseReceivedEx(correlationKeys.get(1));
+        Mockito.verify(solaceMeterAccessor).recordPublishAckLatency(
+                Mockito.eq(producerProperties.getBindingName()),
+                Mockito.eq(producerProperties.getExtension().getDestinationType().name()),
+                Mockito.longThat(latency -> latency >= 0));
+    }
+
     @Test()
     public void test_responseReceived_messageIdCollision_oneAfterTheOther() {
         messageHandler.start();
@@ -299,6 +582,35 @@ public class JCSMPOutboundMessageHandlerTest {
                 .allSatisfy(p -> assertThat(p.get("SOME_HEADER")).isEqualTo("HOLA"));
     }
 
+    @CartesianTest(name = "[{index}] dynamicDestinationCacheSize={0}")
+    public void test_dynamic_destinationCache(@Values(ints = {0, 1000}) int dynamicDestinationCacheSize)
+            throws JCSMPException {
+        producerProperties.getExtension().setDynamicDestinationCacheSize(dynamicDestinationCacheSize);
+        messageHandler.start();
+
+        for (int i = 0; i < 2; i++) {
+            messageHandler.handleMessage(MessageBuilder.withPayload("the payload")
+                    .setHeader(BinderHeaders.TARGET_DESTINATION, "some/topic")
+                    .setHeader(SolaceBinderHeaders.TARGET_DESTINATION_TYPE, "topic")
+                    .build());
+        }
+
+        Mockito.verify(messageProducer, Mockito.times(2))
+                .send(xmlMessageCaptor.capture(), destinationCaptor.capture());
+        assertThat(destinationCaptor.getAllValues())
+                .extracting(Destination::getName)
+                .containsOnly("some/topic");
+        if (dynamicDestinationCacheSize > 0) {
+            assertThat(destinationCaptor.getAllValues().get(1)).isSameAs(destinationCaptor.getAllValues().get(0));
+            Mockito.verify(solaceMeterAccessor).registerDynamicDestinationCacheMeters(
+                    Mockito.eq(producerProperties.getBindingName()), any(), any(), any());
+        } else {
+            assertThat(destinationCaptor.getAllValues().get(1)).isNotSameAs(destinationCaptor.getAllValues().get(0));
+            Mockito.verify(solaceMeterAccessor, Mockito.never())
+                    .registerDynamicDestinationCacheMeters(any(), any(), any(), any());
+        }
+    }
+
     @CartesianTest(name = "[{index}] destinationType={0}")
     public void test_dynamic_destinationName_and_destinationType(
             @Values(strings = {"topic", "queue", " TOPIc ", " QueUe  ", "", "   "}) String destinationType
@@ -420,6 +732,301 @@ public class JCSMPOutboundMessageHandlerTest {
                 .hasRootCauseMessage("Incorrect type specified for header 'solace_scst_targetDestinationType'. Expected [class java.lang.String] but actual type is [class java.time.Instant]");
     }
 
+    @Test
+    public void test_batchPublish_fullBatch() throws Exception {
+        producerProperties.getExtension().setPublishBatchSize(3);
+        producerProperties.getExtension().setPublishBatchLingerTimeMs(TimeUnit.MINUTES.toMillis(1));
+        Mockito.when(messageProducer.sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+        messageHandler.start();
+
+        for (int i = 0; i < 3; i++) {
+            messageHandler.handleMessage(MessageBuilder.withPayload("the payload " + i).build());
+        }
+
+        ArgumentCaptor<JCSMPSendMultipleEntry[]> entriesCaptor = ArgumentCaptor.forClass(JCSMPSendMultipleEntry[].class);
+        Mockito.verify(messageProducer).sendMultiple(entriesCaptor.capture(), Mockito.eq(0), Mockito.eq(3), Mockito.eq(0));
+        Mockito.verify(messageProducer, Mockito.never()).send(any(XMLMessage.class), any(Destination.class));
+        assertThat(entriesCaptor.getValue())
+                .extracting(e -> ((TextMessage) e.getMessage()).getText())
+                .containsExactly("the payload 0", "the payload 1", "the payload 2");
+        assertThat(entriesCaptor.getValue())
+                .extracting(JCSMPSendMultipleEntry::getMessage)
+                .extracting(XMLMessage::getCorrelationKey)
+                .allSatisfy(k -> assertThat(k).isInstanceOf(ErrorChannelSendingCorrelationKey.class))
+                .doesNotHaveDuplicates();
+        Mockito.verify(solaceMeterAccessor).recordPublishBatchSize(producerProperties.getBindingName(), 3);
+        Mockito.verify(solaceMeterAccessor, Mockito.times(3))
+                .recordMessage(Mockito.eq(producerProperties.getBindingName()), any());
+    }
+
+    @Test
+    public void test_batchPublish_lingerTimeElapsed() throws Exception {
+        producerProperties.getExtension().setPublishBatchSize(10);
+        producerProperties.getExtension().setPublishBatchLingerTimeMs(50);
+        Mockito.when(messageProducer.sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+        messageHandler.start();
+
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload 0").build());
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload 1").build());
+
+        Mockito.verify(messageProducer, Mockito.timeout(1000))
+                .sendMultiple(any(), Mockito.eq(0), Mockito.eq(2), Mockito.eq(0));
+    }
+
+    @Test
+    public void test_batchPublish_failure() throws Exception {
+        producerProperties.getExtension().setPublishBatchSize(2);
+        JCSMPException exception = new JCSMPException("Expected exception");
+        Mockito.when(messageProducer.sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenThrow(exception);
+        messageHandler.start();
+
+        CorrelationData correlationDataA = new CorrelationData();
+        CorrelationData correlationDataB = new CorrelationData();
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload")
+                .setHeader(SolaceBinderHeaders.CONFIRM_CORRELATION, correlationDataA)
+                .build());
+        assertDoesNotThrow(() -> messageHandler.handleMessage(MessageBuilder.withPayload("the payload")
+                .setHeader(SolaceBinderHeaders.CONFIRM_CORRELATION, correlationDataB)
+                .build()));
+
+        assertThat(correlationDataA.getFuture())
+                .failsWithin(100, TimeUnit.MILLISECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .havingCause()
+                .isInstanceOf(MessagingException.class)
+                .withCause(exception);
+        assertThat(correlationDataB.getFuture())
+                .failsWithin(100, TimeUnit.MILLISECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .havingCause()
+                .isInstanceOf(MessagingException.class)
+                .withCause(exception);
+    }
+
+    @Test
+    public void test_batchPublish_largeMessageNotBatched() throws Exception {
+        producerProperties.getExtension().setPublishBatchSize(3);
+        producerProperties.getExtension().setPublishBatchLingerTimeMs(TimeUnit.MINUTES.toMillis(1));
+        producerProperties.getExtension().setLargeMessageChunkSize(1024);
+        Mockito.when(messageProducer.sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+        messageHandler.start();
+
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload").build());
+        messageHandler.handleMessage(MessageBuilder.withPayload(new byte[3000])
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .build());
+
+        // the pending batch is published before the chunks
+        InOrder inOrder = Mockito.inOrder(messageProducer);
+        inOrder.verify(messageProducer).sendMultiple(any(), Mockito.eq(0), Mockito.eq(1), Mockito.eq(0));
+        inOrder.verify(messageProducer, Mockito.times(3)).send(any(XMLMessage.class), any(Destination.class));
+        Mockito.verify(messageProducer).sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    public void test_batchPublish_largeMessageFailureReleasesEveryChunk() throws Exception {
+        producerProperties.getExtension().setPublishBatchSize(3);
+        producerProperties.getExtension().setPublishBatchLingerTimeMs(TimeUnit.MINUTES.toMillis(1));
+        producerProperties.getExtension().setLargeMessageChunkSize(1024);
+        producerProperties.getExtension().setMaxInFlightMessages(3);
+        JCSMPException exception = new JCSMPException("Expected exception");
+        Mockito.doThrow(exception)
+                .when(messageProducer).send(any(XMLMessage.class), any(Destination.class));
+        Mockito.when(messageProducer.sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+        messageHandler.start();
+
+        // the chunks are sent on their own, so that their failure is thrown
+        assertThatThrownBy(() -> messageHandler.handleMessage(MessageBuilder.withPayload(new byte[3000])
+                .setHeader(SolaceBinderHeaders.LARGE_MESSAGE_SUPPORT, true)
+                .build()))
+                .isInstanceOf(MessagingException.class)
+                .hasCause(exception);
+
+        // all three chunks released their in-flight slot
+        for (int i = 0; i < 3; i++) {
+            int index = i;
+            assertDoesNotThrow(() -> messageHandler.handleMessage(MessageBuilder.withPayload("the payload " + index).build()));
+        }
+    }
+
+    @Test
+    public void test_batchPublish_batchSizeClampedToSendMultipleLimit() throws Exception {
+        producerProperties.getExtension().setPublishBatchSize(1000);
+        producerProperties.getExtension().setPublishBatchLingerTimeMs(TimeUnit.MINUTES.toMillis(1));
+        Mockito.when(messageProducer.sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+        messageHandler.start();
+
+        for (int i = 0; i < JCSMPOutboundMessageBatcher.MAX_BATCH_SIZE; i++) {
+            messageHandler.handleMessage(MessageBuilder.withPayload("the payload " + i).build());
+        }
+
+        Mockito.verify(messageProducer).sendMultiple(any(), Mockito.eq(0),
+                Mockito.eq(JCSMPOutboundMessageBatcher.MAX_BATCH_SIZE), Mockito.eq(0));
+    }
+
+    @Test
+    public void test_batchPublish_stopFlushesPendingMessages() throws Exception {
+        producerProperties.getExtension().setPublishBatchSize(10);
+        producerProperties.getExtension().setPublishBatchLingerTimeMs(TimeUnit.MINUTES.toMillis(1));
+        Mockito.when(messageProducer.sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+        messageHandler.start();
+
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload").build());
+        Mockito.verify(messageProducer, Mockito.never()).sendMultiple(any(), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt());
+
+        messageHandler.stop();
+        Mockito.verify(messageProducer).sendMultiple(any(), Mockito.eq(0), Mockito.eq(1), Mockito.eq(0));
+    }
+
+    @Test
+    public void test_maxInFlightMessages_backpressure() throws Exception {
+        producerProperties.getExtension().setMaxInFlightMessages(2);
+        messageHandler.start();
+
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload 0").build());
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload 1").build());
+        assertThatThrownBy(() -> messageHandler.handleMessage(MessageBuilder.withPayload("the payload 2").build()))
+                .isInstanceOf(MessagingException.class)
+                .hasCauseInstanceOf(SolacePublishBackpressureException.class);
+        Mockito.verify(messageProducer, Mockito.times(2)).send(any(XMLMessage.class), any(Destination.class));
+
+        pubEventHandlerCaptor.getValue().responseReceivedEx(getCorrelationKeys().get(0));
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload 3").build());
+        Mockito.verify(messageProducer, Mockito.times(3)).send(any(XMLMessage.class), any(Destination.class));
+    }
+
+    @Test
+    public void test_maxInFlightMessages_releasedOnSendFailure() throws Exception {
+        producerProperties.getExtension().setMaxInFlightMessages(1);
+        JCSMPException exception = new JCSMPException("Expected exception");
+        Mockito.doThrow(exception).doNothing()
+                .when(messageProducer)
+                .send(any(XMLMessage.class), any(Destination.class));
+        messageHandler.start();
+
+        assertThatThrownBy(() -> messageHandler.handleMessage(MessageBuilder.withPayload("the payload").build()))
+                .isInstanceOf(MessagingException.class)
+                .hasCause(exception);
+        assertDoesNotThrow(() -> messageHandler.handleMessage(MessageBuilder.withPayload("the payload").build()));
+    }
+
+    @Test
+    public void test_maxInFlightMessages_backpressureFailsCorrelation() throws Exception {
+        producerProperties.getExtension().setMaxInFlightMessages(1);
+        messageHandler.start();
+
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload").build());
+        CorrelationData correlationData = new CorrelationData();
+        assertThatThrownBy(() -> messageHandler.handleMessage(MessageBuilder.withPayload("the payload")
+                .setHeader(SolaceBinderHeaders.CONFIRM_CORRELATION, correlationData)
+                .build()))
+                .isInstanceOf(MessagingException.class)
+                .hasCauseInstanceOf(SolacePublishBackpressureException.class);
+
+        assertThat(correlationData.getFuture())
+                .failsWithin(100, TimeUnit.MILLISECONDS)
+                .withThrowableOfType(ExecutionException.class)
+                .havingCause()
+                .isInstanceOf(MessagingException.class)
+                .withCauseInstanceOf(SolacePublishBackpressureException.class);
+    }
+
+    @Test
+    public void test_maxInFlightMessages_limitedByPublisherWindow() throws Exception {
+        Mockito.when(session.getProperty(JCSMPProperties.PUB_ACK_WINDOW_SIZE)).thenReturn(2);
+        producerProperties.getExtension().setMaxInFlightMessages(10);
+        messageHandler.start();
+
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload 0").build());
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload 1").build());
+        assertThatThrownBy(() -> messageHandler.handleMessage(MessageBuilder.withPayload("the payload 2").build()))
+                .isInstanceOf(MessagingException.class)
+                .hasCauseInstanceOf(SolacePublishBackpressureException.class);
+        Mockito.verify(messageProducer, Mockito.times(2)).send(any(XMLMessage.class), any(Destination.class));
+
+        pubEventHandlerCaptor.getValue().responseReceivedEx(getCorrelationKeys().get(0));
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload 3").build());
+        Mockito.verify(messageProducer, Mockito.times(3)).send(any(XMLMessage.class), any(Destination.class));
+    }
+
+    @Test
+    public void test_maxInFlightMessages_disabledIgnoresPublisherWindow() throws Exception {
+        Mockito.when(session.getProperty(JCSMPProperties.PUB_ACK_WINDOW_SIZE)).thenReturn(1);
+        messageHandler.start();
+
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload 0").build());
+        messageHandler.handleMessage(MessageBuilder.withPayload("the payload 1").build());
+        Mockito.verify(messageProducer, Mockito.times(2)).send(any(XMLMessage.class), any(Destination.class));
+    }
+
+    @Test
+    public void test_producerFlowPool_roundRobin(@Mock XMLMessageProducer producerA,
+                                                 @Mock XMLMessageProducer producerB,
+                                                 @Mock XMLMessageProducer producerC) throws Exception {
+        producerProperties.getExtension().setProducerFlowCount(3);
+        Mockito.when(session.createProducer(any(), any())).thenReturn(producerA, producerB, producerC);
+        messageHandler.start();
+
+        for (int i = 0; i < 6; i++) {
+            messageHandler.handleMessage(MessageBuilder.withPayload("the payload").build());
+        }
+
+        Mockito.verify(session, Mockito.times(3)).createProducer(any(), any());
+        for (XMLMessageProducer producer : List.of(producerA, producerB, producerC)) {
+            Mockito.verify(producer, Mockito.times(2)).send(any(XMLMessage.class), any(Destination.class));
+        }
+        for (int i = 0; i < 3; i++) {
+            Mockito.verify(solaceMeterAccessor).registerProducerFlowInFlightGauge(
+                    Mockito.eq(producerProperties.getBindingName()), Mockito.eq(i), any());
+        }
+
+        messageHandler.stop();
+        for (XMLMessageProducer producer : List.of(producerA, producerB, producerC)) {
+            Mockito.verify(producer).close();
+        }
+    }
+
+    @Test
+    public void test_producerFlowPool_partitionKey(@Mock XMLMessageProducer producerA,
+                                                   @Mock XMLMessageProducer producerB,
+                                                   @Mock XMLMessageProducer producerC) throws Exception {
+        producerProperties.getExtension().setProducerFlowCount(3);
+        Mockito.when(session.createProducer(any(), any())).thenReturn(producerA, producerB, producerC);
+        messageHandler.start();
+
+        for (int i = 0; i < 6; i++) {
+            messageHandler.handleMessage(MessageBuilder.withPayload("the payload")
+                    .setHeader(SolaceBinderHeaders.PARTITION_KEY, "some-key")
+                    .build());
+        }
+
+        List<XMLMessageProducer> producers = List.of(producerA, producerB, producerC);
+        XMLMessageProducer expectedProducer = producers.get(Math.floorMod("some-key".hashCode(), producers.size()));
+        for (XMLMessageProducer producer : producers) {
+            Mockito.verify(producer, Mockito.times(producer == expectedProducer ? 6 : 0))
+                    .send(any(XMLMessage.class), any(Destination.class));
+        }
+    }
+
+    @Test
+    public void test_producerFlowPool_startFailureClosesCreatedFlows(@Mock XMLMessageProducer producerA)
+            throws Exception {
+        producerProperties.getExtension().setProducerFlowCount(3);
+        JCSMPException exception = new JCSMPException("error");
+        Mockito.when(session.createProducer(any(), any())).thenReturn(producerA).thenThrow(exception);
+
+        assertThatThrownBy(() -> messageHandler.start()).hasRootCause(exception);
+        Mockito.verify(producerA).close();
+        Mockito.verify(sessionProducerManager).release(Mockito.any());
+    }
+
     // Can remove test if/when SOL-118898 is completed
     @CartesianTest(name = "[{index}] pubAckWindowSize={0}, ackEventMode={1}")
     public void testJCSMPPropertiesInheritanceWorkaround(
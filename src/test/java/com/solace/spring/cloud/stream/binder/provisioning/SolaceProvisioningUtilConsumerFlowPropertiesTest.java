@@ -0,0 +1,44 @@
+package com.solace.spring.cloud.stream.binder.provisioning;
+
+import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
+import com.solacesystems.jcsmp.ConsumerFlowProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.stream.binder.ExtendedConsumerProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SolaceProvisioningUtilConsumerFlowPropertiesTest {
+
+    @Test
+    public void testFlowWindowPropertiesDefaultToSession() {
+        ConsumerFlowProperties consumerFlowProperties = SolaceProvisioningUtil.getConsumerFlowProperties("dest",
+                new ExtendedConsumerProperties<>(new SolaceConsumerProperties()));
+        assertThat(consumerFlowProperties.getTransportWindowSize()).isZero();
+        assertThat(consumerFlowProperties.getAckThreshold()).isZero();
+        assertThat(consumerFlowProperties.getAckTimerInMsecs()).isZero();
+    }
+
+    @Test
+    public void testFlowWindowProperties() {
+        SolaceConsumerProperties solaceConsumerProperties = new SolaceConsumerProperties();
+        solaceConsumerProperties.setFlowWindowSize(20);
+        solaceConsumerProperties.setFlowAckThreshold(30);
+        solaceConsumerProperties.setFlowAckTimerMs(50);
+        ConsumerFlowProperties consumerFlowProperties = SolaceProvisioningUtil.getConsumerFlowProperties("dest",
+                new ExtendedConsumerProperties<>(solaceConsumerProperties));
+        assertThat(consumerFlowProperties.getTransportWindowSize()).isEqualTo(20);
+        assertThat(consumerFlowProperties.getAckThreshold()).isEqualTo(30);
+        assertThat(consumerFlowProperties.getAckTimerInMsecs()).isEqualTo(50);
+    }
+
+    @Test
+    public void testInvalidFlowWindowSize() {
+        SolaceConsumerProperties solaceConsumerProperties = new SolaceConsumerProperties();
+        solaceConsumerProperties.setFlowWindowSize(256);
+        ExtendedConsumerProperties<SolaceConsumerProperties> properties = new ExtendedConsumerProperties<>(solaceConsumerProperties);
+        assertThatThrownBy(() -> SolaceProvisioningUtil.getConsumerFlowProperties("dest", properties))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("dest");
+    }
+}
@@ -0,0 +1,31 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import org.junit.jupiter.api.Test;
+import org.junitpioneer.jupiter.cartesian.CartesianTest;
+import org.junitpioneer.jupiter.cartesian.CartesianTest.Values;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsumerThreadFactoryTest {
+
+    @Test
+    void isVirtualThreadSupported_matchesJavaRuntime() {
+        assertThat(ConsumerThreadFactory.isVirtualThreadSupported()).isEqualTo(Runtime.version().feature() >= 21);
+    }
+
+    @CartesianTest(name = "[{index}] virtual={0}")
+    void create_runsTasks(@Values(booleans = {false, true}) boolean virtual) throws Exception {
+        ThreadFactory threadFactory = ConsumerThreadFactory.create(virtual);
+        CompletableFuture<Thread> executedBy = new CompletableFuture<>();
+        Thread thread = threadFactory.newThread(() -> executedBy.complete(Thread.currentThread()));
+        thread.start();
+
+        assertThat(executedBy.get(1, TimeUnit.SECONDS)).isSameAs(thread);
+        assertThat(thread.toString().contains("VirtualThread"))
+                .isEqualTo(virtual && ConsumerThreadFactory.isVirtualThreadSupported());
+    }
+}
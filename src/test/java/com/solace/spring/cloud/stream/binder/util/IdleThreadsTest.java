@@ -0,0 +1,40 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdleThreadsTest {
+
+    @Test
+    void testWakeUpOne() throws Exception {
+        IdleThreads idleThreads = new IdleThreads();
+        CompletableFuture<Void> parked = CompletableFuture.runAsync(() -> idleThreads.park(() -> false, TimeUnit.MINUTES.toNanos(1)));
+        Thread.sleep(200);
+        assertThat(parked).isNotDone();
+
+        idleThreads.wakeUpOne();
+        assertThat(parked).succeedsWithin(2, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testWakeUpAll() throws Exception {
+        IdleThreads idleThreads = new IdleThreads();
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> idleThreads.park(() -> false, TimeUnit.MINUTES.toNanos(1)));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> idleThreads.park(() -> false, TimeUnit.MINUTES.toNanos(1)));
+        Thread.sleep(200);
+
+        idleThreads.wakeUpAll();
+        assertThat(CompletableFuture.allOf(first, second)).succeedsWithin(2, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testParkReturnsWithWork() {
+        IdleThreads idleThreads = new IdleThreads();
+        assertThat(CompletableFuture.runAsync(() -> idleThreads.park(() -> true, TimeUnit.MINUTES.toNanos(1))))
+                .succeedsWithin(2, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,123 @@
+package com.solace.spring.cloud.stream.binder.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LargeMessageExpiryServiceTest {
+
+    @Test
+    void advance_shouldExpireAfterDeadline() {
+        try (LargeMessageExpiryService expiryService = new LargeMessageExpiryService(10, 8)) {
+            long now = System.currentTimeMillis();
+            TestExpirable expirable = new TestExpirable(now + 1000);
+            expiryService.schedule(expirable);
+
+            expiryService.advance(now + 500);
+            assertThat(expirable.expired).hasValue(0);
+
+            expiryService.advance(now + 1000);
+            assertThat(expirable.expired).hasValue(1);
+
+            expiryService.advance(now + 2000);
+            assertThat(expirable.expired).hasValue(1);
+        }
+    }
+
+    @Test
+    void advance_shouldRescheduleMovedDeadline() {
+        try (LargeMessageExpiryService expiryService = new LargeMessageExpiryService(10, 8)) {
+            long now = System.currentTimeMillis();
+            TestExpirable expirable = new TestExpirable(now + 100);
+            expiryService.schedule(expirable);
+            // beyond a revolution of the wheel
+            expirable.deadline = now + 1000;
+
+            expiryService.advance(now + 500);
+            assertThat(expirable.expired).hasValue(0);
+
+            expiryService.advance(now + 1000);
+            assertThat(expirable.expired).hasValue(1);
+        }
+    }
+
+    @Test
+    void advance_shouldSkipDone() {
+        try (LargeMessageExpiryService expiryService = new LargeMessageExpiryService(10, 8)) {
+            long now = System.currentTimeMillis();
+            TestExpirable expirable = new TestExpirable(now + 100);
+            expiryService.schedule(expirable);
+            expirable.done = true;
+
+            expiryService.advance(now + 1000);
+            assertThat(expirable.expired).hasValue(0);
+        }
+    }
+
+    @Test
+    void schedule_shouldExpireOnExpiryThread() throws InterruptedException {
+        try (LargeMessageExpiryService expiryService = new LargeMessageExpiryService(10, 8)) {
+            CountDownLatch latch = new CountDownLatch(1);
+            TestExpirable expirable = new TestExpirable(System.currentTimeMillis() + 50) {
+                @Override
+                public void expire() {
+                    super.expire();
+                    latch.countDown();
+                }
+            };
+            expiryService.schedule(expirable);
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(expirable.expired).hasValue(1);
+        }
+    }
+
+    @Test
+    void close_shouldNotExpireScheduled() {
+        LargeMessageExpiryService expiryService = new LargeMessageExpiryService(10, 8);
+        long now = System.currentTimeMillis();
+        TestExpirable expirable = new TestExpirable(now + 100);
+        expiryService.schedule(expirable);
+        expiryService.close();
+
+        expiryService.advance(now + 1000);
+        expiryService.schedule(new TestExpirable(now));
+        expiryService.advance(now + 2000);
+        assertThat(expirable.expired).hasValue(0);
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidWheelSize() {
+        assertThatThrownBy(() -> new LargeMessageExpiryService(10, 6)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static class TestExpirable implements LargeMessageExpiryService.Expirable {
+        private final AtomicInteger expired = new AtomicInteger();
+        private volatile long deadline;
+        private volatile boolean done;
+
+        private TestExpirable(long deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        public long getDeadline() {
+            return deadline;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public void expire() {
+            expired.incrementAndGet();
+            done = true;
+        }
+    }
+}
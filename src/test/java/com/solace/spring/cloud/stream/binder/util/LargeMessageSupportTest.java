@@ -1,27 +1,52 @@
 package com.solace.spring.cloud.stream.binder.util;
 
+import com.solace.spring.cloud.stream.binder.messaging.SolaceBinderHeaders;
+import com.solace.spring.cloud.stream.binder.meter.SolaceMessageMeterBinder;
+import com.solace.spring.cloud.stream.binder.meter.SolaceMeterAccessor;
 import com.solacesystems.jcsmp.BytesMessage;
 import com.solacesystems.jcsmp.BytesXMLMessage;
 import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.SDTException;
+import com.solacesystems.jcsmp.SDTMap;
 import com.solacesystems.jcsmp.XMLMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.integration.acks.AcknowledgmentCallback;
 
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.lang.management.ManagementFactory;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.SecureRandom;
-import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 
+@Execution(ExecutionMode.SAME_THREAD) // tests hold payloads of up to 80 MB
 class LargeMessageSupportTest {
     private final SecureRandom secureRandom = new SecureRandom();
 
@@ -56,7 +81,7 @@ class LargeMessageSupportTest {
         byte[] userData = new byte[messageSize];
         secureRandom.nextBytes(userData);
         originalMessage.setData(userData);
-        List<XMLMessage> chunks = largeMessageSupport.split(originalMessage);
+        List<XMLMessage> chunks = new ArrayList<>(largeMessageSupport.split(originalMessage));
         assertThat(chunks.size()).isEqualTo(messageSize / LargeMessageSupport.CHUNK_SIZE + 1);
         int len = 0;
         for (XMLMessage xmlMessage : chunks) {
@@ -75,15 +100,49 @@ class LargeMessageSupportTest {
         assertThat(done.get()).isTrue();
     }
 
+    @Test
+    void split_shouldCreateChunksOnDemandWithoutCopyingPayload() throws SDTException {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
+        BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        int messageSize = LargeMessageSupport.CHUNK_SIZE * 3 + 17;
+        byte[] userData = new byte[messageSize];
+        secureRandom.nextBytes(userData);
+        originalMessage.setData(userData);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+        List<XMLMessage> chunks = largeMessageSupport.split(originalMessage);
+        assertThat(threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBytes)
+                .as("split must not create the chunks up front")
+                .isLessThan(LargeMessageSupport.CHUNK_SIZE / 8);
+        assertThat(chunks).hasSize(4);
+
+        for (int i = 0; i < chunks.size(); i++) {
+            allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+            XMLMessage chunk = chunks.get(i);
+            assertThat(threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBytes)
+                    .as("chunk %s must only allocate its own buffer", i)
+                    .isLessThan(LargeMessageSupport.CHUNK_SIZE + LargeMessageSupport.CHUNK_SIZE / 8);
+
+            int from = i * LargeMessageSupport.CHUNK_SIZE;
+            assertThat(((BytesMessage) chunk).getData())
+                    .isEqualTo(Arrays.copyOfRange(userData, from, Math.min(from + LargeMessageSupport.CHUNK_SIZE, messageSize)));
+            assertThat(chunk.getProperties().getInteger(SolaceBinderHeaders.CHUNK_INDEX)).isEqualTo(i);
+            assertThat(chunk.getProperties().getInteger(SolaceBinderHeaders.CHUNK_COUNT)).isEqualTo(4);
+        }
+    }
+
     @Test
     void housekeeping_ignore_new_messages() {
+        LargeMessageExpiryService expiryService = new LargeMessageExpiryService(10, 8);
         LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
+        largeMessageSupport.setExpiryService(expiryService);
         BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
         int messageSize = 1024 * 1024 * 80 + 17;
         byte[] userData = new byte[messageSize];
         secureRandom.nextBytes(userData);
         originalMessage.setData(userData);
-        List<XMLMessage> chunks = largeMessageSupport.split(originalMessage);
+        List<XMLMessage> chunks = new ArrayList<>(largeMessageSupport.split(originalMessage));
         assertThat(chunks.size()).isEqualTo(messageSize / LargeMessageSupport.CHUNK_SIZE + 1);
         int len = 0;
         for (XMLMessage xmlMessage : chunks) {
@@ -94,7 +153,7 @@ class LargeMessageSupportTest {
         AtomicBoolean done = new AtomicBoolean(false);
         for (XMLMessage xmlMessage : chunks) {
             LargeMessageSupport.MessageContext messageContext = largeMessageSupport.assemble((BytesXMLMessage) xmlMessage, mock(AcknowledgmentCallback.class));
-            largeMessageSupport.housekeeping();
+            expiryService.advance(System.currentTimeMillis());
             if (messageContext != null) {
                 assertThat(((BytesMessage) messageContext.bytesMessage()).getData()).isEqualTo(userData);
                 done.set(true);
@@ -103,10 +162,13 @@ class LargeMessageSupportTest {
         assertThat(done.get()).isTrue();
     }
 
-    @SuppressWarnings("unchecked")
     @Test
     void housekeeping_remove_old_messages() throws NoSuchFieldException, IllegalAccessException {
-        LargeMessageSupport largeMessageSupport = new LargeMessageSupport();
+        LargeMessageExpiryService expiryService = new LargeMessageExpiryService(10, 8);
+        AtomicLong assemblyBytes = new AtomicLong();
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(assemblyBytes);
+        largeMessageSupport.setExpiryService(expiryService);
+        largeMessageSupport.setReceiveTimeoutMs(5000);
         BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
         int messageSize = 1024 * 1024 * 80 + 17;
         byte[] userData = new byte[messageSize];
@@ -115,22 +177,284 @@ class LargeMessageSupportTest {
         List<XMLMessage> chunks = largeMessageSupport.split(originalMessage);
         Field contextField = largeMessageSupport.getClass().getDeclaredField("context");
         contextField.setAccessible(true);
-        var context = (Map<Long, LargeMessageSupport.MessageContextBytes[]>) contextField.get(largeMessageSupport);
-        for (XMLMessage xmlMessage : chunks.stream().skip(1).toList()) {
-            largeMessageSupport.assemble((BytesXMLMessage) xmlMessage, mock(AcknowledgmentCallback.class));
-        }
-        LargeMessageSupport.MessageContextBytes[] contextArray = context.entrySet().iterator().next().getValue();
+        var context = (Map<?, ?>) contextField.get(largeMessageSupport);
         List<AcknowledgmentCallback> callbacks = new ArrayList<>();
-        for (int i = 0; i < contextArray.length; i++) {
-            if (contextArray[i] != null) {
-                callbacks.add(contextArray[i].acknowledgmentCallback());
-                contextArray[i] = new LargeMessageSupport.MessageContextBytes(contextArray[i].bytesMessage(), contextArray[i].acknowledgmentCallback(), Instant.now().minusSeconds(61));
-            }
+        for (XMLMessage xmlMessage : chunks.stream().skip(1).toList()) {
+            AcknowledgmentCallback callback = mock(AcknowledgmentCallback.class);
+            callbacks.add(callback);
+            largeMessageSupport.assemble((BytesXMLMessage) xmlMessage, callback);
         }
-        largeMessageSupport.housekeeping();
+        assertThat(context).hasSize(1);
+
+        expiryService.advance(System.currentTimeMillis() + 1000);
+        assertThat(context).hasSize(1);
+        expiryService.advance(System.currentTimeMillis() + 6000);
         assertThat(context.entrySet()).isEmpty();
+        assertThat(assemblyBytes.get()).isZero();
         for (AcknowledgmentCallback ack : callbacks) {
             verify(ack).acknowledge(eq(AcknowledgmentCallback.Status.REJECT));
         }
+
+        AcknowledgmentCallback late = mock(AcknowledgmentCallback.class);
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) chunks.get(0), late)).isNull();
+        verify(late, never()).acknowledge(any());
+    }
+
+    @Test
+    void assemble_shouldCompleteOnceWhenChunksArriveConcurrently() throws Exception {
+        AtomicLong assemblyBytes = new AtomicLong();
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(assemblyBytes);
+        BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        int messageSize = LargeMessageSupport.CHUNK_SIZE * 3 + 17;
+        byte[] userData = new byte[messageSize];
+        secureRandom.nextBytes(userData);
+        originalMessage.setData(userData);
+        List<XMLMessage> chunks = new ArrayList<>(largeMessageSupport.split(originalMessage));
+        Collections.shuffle(chunks);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(chunks.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<LargeMessageSupport.MessageContext>> results = new ArrayList<>();
+            for (XMLMessage chunk : chunks) {
+                results.add(executorService.submit(() -> {
+                    start.await();
+                    return largeMessageSupport.assemble((BytesXMLMessage) chunk, mock(AcknowledgmentCallback.class));
+                }));
+            }
+            start.countDown();
+            List<LargeMessageSupport.MessageContext> completed = new ArrayList<>();
+            for (Future<LargeMessageSupport.MessageContext> result : results) {
+                LargeMessageSupport.MessageContext messageContext = result.get(30, TimeUnit.SECONDS);
+                if (messageContext != null) {
+                    completed.add(messageContext);
+                }
+            }
+            assertThat(completed).hasSize(1);
+            assertThat(((BytesMessage) completed.get(0).bytesMessage()).getData()).isEqualTo(userData);
+            assertThat(assemblyBytes.get()).isZero();
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void assemble_shouldRecordMeters() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SolaceMessageMeterBinder solaceMessageMeterBinder = new SolaceMessageMeterBinder();
+        solaceMessageMeterBinder.bindTo(meterRegistry);
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(new AtomicLong());
+        largeMessageSupport.setSolaceMeterAccessor(new SolaceMeterAccessor(solaceMessageMeterBinder), "test-binding");
+        List<XMLMessage> chunks = createChunks(largeMessageSupport, LargeMessageSupport.CHUNK_SIZE + 1);
+
+        largeMessageSupport.assemble((BytesXMLMessage) chunks.get(0), mock(AcknowledgmentCallback.class));
+        assertThat(meterRegistry.get(SolaceMessageMeterBinder.METER_NAME_ASSEMBLY_PARTIAL).gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get(SolaceMessageMeterBinder.METER_NAME_ASSEMBLY_BYTES).gauge().value())
+                .isEqualTo(LargeMessageSupport.CHUNK_SIZE);
+
+        largeMessageSupport.assemble((BytesXMLMessage) chunks.get(1), mock(AcknowledgmentCallback.class));
+        assertThat(meterRegistry.get(SolaceMessageMeterBinder.METER_NAME_ASSEMBLY_PARTIAL).gauge().value()).isZero();
+        assertThat(meterRegistry.get(SolaceMessageMeterBinder.METER_NAME_ASSEMBLY_BYTES).gauge().value()).isZero();
+        assertThat(meterRegistry.get(SolaceMessageMeterBinder.METER_NAME_ASSEMBLY_TIME).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void assemble_shouldSpillToDisk(@TempDir Path spillDirectory) throws IOException {
+        AtomicLong assemblyBytes = new AtomicLong();
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(assemblyBytes);
+        largeMessageSupport.setSpillToDisk(true);
+        largeMessageSupport.setSpillDirectory(spillDirectory);
+        BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        int messageSize = LargeMessageSupport.CHUNK_SIZE * 3 + 17;
+        byte[] userData = new byte[messageSize];
+        secureRandom.nextBytes(userData);
+        originalMessage.setData(userData);
+        List<XMLMessage> chunks = new ArrayList<>(largeMessageSupport.split(originalMessage));
+        // out of order arrival
+        Collections.swap(chunks, 0, 2);
+
+        LargeMessageSupport.MessageContext messageContext = null;
+        for (XMLMessage xmlMessage : chunks) {
+            assertThat(messageContext).isNull();
+            messageContext = largeMessageSupport.assemble((BytesXMLMessage) xmlMessage, mock(AcknowledgmentCallback.class));
+        }
+
+        assertThat(messageContext).isNotNull();
+        assertThat(messageContext.payload()).isNotNull();
+        assertThat(messageContext.payload().isReadOnly()).isTrue();
+        byte[] assembled = new byte[messageContext.payload().remaining()];
+        messageContext.payload().duplicate().get(assembled);
+        assertThat(assembled).isEqualTo(userData);
+        assertThat(messageContext.bytesMessage().getProperties().containsKey(SolaceBinderHeaders.CHUNK_ID)).isFalse();
+        assertThat(assemblyBytes.get()).isZero();
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void assemble_shouldNotReferenceSpilledChunks(@TempDir Path spillDirectory) throws IOException {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(new AtomicLong());
+        largeMessageSupport.setSpillToDisk(true);
+        largeMessageSupport.setSpillDirectory(spillDirectory);
+        List<XMLMessage> chunks = new ArrayList<>(createChunks(largeMessageSupport, LargeMessageSupport.CHUNK_SIZE * 2 + 1));
+        assertThat(chunks).hasSize(3);
+
+        List<WeakReference<XMLMessage>> spilled = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            XMLMessage chunk = chunks.set(i, null);
+            spilled.add(new WeakReference<>(chunk));
+            assertThat(largeMessageSupport.assemble((BytesXMLMessage) chunk, mock(AcknowledgmentCallback.class))).isNull();
+        }
+
+        await().atMost(10, TimeUnit.SECONDS).until(() -> {
+            System.gc();
+            return spilled.stream().allMatch(reference -> reference.get() == null);
+        });
+        LargeMessageSupport.MessageContext messageContext = largeMessageSupport.assemble((BytesXMLMessage) chunks.get(2), mock(AcknowledgmentCallback.class));
+        assertThat(messageContext).isNotNull();
+        assertThat(messageContext.payload().remaining()).isEqualTo(LargeMessageSupport.CHUNK_SIZE * 2 + 1);
+    }
+
+    @Test
+    void assemble_shouldRequeueNewAssemblyWhenBudgetIsExhausted() {
+        AtomicLong assemblyBytes = new AtomicLong();
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(assemblyBytes);
+        largeMessageSupport.setMaxAssemblyBytes(LargeMessageSupport.CHUNK_SIZE);
+        List<XMLMessage> first = createChunks(largeMessageSupport, LargeMessageSupport.CHUNK_SIZE + 1);
+        List<XMLMessage> second = createChunks(largeMessageSupport, LargeMessageSupport.CHUNK_SIZE + 1);
+
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) first.get(0), mock(AcknowledgmentCallback.class))).isNull();
+        assertThat(assemblyBytes.get()).isEqualTo(LargeMessageSupport.CHUNK_SIZE);
+
+        AcknowledgmentCallback refused = mock(AcknowledgmentCallback.class);
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) second.get(0), refused)).isNull();
+        verify(refused).acknowledge(AcknowledgmentCallback.Status.REQUEUE);
+        assertThat(assemblyBytes.get()).isEqualTo(LargeMessageSupport.CHUNK_SIZE);
+
+        // an assembly in progress completes regardless of the budget
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) first.get(1), mock(AcknowledgmentCallback.class))).isNotNull();
+        assertThat(assemblyBytes.get()).isZero();
+
+        AcknowledgmentCallback accepted = mock(AcknowledgmentCallback.class);
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) second.get(0), accepted)).isNull();
+        verify(accepted, never()).acknowledge(any());
+    }
+
+    @Test
+    void assemble_shouldRejectAfterMaxAssemblyRefusals() {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(new AtomicLong());
+        largeMessageSupport.setMaxAssemblyBytes(LargeMessageSupport.CHUNK_SIZE);
+        largeMessageSupport.setMaxAssemblyRefusals(2);
+        List<XMLMessage> first = createChunks(largeMessageSupport, LargeMessageSupport.CHUNK_SIZE + 1);
+        List<XMLMessage> second = createChunks(largeMessageSupport, LargeMessageSupport.CHUNK_SIZE + 1);
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) first.get(0), mock(AcknowledgmentCallback.class))).isNull();
+
+        List<AcknowledgmentCallback> callbacks = Stream.generate(() -> mock(AcknowledgmentCallback.class)).limit(3).toList();
+        // redeliveries of the same chunk
+        callbacks.forEach(callback -> largeMessageSupport.assemble((BytesXMLMessage) second.get(0), callback));
+
+        verify(callbacks.get(0)).acknowledge(AcknowledgmentCallback.Status.REQUEUE);
+        verify(callbacks.get(1)).acknowledge(AcknowledgmentCallback.Status.REQUEUE);
+        verify(callbacks.get(2)).acknowledge(AcknowledgmentCallback.Status.REJECT);
+
+        // the refusals of another chunk are counted on their own
+        AcknowledgmentCallback other = mock(AcknowledgmentCallback.class);
+        largeMessageSupport.assemble((BytesXMLMessage) second.get(1), other);
+        verify(other).acknowledge(AcknowledgmentCallback.Status.REQUEUE);
+    }
+
+    @Test
+    void assemble_shouldCountSpilledChunks(@TempDir Path spillDirectory) {
+        AtomicLong assemblyBytes = new AtomicLong();
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(assemblyBytes);
+        largeMessageSupport.setSpillToDisk(true);
+        largeMessageSupport.setSpillDirectory(spillDirectory);
+        largeMessageSupport.setMaxAssemblyBytes(1);
+        List<XMLMessage> first = createChunks(largeMessageSupport, LargeMessageSupport.CHUNK_SIZE + 1);
+        List<XMLMessage> second = createChunks(largeMessageSupport, LargeMessageSupport.CHUNK_SIZE + 1);
+
+        AcknowledgmentCallback callback = mock(AcknowledgmentCallback.class);
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) first.get(0), mock(AcknowledgmentCallback.class))).isNull();
+        assertThat(assemblyBytes.get()).isEqualTo(LargeMessageSupport.CHUNK_SIZE);
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) second.get(0), callback)).isNull();
+        verify(callback).acknowledge(AcknowledgmentCallback.Status.REQUEUE);
+
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) first.get(1), mock(AcknowledgmentCallback.class))).isNotNull();
+        assertThat(assemblyBytes.get()).isZero();
+    }
+
+    @Test
+    void assemble_shouldVerifyChecksums() throws SDTException {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(new AtomicLong());
+        largeMessageSupport.setChunkSize(1024);
+        largeMessageSupport.setChecksum(true);
+        BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        byte[] userData = new byte[3000];
+        secureRandom.nextBytes(userData);
+        originalMessage.setData(userData);
+        List<XMLMessage> chunks = largeMessageSupport.split(originalMessage);
+        assertThat(chunks).hasSize(3);
+
+        LargeMessageSupport.MessageContext messageContext = null;
+        for (int i = 0; i < chunks.size(); i++) {
+            XMLMessage chunk = chunks.get(i);
+            assertThat(chunk.getProperties().getInteger(SolaceBinderHeaders.CHUNK_CHECKSUM)).isNotNull();
+            assertThat(chunk.getProperties().containsKey(SolaceBinderHeaders.CHUNK_MESSAGE_CHECKSUM))
+                    .isEqualTo(i == chunks.size() - 1);
+            messageContext = largeMessageSupport.assemble((BytesXMLMessage) chunk, mock(AcknowledgmentCallback.class));
+        }
+
+        assertThat(messageContext).isNotNull();
+        assertThat(((BytesMessage) messageContext.bytesMessage()).getData()).isEqualTo(userData);
+        assertThat(messageContext.bytesMessage().getProperties().containsKey(SolaceBinderHeaders.CHUNK_CHECKSUM)).isFalse();
+        assertThat(messageContext.bytesMessage().getProperties().containsKey(SolaceBinderHeaders.CHUNK_MESSAGE_CHECKSUM)).isFalse();
+    }
+
+    @Test
+    void assemble_shouldRejectCorruptChunk() {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(new AtomicLong());
+        largeMessageSupport.setChunkSize(1024);
+        largeMessageSupport.setChecksum(true);
+        List<XMLMessage> chunks = createChunks(largeMessageSupport, 3000);
+        BytesMessage corrupt = (BytesMessage) chunks.get(1);
+        byte[] data = corrupt.getData();
+        data[7] ^= 1;
+        corrupt.setData(data);
+
+        AcknowledgmentCallback first = mock(AcknowledgmentCallback.class);
+        AcknowledgmentCallback second = mock(AcknowledgmentCallback.class);
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) chunks.get(0), first)).isNull();
+        assertThat(largeMessageSupport.assemble(corrupt, second)).isNull();
+
+        verify(first).acknowledge(AcknowledgmentCallback.Status.REJECT);
+        verify(second).acknowledge(AcknowledgmentCallback.Status.REJECT);
+    }
+
+    @Test
+    void assemble_shouldRejectChunkOfOtherMessage() throws SDTException {
+        LargeMessageSupport largeMessageSupport = new LargeMessageSupport(new AtomicLong());
+        largeMessageSupport.setChunkSize(1024);
+        largeMessageSupport.setChecksum(true);
+        List<XMLMessage> chunks = createChunks(largeMessageSupport, 3000);
+        XMLMessage foreign = createChunks(largeMessageSupport, 3000).get(1);
+        SDTMap properties = foreign.getProperties();
+        properties.putLong(SolaceBinderHeaders.CHUNK_ID, chunks.get(0).getProperties().getLong(SolaceBinderHeaders.CHUNK_ID));
+        foreign.setProperties(properties);
+
+        List<AcknowledgmentCallback> callbacks = Stream.generate(() -> mock(AcknowledgmentCallback.class)).limit(3).toList();
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) chunks.get(0), callbacks.get(0))).isNull();
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) foreign, callbacks.get(1))).isNull();
+        assertThat(largeMessageSupport.assemble((BytesXMLMessage) chunks.get(2), callbacks.get(2))).isNull();
+
+        callbacks.forEach(callback -> verify(callback).acknowledge(AcknowledgmentCallback.Status.REJECT));
+    }
+
+    private List<XMLMessage> createChunks(LargeMessageSupport largeMessageSupport, int messageSize) {
+        BytesMessage originalMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        byte[] userData = new byte[messageSize];
+        secureRandom.nextBytes(userData);
+        originalMessage.setData(userData);
+        return largeMessageSupport.split(originalMessage);
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,9 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.solace.spring.cloud.stream.binder.codec.BinaryPayloadCodec;
+import com.solace.spring.cloud.stream.binder.codec.BinaryValueEncoding;
+import com.solace.spring.cloud.stream.binder.codec.JacksonPayloadCodec;
 import com.solace.spring.cloud.stream.binder.messaging.*;
 import com.solace.spring.cloud.stream.binder.properties.SolaceConsumerProperties;
 import com.solace.spring.cloud.stream.binder.test.util.SerializableFoo;
@@ -47,6 +50,8 @@ import org.springframework.util.SerializationUtils;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
@@ -251,12 +256,16 @@ public class XMLMessageMapperTest {
                     assertEquals("base64", xmlMessage.getProperties().getString(header.getKey()));
                     break;
                 case SolaceBinderHeaders.SERIALIZED_PAYLOAD:
+                case SolaceBinderHeaders.PAYLOAD_CODEC:
+                case SolaceBinderHeaders.PAYLOAD_TYPE:
                 case SolaceBinderHeaders.CONFIRM_CORRELATION:
                 case SolaceBinderHeaders.NULL_PAYLOAD:
                 case SolaceBinderHeaders.TARGET_DESTINATION_TYPE:
                 case SolaceBinderHeaders.CHUNK_ID:
                 case SolaceBinderHeaders.CHUNK_COUNT:
                 case SolaceBinderHeaders.CHUNK_INDEX:
+                case SolaceBinderHeaders.CHUNK_CHECKSUM:
+                case SolaceBinderHeaders.CHUNK_MESSAGE_CHECKSUM:
                     assertNull(xmlMessage.getProperties().get(header.getKey()));
                     break;
                 default:
@@ -547,7 +556,9 @@ public class XMLMessageMapperTest {
                         .stream()
                         .filter(e -> SolaceHeaderMeta.Scope.WIRE.equals(e.getValue().getScope()))
                         .filter(e -> !e.getValue().isWritable()) // already tested earlier in this test
-                        .map(Map.Entry::getKey))
+                        .map(Map.Entry::getKey)
+                        // only set if the payload is encoded by a non-default codec
+                        .filter(h -> !h.equals(SolaceBinderHeaders.PAYLOAD_CODEC) && !h.equals(SolaceBinderHeaders.PAYLOAD_TYPE)))
                 .allSatisfy(h -> Assertions.assertThat(xmlMessage.getProperties().get(h)).isNotNull());
 
         Mockito.verify(xmlMessageMapper).map(testSpringMessage, excludedHeaders, false, DeliveryMode.PERSISTENT);
@@ -835,6 +846,12 @@ public class XMLMessageMapperTest {
                 case SolaceBinderHeaders.SERIALIZED_PAYLOAD:
                     metadata.putBoolean(header.getKey(), false);
                     break;
+                case SolaceBinderHeaders.PAYLOAD_CODEC:
+                    metadata.putString(header.getKey(), BinaryPayloadCodec.ID);
+                    break;
+                case SolaceBinderHeaders.PAYLOAD_TYPE:
+                    metadata.putString(header.getKey(), Long.class.getName());
+                    break;
                 case SolaceBinderHeaders.CONFIRM_CORRELATION:
                     metadata.putString(header.getKey(), "random_string");
                     break;
@@ -856,6 +873,10 @@ public class XMLMessageMapperTest {
                 case SolaceBinderHeaders.CHUNK_INDEX:
                     metadata.putInteger(header.getKey(), 0);
                     break;
+                case SolaceBinderHeaders.CHUNK_CHECKSUM:
+                case SolaceBinderHeaders.CHUNK_MESSAGE_CHECKSUM:
+                    metadata.putInteger(header.getKey(), 123);
+                    break;
                 default:
                     fail(String.format("no test for header %s", header.getKey()));
             }
@@ -998,6 +1019,36 @@ public class XMLMessageMapperTest {
         assertEquals(Boolean.TRUE, springMessageHeaders.get(SolaceBinderHeaders.NULL_PAYLOAD, Boolean.class));
     }
 
+    @Test
+    void testMapXMLMessageToSpringMessage_WithByteBufferPayload() {
+        BytesMessage xmlMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        ByteBuffer data = ByteBuffer.wrap(RandomStringUtils.randomAlphanumeric(100).getBytes()).asReadOnlyBuffer();
+        AcknowledgmentCallback acknowledgmentCallback = Mockito.mock(AcknowledgmentCallback.class);
+        SolaceConsumerProperties consumerProperties = new SolaceConsumerProperties();
+
+        Message<?> springMessage = xmlMessageMapper.map(xmlMessage, data, acknowledgmentCallback, true, consumerProperties);
+
+        assertSame(data, springMessage.getPayload());
+        assertNull(springMessage.getHeaders().get(SolaceBinderHeaders.NULL_PAYLOAD));
+    }
+
+    @Test
+    void testMapXMLMessageToSpringMessage_WithSerializedByteBufferPayload() throws Exception {
+        BytesMessage xmlMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        SerializableFoo expectedPayload = new SerializableFoo(
+                RandomStringUtils.randomAlphanumeric(100), RandomStringUtils.randomAlphanumeric(100));
+        SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
+        metadata.putBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD, true);
+        xmlMessage.setProperties(metadata);
+        AcknowledgmentCallback acknowledgmentCallback = Mockito.mock(AcknowledgmentCallback.class);
+        SolaceConsumerProperties consumerProperties = new SolaceConsumerProperties();
+
+        Message<?> springMessage = xmlMessageMapper.map(xmlMessage,
+                ByteBuffer.wrap(SerializationUtils.serialize(expectedPayload)), acknowledgmentCallback, true, consumerProperties);
+
+        assertEquals(expectedPayload, springMessage.getPayload());
+    }
+
     @Test
     void testMapXMLMessageToSpringMessage_WithListPayload() throws Exception {
         BytesMessage xmlMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
@@ -1055,6 +1106,124 @@ public class XMLMessageMapperTest {
         assertThat(serializedHeaders, hasItem(MessageHeaders.ID));
     }
 
+    @Test
+    void testMapMessageHeadersToSDTMap_Serializable_MessageVersion2() throws Exception {
+        xmlMessageMapper.setMessageVersion(XMLMessageMapper.MESSAGE_VERSION_2);
+        String key = "a";
+        SerializableFoo value = new SerializableFoo("abc123", "HOOPLA!");
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(key, value);
+
+        SDTMap sdtMap = xmlMessageMapper.map(new MessageHeaders(headers), Collections.emptyList(), false);
+
+        assertThat(sdtMap.keySet(), not(hasItem(key)));
+        assertThat(sdtMap.keySet(), not(hasItem(SolaceBinderHeaders.SERIALIZED_HEADERS_ENCODING)));
+        SDTMap serializedHeaders = sdtMap.getMap(SolaceBinderHeaders.SERIALIZED_HEADERS);
+        assertEquals(Set.of(key, MessageHeaders.ID), serializedHeaders.keySet());
+        assertEquals(value, SerializationUtils.deserialize(serializedHeaders.getBytes(key)));
+    }
+
+    @Test
+    void testMapMessageHeadersToSDTMap_BinaryEncoded_MessageVersion2() throws Exception {
+        xmlMessageMapper.setMessageVersion(XMLMessageMapper.MESSAGE_VERSION_2);
+        UUID id = UUID.randomUUID();
+        List<Object> list = List.of("a", 1L, DeliveryMode.DIRECT);
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(MessageHeaders.ID, id);
+        headers.put("list", list);
+
+        SDTMap sdtMap = xmlMessageMapper.map(new MessageHeaders(headers), Collections.emptyList(), false);
+
+        SDTMap serializedHeaders = sdtMap.getMap(SolaceBinderHeaders.SERIALIZED_HEADERS);
+        // no Java serialization for types with a compact binary encoding
+        assertArrayEquals(BinaryValueEncoding.encode(list), serializedHeaders.getBytes("list"));
+        MessageHeaders mapped = xmlMessageMapper.map(sdtMap, Collections.emptyList());
+        assertEquals(list, mapped.get("list"));
+    }
+
+    @Test
+    void testMapMessageVersion2RoundTrip() throws Exception {
+        xmlMessageMapper.setMessageVersion(XMLMessageMapper.MESSAGE_VERSION_2);
+        SerializableFoo value = new SerializableFoo("abc123", "HOOPLA!");
+        Message<?> message = MessageBuilder.withPayload("payload")
+                .setHeader("foo", value)
+                .setHeader("bar", "plain")
+                .build();
+
+        XMLMessage xmlMessage = xmlMessageMapper.map(message, null, false, DeliveryMode.PERSISTENT);
+        assertEquals((Integer) XMLMessageMapper.MESSAGE_VERSION_2,
+                xmlMessage.getProperties().getInteger(SolaceBinderHeaders.MESSAGE_VERSION));
+
+        Message<?> mapped = xmlMessageMapper.map(xmlMessage, null, new SolaceConsumerProperties());
+        assertEquals(value, mapped.getHeaders().get("foo"));
+        assertEquals("plain", mapped.getHeaders().get("bar"));
+        assertEquals(XMLMessageMapper.MESSAGE_VERSION_2, mapped.getHeaders().get(SolaceBinderHeaders.MESSAGE_VERSION));
+        assertNull(mapped.getHeaders().get(SolaceBinderHeaders.SERIALIZED_HEADERS));
+    }
+
+    @Test
+    void testMapPayloadCodec_Binary() throws Exception {
+        xmlMessageMapper.setPayloadCodec(new BinaryPayloadCodec());
+        BigDecimal payload = new BigDecimal("-1234.5678");
+        Message<?> message = MessageBuilder.withPayload(payload).build();
+
+        XMLMessage xmlMessage = xmlMessageMapper.map(message, null, false, DeliveryMode.PERSISTENT);
+        assertThat(xmlMessage, instanceOf(BytesMessage.class));
+        SDTMap properties = xmlMessage.getProperties();
+        assertEquals(BinaryPayloadCodec.ID, properties.getString(SolaceBinderHeaders.PAYLOAD_CODEC));
+        assertEquals(BigDecimal.class.getName(), properties.getString(SolaceBinderHeaders.PAYLOAD_TYPE));
+        assertFalse(properties.containsKey(SolaceBinderHeaders.SERIALIZED_PAYLOAD));
+
+        Message<?> mapped = xmlMessageMapper.map(xmlMessage, null, new SolaceConsumerProperties());
+        assertEquals(payload, mapped.getPayload());
+    }
+
+    @Test
+    void testMapPayloadCodec_Jackson() throws Exception {
+        xmlMessageMapper.setPayloadCodec(new JacksonPayloadCodec());
+        HashMap<String, Object> payload = new HashMap<>(Map.of("foo", "abc123", "bar", 42));
+        Message<?> message = MessageBuilder.withPayload(payload).build();
+
+        XMLMessage xmlMessage = xmlMessageMapper.map(message, null, false, DeliveryMode.PERSISTENT);
+        assertEquals(JacksonPayloadCodec.ID, xmlMessage.getProperties().getString(SolaceBinderHeaders.PAYLOAD_CODEC));
+        assertEquals(HashMap.class.getName(), xmlMessage.getProperties().getString(SolaceBinderHeaders.PAYLOAD_TYPE));
+
+        Message<?> mapped = xmlMessageMapper.map(xmlMessage, null, new SolaceConsumerProperties());
+        assertEquals(payload, mapped.getPayload());
+    }
+
+    @Test
+    void testMapPayloadCodec_FallbackToJavaSerialization() throws Exception {
+        xmlMessageMapper.setPayloadCodec(new BinaryPayloadCodec());
+        SerializableFoo payload = new SerializableFoo("abc123", "HOOPLA!");
+        Message<?> message = MessageBuilder.withPayload(payload).build();
+
+        XMLMessage xmlMessage = xmlMessageMapper.map(message, null, false, DeliveryMode.PERSISTENT);
+        assertTrue(xmlMessage.getProperties().getBoolean(SolaceBinderHeaders.SERIALIZED_PAYLOAD));
+        assertFalse(xmlMessage.getProperties().containsKey(SolaceBinderHeaders.PAYLOAD_CODEC));
+
+        Message<?> mapped = xmlMessageMapper.map(xmlMessage, null, new SolaceConsumerProperties());
+        assertEquals(payload, mapped.getPayload());
+    }
+
+    @Test
+    void testMapPayloadCodec_UnknownCodec() throws Exception {
+        BytesMessage xmlMessage = JCSMPFactory.onlyInstance().createMessage(BytesMessage.class);
+        xmlMessage.setData(new byte[]{1, 2, 3});
+        SDTMap metadata = JCSMPFactory.onlyInstance().createMap();
+        metadata.putString(SolaceBinderHeaders.PAYLOAD_CODEC, "unknown");
+        xmlMessage.setProperties(metadata);
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> xmlMessageMapper.map(xmlMessage, null, new SolaceConsumerProperties()));
+        assertThat(thrown.getCause(), instanceOf(SolaceMessageConversionException.class));
+    }
+
+    @Test
+    void testSetMessageVersion_Unsupported() {
+        assertThrows(IllegalArgumentException.class, () -> xmlMessageMapper.setMessageVersion(3));
+    }
+
     @Test
     void testMapMessageHeadersToSDTMap_NonSerializable() {
         IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
@@ -1140,6 +1309,33 @@ public class XMLMessageMapperTest {
         }
     }
 
+    @Test
+    void testMappingPlanCompiledOncePerExclusions() {
+        List<String> excludedHeaders = List.of("headerKey1");
+        HeaderMappingPlan plan = xmlMessageMapper.getMappingPlan(excludedHeaders);
+        assertSame(plan, xmlMessageMapper.getMappingPlan(excludedHeaders));
+        assertTrue(plan.isSkippedOutbound("headerKey1"));
+        assertTrue(plan.isSkippedInbound("headerKey1"));
+        assertFalse(plan.isSkippedOutbound("headerKey2"));
+
+        HeaderMappingPlan otherPlan = xmlMessageMapper.getMappingPlan(List.of("headerKey2"));
+        assertNotSame(plan, otherPlan);
+        assertFalse(otherPlan.isSkippedOutbound("headerKey1"));
+        assertTrue(otherPlan.isSkippedOutbound("headerKey2"));
+    }
+
+    @Test
+    void testMapMessageHeadersToSDTMap_SkipsInternalHeadersCaseInsensitive() throws Exception {
+        Map<String, Object> headers = new HashMap<>();
+        headers.put(BinderHeaders.TARGET_DESTINATION.toUpperCase(), "some/topic");
+        headers.put(SolaceBinderHeaders.CONFIRM_CORRELATION.toUpperCase(), "correlation");
+        headers.put("headerKey", "value");
+
+        SDTMap sdtMap = xmlMessageMapper.map(headers, null, false);
+
+        assertEquals(Set.of("headerKey"), sdtMap.keySet());
+    }
+
     @Test
     void testMapXMLMessageToSpringMessage_WithExcludedHeader()
             throws SDTException {